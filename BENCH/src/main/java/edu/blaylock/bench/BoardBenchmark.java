@@ -0,0 +1,65 @@
+package edu.blaylock.bench;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.notation.Fen;
+import edu.blaylock.chess.perft.PerftPosition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board copies, the compact string form boards are stored and sent in, and FEN
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"OBJECT", "BITBOARD"})
+    public ChessBoardFactory.Implementation implementation;
+
+    @Param({"START", "KIWIPETE"})
+    public PerftPosition position;
+
+    private ChessGame game;
+    private ChessBoard board;
+    private String serialized;
+
+    @Setup
+    public void setup() {
+        ChessBoardFactory.setImplementation(implementation);
+        game = position.newGame(implementation);
+        board = game.getBoard();
+        serialized = board.serialize();
+    }
+
+    @Benchmark
+    public ChessBoard copy() {
+        return board.copy();
+    }
+
+    @Benchmark
+    public String serialize() {
+        return board.serialize();
+    }
+
+    @Benchmark
+    public ChessBoard buildFromBytes() {
+        return ChessBoardFactory.buildFromBytes(serialized);
+    }
+
+    @Benchmark
+    public ChessGame readFen() {
+        return Fen.read(position.getFen(), implementation);
+    }
+
+    @Benchmark
+    public String writeFen() {
+        return Fen.write(game);
+    }
+}
@@ -0,0 +1,72 @@
+package edu.blaylock.bench;
+
+import edu.blaylock.chess.GameState;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.perft.PerftPosition;
+import edu.blaylock.server.database.dao.GameDAO;
+import edu.blaylock.server.database.dao.UserDAO;
+import edu.blaylock.server.database.implementations.local.MemoryDatabase;
+import edu.blaylock.server.database.models.Game;
+import edu.blaylock.server.database.models.User;
+import edu.blaylock.server.exceptions.DataAccessException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemoryDatabase queries behind the game list, joining and moving. Every stored game goes through the GameSpec, so
+ * lookups include deserializing the ChessGame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseBenchmark {
+
+    @Param({"10", "100"})
+    public int games;
+
+    private GameDAO gameDAO;
+    private UserDAO userDAO;
+    private Game lastGame;
+
+    @Setup
+    public void setup() throws DataAccessException {
+        MemoryDatabase database = new MemoryDatabase();
+        gameDAO = new GameDAO(database);
+        userDAO = new UserDAO(database);
+
+        for (int id = 1; id <= games; id++) {
+            String white = "white" + id;
+            String black = "black" + id;
+            userDAO.create(new User(white, "password", white + "@mail.com"));
+            userDAO.create(new User(black, "password", black + "@mail.com"));
+
+            lastGame = new Game(id, white, black, "game" + id,
+                    PerftPosition.KIWIPETE.newGame(ChessBoardFactory.getImplementation()), GameState.UNFINISHED);
+            gameDAO.create(lastGame);
+        }
+    }
+
+    @Benchmark
+    public Game getGameById() throws DataAccessException {
+        return gameDAO.getGameById(games);
+    }
+
+    @Benchmark
+    public void updateChessGame() throws DataAccessException {
+        gameDAO.updateChessGame(lastGame.gameID(), lastGame.game());
+    }
+
+    @Benchmark
+    public Game[] listGames() throws DataAccessException {
+        return gameDAO.findAll();
+    }
+
+    @Benchmark
+    public User getUserByName() throws DataAccessException {
+        return userDAO.getUserByName("black" + games);
+    }
+}
@@ -0,0 +1,52 @@
+package edu.blaylock.bench;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import edu.blaylock.chess.GameState;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.perft.PerftPosition;
+import edu.blaylock.utils.gson.GsonUtils;
+import org.openjdk.jmh.annotations.*;
+import webSocketMessages.serverMessages.LoadGameMessage;
+import webSocketMessages.serverMessages.ServerMessage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoadGameMessage through Gson, as the server sends it after every move and the client reads it back
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageBenchmark {
+
+    @Param({"OBJECT", "BITBOARD"})
+    public ChessBoardFactory.Implementation implementation;
+
+    private Gson gson;
+    private LoadGameMessage message;
+    private String json;
+
+    @Setup
+    public void setup() {
+        ChessBoardFactory.setImplementation(implementation);
+        ChessGame game = PerftPosition.KIWIPETE.newGame(implementation);
+
+        gson = GsonUtils.standard();
+        message = new LoadGameMessage(game, GameState.UNFINISHED, "benchmark");
+        json = gson.toJson(message);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return gson.toJson(message);
+    }
+
+    @Benchmark
+    public ServerMessage deserialize() {
+        return gson.fromJson(json, ServerMessage.class);
+    }
+}
@@ -0,0 +1,73 @@
+package edu.blaylock.bench;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.perft.PerftPosition;
+import edu.blaylock.chess.rules.LegalMoveGenerator;
+import edu.blaylock.chess.rules.MoveList;
+import edu.blaylock.chess.rules.PositionCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legal move generation and end of game detection, the work done by the server on every move a player makes.<br>
+ * The game looks moves up in a PositionCache of its own, emptied before every call, so each call generates the moves
+ * of the position once like the first question asked about a new position, instead of being answered by the shared
+ * cache. generateMoves measures LegalMoveGenerator alone, without the cache or ChessMove objects.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    @Param({"OBJECT", "BITBOARD"})
+    public ChessBoardFactory.Implementation implementation;
+
+    @Param({"START", "KIWIPETE"})
+    public PerftPosition position;
+
+    private final PositionCache cache = new PositionCache(0);
+    private final MoveList moves = new MoveList();
+
+    private ChessGame game;
+    private List<ChessPosition> pieces;
+
+    @Setup
+    public void setup() {
+        game = position.newGame(implementation);
+        ((ChessGameImpl) game).setPositionCache(cache);
+        pieces = new ArrayList<>();
+        game.getBoard().pieceLocationIterator(game.getTeamTurn()).forEach(pieces::add);
+    }
+
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        cache.clear();
+        for (ChessPosition piece : pieces) {
+            for (ChessMove move : game.validMoves(piece)) blackhole.consume(move);
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        cache.clear();
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        moves.clear();
+        new LegalMoveGenerator(game.getBoard(), game.getTeamTurn()).addAllMoves(moves);
+        return moves.size();
+    }
+}
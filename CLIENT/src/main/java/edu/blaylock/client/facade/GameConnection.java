@@ -110,6 +110,15 @@ public class GameConnection extends Endpoint {
         sendCommand(new VerboseCommand(authToken, gameID));
     }
 
+    /**
+     * Ask the server for the best move in the current position, answered with a notification
+     *
+     * @throws IOException Error communicating
+     */
+    public void analyze() throws IOException {
+        sendCommand(new AnalyzeCommand(authToken, gameID));
+    }
+
     /**
      * Closes the websocket
      *
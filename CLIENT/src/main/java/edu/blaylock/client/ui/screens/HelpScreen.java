@@ -59,6 +59,8 @@ public class HelpScreen extends Pane {
                     Actions(All):
                     - Highlight Moves : Use arrows to select any piece and view
                                         Available moves. Ctrl-D to exit selection.
+                    - Analyze : Best move in the current position, shown in
+                                the notifications once found
                     - Help : Bring up this screen
                     - Leave : leave the game, return to login""";
 
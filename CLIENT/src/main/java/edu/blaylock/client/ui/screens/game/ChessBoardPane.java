@@ -235,7 +235,7 @@ public class ChessBoardPane extends Component {
     private ChessPosition reverseIfFlipped(ChessPosition position) {
         if (!flipped) return position;
 
-        return new ChessPositionImpl(9 - position.getRow(), 9 - position.getColumn());
+        return ChessPositionImpl.of(9 - position.getRow(), 9 - position.getColumn());
     }
 
     /**
@@ -263,11 +263,10 @@ public class ChessBoardPane extends Component {
      * @return Color
      */
     private Color getColor(int row, int col) {
-        ChessPosition position = new ChessPositionImpl(row, col);
-        if (position.getRow() <= 0 || position.getRow() > 8 || position.getColumn() <= 0 || position.getColumn() > 8) {
+        if (row <= 0 || row > 8 || col <= 0 || col > 8) {
             return BORDER_COLORS[0];
-        } else if (highlights.contains(position)) {
-            return HIGHLIGHT_COLORS[(position.getRow() + position.getColumn() + 1) % 2];
+        } else if (highlights.contains(ChessPositionImpl.of(row, col))) {
+            return HIGHLIGHT_COLORS[(row + col + 1) % 2];
         } else {
             return BOARD_COLORS[(row + col + 1) % 2];
         }
@@ -139,7 +139,7 @@ public class GameScreen extends Pane {
     }
 
     private OptionsPane createOptionsPane() {
-        OptionsPane optionsPane = new OptionsPane(this::resign, this::makeMove, this::highlight, this::rotate, this::help, this::leave);
+        OptionsPane optionsPane = new OptionsPane(this::resign, this::makeMove, this::highlight, this::analyze, this::rotate, this::help, this::leave);
         optionsPane.translate(0, -1);
         optionsPane.resize(-5, -2);
         this.optionsPane = optionsPane;
@@ -231,7 +231,8 @@ public class GameScreen extends Pane {
         infoPane.setState(message.state());
         infoPane.setTurn(message.game().getTeamTurn());
         infoPane.setRound(message.game().getBoard().getRound());
-        board.highlightMoves(message.game().validMoves(new ChessPositionImpl(1, 4)));
+        infoPane.setEvaluation(message.game().getBoard().getScore());
+        board.highlightMoves(message.game().validMoves(ChessPositionImpl.of(1, 4)));
 
         GameUIState state;
         if (message.state() == GameState.UNFINISHED) {
@@ -258,6 +259,16 @@ public class GameScreen extends Pane {
         footer.setText(SELECTION_INFO);
     }
 
+    private void analyze() {
+        clearBoard();
+        try {
+            connection.analyze();
+            notifications.setText("Analyzing...");
+        } catch (IOException e) {
+            onError("ERROR COMMUNICATING WITH SERVER.");
+        }
+    }
+
     private void resign() {
         clearBoard();
 
@@ -84,7 +84,7 @@ public class HighlightSelector {
      * Notify positionCallback of change
      */
     private void sendPositionEvent() {
-        positionCallback.accept(new ChessPositionImpl(!flipped ? (row + 1) : (8 - row), !flipped ? (col + 1) : (8 - col)));
+        positionCallback.accept(ChessPositionImpl.of(!flipped ? (row + 1) : (8 - row), !flipped ? (col + 1) : (8 - col)));
     }
 
     private void setFlipped(boolean flipped) {
@@ -13,6 +13,7 @@ import edu.blaylock.client.ui.components.base.Pane;
  *     <li>Round: current round in game</li>
  *     <li>Turn: whose turn is it</li>
  *     <li>Color: Color of client</li>
+ *     <li>Evaluation: material and position score, in pawns from white's side</li>
  *     <li>Selection: selected piece (only if selector is enable)</li>
  * </ul>
  */
@@ -21,6 +22,7 @@ class InfoPane extends Pane {
     private final Label stateLabel;
     private final Label roundLabel;
     private final Label turnLabel;
+    private final Label evaluationLabel;
 
     private final Label colorLabel;
     private final Label selectLabel;
@@ -31,6 +33,7 @@ class InfoPane extends Pane {
         turnLabel = makeLabel(3);
         roundLabel = makeLabel(4);
         stateLabel = makeLabel(5);
+        evaluationLabel = makeLabel(6);
         selectLabel = makeLabel(Integer.MIN_VALUE);
 
         this.addComponent(nameLabel);
@@ -38,6 +41,7 @@ class InfoPane extends Pane {
         this.addComponent(stateLabel);
         this.addComponent(roundLabel);
         this.addComponent(turnLabel);
+        this.addComponent(evaluationLabel);
         this.addComponent(selectLabel);
     }
 
@@ -68,6 +72,15 @@ class InfoPane extends Pane {
         roundLabel.setText(String.format("Round: %d", round + 1));
     }
 
+    /**
+     * Update evaluation shown to player
+     *
+     * @param score score in centipawns from white's side, see ChessBoard.getScore
+     */
+    public void setEvaluation(int score) {
+        evaluationLabel.setText(String.format("Evaluation: %+.2f", score / 100.0));
+    }
+
     /**
      * update turn
      *
@@ -32,7 +32,7 @@ public class MoveSelector {
     }
 
     public MoveSelector(int row, int col, Consumer<ChessMove> moveCallback, Consumer<ChessMove> submitCallback, boolean flipped) {
-        this.startPosition = new ChessPositionImpl(row, col);
+        this.startPosition = ChessPositionImpl.of(row, col);
         this.moveCallback = moveCallback;
         this.submitCallback = submitCallback;
         this.flipped = flipped;
@@ -51,7 +51,7 @@ public class MoveSelector {
     public void reset() {
         synchronized (mutex) {
             endPosition = null;
-            startPosition = new ChessPositionImpl(1, 1);
+            startPosition = ChessPositionImpl.of(1, 1);
             if (enabled) sendMoveEvent();
         }
     }
@@ -91,7 +91,7 @@ public class MoveSelector {
 
     private ChessPosition getPosition(ChessPosition position) {
         if (position == null) return null;
-        return new ChessPositionImpl(
+        return ChessPositionImpl.of(
                 !flipped ? position.getRow() : (9 - position.getRow()),
                 !flipped ? position.getColumn() : (9 - position.getColumn()));
     }
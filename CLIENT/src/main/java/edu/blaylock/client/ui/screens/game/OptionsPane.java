@@ -7,7 +7,7 @@ import edu.blaylock.client.ui.components.focusmanagers.FocusManager;
 
 /**
  * Options to display, this basically holds 4 different selectors for each state and will display and hide the others
- * dependent on state. A list of 6 callbacks for the different actions available are used in the selectors.
+ * dependent on state. A list of 7 callbacks for the different actions available are used in the selectors.
  * Lock the options pane (doesn't register keypresses any more) if doing something else
  */
 public class OptionsPane extends Pane {
@@ -16,7 +16,7 @@ public class OptionsPane extends Pane {
     Selector observer = new Selector(UIUtils.Justify.CENTER);
     Selector ended = new Selector(UIUtils.Justify.CENTER);
 
-    public OptionsPane(Runnable resign, Runnable makeMove, Runnable highlightMove, Runnable rotate, Runnable help, Runnable leave) {
+    public OptionsPane(Runnable resign, Runnable makeMove, Runnable highlightMove, Runnable analyze, Runnable rotate, Runnable help, Runnable leave) {
         disable(myTurn);
         disable(notTurn);
         disable(observer);
@@ -42,16 +42,19 @@ public class OptionsPane extends Pane {
 
         myTurn.addSelection("Make Move", makeMove);
         myTurn.addSelection("Highlight Moves", highlightMove);
+        myTurn.addSelection("Analyze", analyze);
         myTurn.addSelection("Resign", resign);
         myTurn.addSelection("Help", help);
         myTurn.addSelection("Leave", leave);
 
         notTurn.addSelection("Highlight Moves", highlightMove);
+        notTurn.addSelection("Analyze", analyze);
         notTurn.addSelection("Resign", resign);
         notTurn.addSelection("Help", help);
         notTurn.addSelection("Leave", leave);
 
         observer.addSelection("Highlight Moves", highlightMove);
+        observer.addSelection("Analyze", analyze);
         observer.addSelection("Rotate", rotate);
         observer.addSelection("Leave", leave);
         observer.addSelection("Help", help);
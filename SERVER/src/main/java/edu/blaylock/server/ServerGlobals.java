@@ -1,10 +1,16 @@
 package edu.blaylock.server;
 
+import edu.blaylock.chess.book.OpeningBook;
+import edu.blaylock.chess.tablebase.Tablebases;
 import edu.blaylock.server.database.implementations.IDatabase;
 import edu.blaylock.server.database.implementations.mysql.MySqlDatabase;
 import edu.blaylock.server.exceptions.DataAccessException;
 import edu.blaylock.server.handlers.HandlerManager;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 /**
  * Static class for all singletons needed in the server program
  */
@@ -24,6 +30,18 @@ public class ServerGlobals {
      */
     private static IDatabase databaseInstance;
 
+    /**
+     * Opening book used by computer players, null if there is none. Read from the file named by the system property
+     * "chess.book", or opening_book.bin in the working directory
+     */
+    private static OpeningBook openingBookInstance;
+
+    /**
+     * Endgame tables used to end games early, null until loaded. Read from the directory named by the system property
+     * "chess.tablebases", or tablebases in the working directory, and solved in the background if it doesn't exist
+     */
+    private static volatile Tablebases tablebasesInstance;
+
     /**
      * Set Server, Database, and HandlerManager globals
      *
@@ -33,6 +51,20 @@ public class ServerGlobals {
         ServerGlobals.server(server);
         ServerGlobals.database(new MySqlDatabase());
         ServerGlobals.handlers(new HandlerManager());
+        ServerGlobals.openingBook(loadOpeningBook());
+        loadTablebases();
+    }
+
+    private static OpeningBook loadOpeningBook() {
+        Path path = Path.of(System.getProperty("chess.book", "opening_book.bin"));
+        if (!Files.isRegularFile(path)) return null;
+
+        try {
+            return OpeningBook.open(path);
+        } catch (IOException e) {
+            System.out.println("Couldn't open opening book " + path + ": " + e.getMessage());
+            return null;
+        }
     }
 
     public static IDatabase database() {
@@ -43,10 +75,30 @@ public class ServerGlobals {
         return handlerManagerInstance;
     }
 
+    private static void loadTablebases() {
+        Path directory = Path.of(System.getProperty("chess.tablebases", "tablebases"));
+        if (Files.isDirectory(directory)) {
+            try {
+                ServerGlobals.tablebases(Tablebases.read(directory));
+                return;
+            } catch (IOException e) {
+                System.out.println("Couldn't read tablebases in " + directory + ": " + e.getMessage());
+            }
+        }
+
+        Thread solver = new Thread(() -> ServerGlobals.tablebases(Tablebases.generate()), "tablebase-solver");
+        solver.setDaemon(true);
+        solver.start();
+    }
+
     public static ChessServer server() {
         return runningServerInstance;
     }
 
+    public static OpeningBook openingBook() {
+        return openingBookInstance;
+    }
+
     public static void database(IDatabase database) {
         ServerGlobals.databaseInstance = database;
     }
@@ -58,4 +110,16 @@ public class ServerGlobals {
     public static void server(ChessServer server) {
         ServerGlobals.runningServerInstance = server;
     }
+
+    public static Tablebases tablebases() {
+        return tablebasesInstance;
+    }
+
+    public static void tablebases(Tablebases tablebases) {
+        ServerGlobals.tablebasesInstance = tablebases;
+    }
+
+    public static void openingBook(OpeningBook openingBook) {
+        ServerGlobals.openingBookInstance = openingBook;
+    }
 }
@@ -0,0 +1,237 @@
+package edu.blaylock.server.batch;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPosition;
+import edu.blaylock.chess.GameState;
+import edu.blaylock.chess.MoveHistory;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.impl.PieceSquareTables;
+import edu.blaylock.chess.tablebase.TablebaseResult;
+import edu.blaylock.chess.tablebase.Tablebases;
+import edu.blaylock.server.ServerGlobals;
+import edu.blaylock.server.database.dao.GameDAO;
+import edu.blaylock.server.database.dao.GameStatisticsDAO;
+import edu.blaylock.server.database.implementations.mysql.MySqlDatabase;
+import edu.blaylock.server.database.models.Game;
+import edu.blaylock.server.database.models.GameStatistics;
+import edu.blaylock.server.exceptions.DataAccessException;
+import edu.blaylock.server.gameplay.GameManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Offline job storing statistics of every finished game of blaylock_game into blaylock_game_statistics.<br>
+ * Games are read PAGE_SIZE at a time in gameID order, so memory holds two pages however many games there are: the
+ * page being annotated on a fork-join pool and the next one, read meanwhile. After a page is written its last gameID
+ * goes to a checkpoint file, and a run started again resumes after it. Statistics already stored are never written
+ * twice, so a page written just before the job stopped is simply skipped.<br>
+ * Length, pieces taken, material left and how the game ended come from its final position. Games whose moves were
+ * stored are replayed from their start to count the checks given and how far the material balance swung, which games
+ * stored before moves were kept can't tell. The winner comes from the checkmate, the team that resigned or, for
+ * adjudicated games, the endgame tablebases when they are loaded.
+ */
+public class GameAnnotationJob {
+
+    public static final int PAGE_SIZE = 512;
+    public static final String DEFAULT_CHECKPOINT = "annotation.checkpoint";
+
+    private static final int PIECES_AT_START = 32;
+
+    private final GameDAO games;
+    private final GameStatisticsDAO statistics;
+    private final ForkJoinPool pool;
+    private final Path checkpoint;
+
+    /**
+     * Totals of a run
+     *
+     * @param read       games read, finished or not
+     * @param annotated  statistics stored
+     * @param lastGameID gameID the checkpoint is at
+     */
+    public record Progress(int read, int annotated, int lastGameID) {
+    }
+
+    /**
+     * @param games      games to read
+     * @param statistics where to store statistics
+     * @param pool       pool annotating games
+     * @param checkpoint file holding the last gameID done, created if missing
+     */
+    public GameAnnotationJob(GameDAO games, GameStatisticsDAO statistics, ForkJoinPool pool, Path checkpoint) {
+        this.games = games;
+        this.statistics = statistics;
+        this.pool = pool;
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Annotate every finished game after the checkpoint
+     *
+     * @return totals of this run
+     * @throws DataAccessException Database error, the checkpoint stays at the last page written
+     * @throws IOException         if the checkpoint can't be read or written
+     */
+    public Progress run() throws DataAccessException, IOException {
+        int last = readCheckpoint();
+        int read = 0;
+        int annotated = 0;
+
+        Game[] page = games.findGamesAfter(last, PAGE_SIZE);
+        while (page.length > 0) {
+            Game[] current = page;
+            ForkJoinTask<List<GameStatistics>> task = pool.submit(() -> Arrays.stream(current).parallel()
+                    .filter(GameAnnotationJob::isFinished)
+                    .map(GameAnnotationJob::annotate)
+                    .toList());
+
+            last = current[current.length - 1].gameID();
+            page = games.findGamesAfter(last, PAGE_SIZE);
+
+            for (GameStatistics gameStatistics : task.join()) {
+                if (statistics.saveIfAbsent(gameStatistics)) annotated++;
+            }
+            read += current.length;
+            writeCheckpoint(last);
+        }
+        return new Progress(read, annotated, last);
+    }
+
+    /**
+     * @param game game from the database
+     * @return whether the game is over and can be annotated
+     */
+    public static boolean isFinished(Game game) {
+        return game.game() != null && game.state() != null && game.state() != GameState.UNFINISHED;
+    }
+
+    /**
+     * Compute the statistics of a finished game
+     *
+     * @param game finished game
+     * @return statistics of the game
+     */
+    public static GameStatistics annotate(Game game) {
+        ChessGame chessGame = game.game();
+        ChessBoard board = chessGame.getBoard();
+
+        int pieces = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPosition ignored : board.pieceLocationIterator(color)) pieces++;
+        }
+
+        Integer checks = null;
+        Integer swing = null;
+        MoveHistory history = chessGame.getMoveHistory();
+        if (history != null && history.cursor() > 0) {
+            // Taken back to the start on a copy, then made again one move at a time
+            ChessGame replay = chessGame.copy();
+            int made = history.cursor();
+            for (int i = 0; i < made; i++) replay.undoMove();
+
+            int lowest = material(replay.getBoard());
+            int highest = lowest;
+            checks = 0;
+            for (int i = 0; i < made; i++) {
+                replay.redoMove();
+                if (ChessGameImpl.isInCheck(replay.getTeamTurn(), replay.getBoard())) checks++;
+                int material = material(replay.getBoard());
+                lowest = Math.min(lowest, material);
+                highest = Math.max(highest, material);
+            }
+            swing = highest - lowest;
+        }
+
+        ChessGame.TeamColor turn = chessGame.getTeamTurn();
+        ChessGame.TeamColor winner = winner(game);
+        return new GameStatistics(game.gameID(), board.getRound(), PIECES_AT_START - pieces, material(board),
+                chessGame.isInCheck(turn), checks, swing, game.state(), (winner == null) ? null : winner.toString());
+    }
+
+    /**
+     * @param game finished game
+     * @return color that won, null for a draw or when the stored game doesn't tell: resigned before the team resigning
+     * was stored, or adjudicated without the tablebases loaded
+     */
+    public static ChessGame.TeamColor winner(Game game) {
+        ChessGame chessGame = game.game();
+        ChessGame.TeamColor turn = chessGame.getTeamTurn();
+        return switch (game.state()) {
+            case CHECKMATE -> chessGame.isInCheckmate(turn) ? turn.next() : null;
+            case RESIGNED -> (chessGame.getResignedTeam() == null) ? null : chessGame.getResignedTeam().next();
+            case ADJUDICATED -> {
+                TablebaseResult result = GameManager.probeTablebases(chessGame);
+                if (result == null || result.outcome() == TablebaseResult.Outcome.DRAW) yield null;
+                yield (result.outcome() == TablebaseResult.Outcome.WIN) ? turn : turn.next();
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * @return material of white minus material of black, in centipawns
+     */
+    private static int material(ChessBoard board) {
+        int material = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPosition position : board.pieceLocationIterator(color)) {
+                int value = PieceSquareTables.value(board.getPiece(position).getPieceType());
+                material += (color == ChessGame.TeamColor.WHITE) ? value : -value;
+            }
+        }
+        return material;
+    }
+
+    private int readCheckpoint() throws IOException {
+        if (!Files.isRegularFile(checkpoint)) return 0;
+        try {
+            return Integer.parseInt(Files.readString(checkpoint).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Bad checkpoint in " + checkpoint);
+        }
+    }
+
+    /**
+     * Replace the checkpoint in one move so a crash leaves either the old or the new one
+     */
+    private void writeCheckpoint(int gameID) throws IOException {
+        Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(temporary, Integer.toString(gameID));
+        Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Annotate the games of the MySQL database. Tablebases are read like the server does, from the directory named by
+     * the system property "chess.tablebases" or tablebases in the working directory, if it exists.<br>
+     * Arguments: [checkpoint file, default "annotation.checkpoint"] [threads, default one per processor]
+     *
+     * @param args see above
+     * @throws Exception Database or checkpoint error
+     */
+    public static void main(String[] args) throws Exception {
+        Path checkpoint = Path.of((args.length > 0) ? args[0] : DEFAULT_CHECKPOINT);
+        int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        ServerGlobals.database(new MySqlDatabase());
+        Path tables = Path.of(System.getProperty("chess.tablebases", "tablebases"));
+        if (Files.isDirectory(tables)) ServerGlobals.tablebases(Tablebases.read(tables));
+        long start = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            GameAnnotationJob job = new GameAnnotationJob(new GameDAO(), new GameStatisticsDAO(), pool, checkpoint);
+            Progress progress = job.run();
+            System.out.printf("Read %d games, annotated %d, up to gameID %d in %d ms%n", progress.read(),
+                    progress.annotated(), progress.lastGameID(), System.currentTimeMillis() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package edu.blaylock.server.batch;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.GameState;
+import edu.blaylock.chess.MoveHistory;
+import edu.blaylock.chess.rules.PackedMove;
+import edu.blaylock.chess.notation.PgnGame;
+import edu.blaylock.chess.notation.PgnReader;
+import edu.blaylock.chess.notation.PgnWriter;
+import edu.blaylock.server.ServerGlobals;
+import edu.blaylock.server.database.dao.GameDAO;
+import edu.blaylock.server.database.implementations.mysql.MySqlDatabase;
+import edu.blaylock.server.database.models.Game;
+import edu.blaylock.server.exceptions.DataAccessException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves games between blaylock_game and PGN files, streaming both ways so an archive of any size fits in memory.<br>
+ * Imported games are stored without players, named after the PGN's players, at the position their moves lead to.
+ * Exported games are read GameAnnotationJob.PAGE_SIZE at a time in gameID order. Each one is written from the start
+ * of its move history with its moves, which is a SetUp game from its current position for games stored before their
+ * moves were kept.
+ */
+public class GameArchive {
+
+    private static final int MAX_NAME_LENGTH = 42;
+
+    private final GameDAO games;
+
+    /**
+     * Totals of an import or export
+     *
+     * @param games   games stored or written
+     * @param skipped games that couldn't be read or played
+     */
+    public record Counts(int games, int skipped) {
+    }
+
+    /**
+     * @param games games to store to or read from
+     */
+    public GameArchive(GameDAO games) {
+        this.games = games;
+    }
+
+    /**
+     * Store every game of a PGN text, skipping the ones with broken text or illegal moves
+     *
+     * @param text PGN text, read to its end but not closed
+     * @return totals of the import
+     * @throws IOException         if the text can't be read
+     * @throws DataAccessException Database error, the games before it are stored
+     */
+    public Counts importGames(Reader text) throws IOException, DataAccessException {
+        PgnReader reader = new PgnReader(text);
+        int stored = 0;
+        int skipped = 0;
+        while (true) {
+            try {
+                PgnGame pgnGame = reader.next();
+                if (pgnGame == null) break;
+                games.createGame(toGame(pgnGame));
+                stored++;
+            } catch (InvalidMoveException | IllegalArgumentException e) {
+                skipped++;
+            }
+        }
+        return new Counts(stored, skipped);
+    }
+
+    /**
+     * Write every stored game as PGN
+     *
+     * @param text where to write, flushed but not closed
+     * @return totals of the export
+     * @throws IOException         if the text can't be written
+     * @throws DataAccessException Database error
+     */
+    public Counts exportGames(Writer text) throws IOException, DataAccessException {
+        PgnWriter writer = new PgnWriter(text);
+        int written = 0;
+        int skipped = 0;
+
+        int last = 0;
+        Game[] page = games.findGamesAfter(last, GameAnnotationJob.PAGE_SIZE);
+        while (page.length > 0) {
+            for (Game game : page) {
+                try {
+                    if (game.game() == null) throw new InvalidMoveException("Game " + game.gameID() + " is empty");
+                    writer.write(toPgnGame(game));
+                    written++;
+                } catch (InvalidMoveException e) {
+                    skipped++;
+                }
+            }
+            last = page[page.length - 1].gameID();
+            page = games.findGamesAfter(last, GameAnnotationJob.PAGE_SIZE);
+        }
+        writer.flush();
+        return new Counts(written, skipped);
+    }
+
+    /**
+     * @param pgnGame game read from PGN
+     * @return game to store, at the end of its moves
+     * @throws InvalidMoveException if a move isn't legal
+     */
+    public static Game toGame(PgnGame pgnGame) throws InvalidMoveException {
+        ChessGame game = pgnGame.play();
+        String name = pgnGame.tags().getOrDefault("White", "?") + " vs " + pgnGame.tags().getOrDefault("Black", "?");
+        if (name.length() > MAX_NAME_LENGTH) name = name.substring(0, MAX_NAME_LENGTH);
+        GameState state = stateOf(pgnGame.result(), game);
+        if (state == GameState.RESIGNED) {
+            game.setResignedTeam(pgnGame.result().equals(PgnGame.WHITE_WINS) ? ChessGame.TeamColor.BLACK
+                    : ChessGame.TeamColor.WHITE);
+        }
+        return new Game(0, null, null, name, game, state);
+    }
+
+    /**
+     * Decisive results without a checkmate count as resignations, and draws that aren't stalemates or drawn by the
+     * rules as adjudicated
+     */
+    private static GameState stateOf(String result, ChessGame game) {
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        if (game.isInCheckmate(turn)) return GameState.CHECKMATE;
+        if (game.isInStalemate(turn)) return GameState.STALEMATE;
+        return switch (result) {
+            case PgnGame.WHITE_WINS, PgnGame.BLACK_WINS -> GameState.RESIGNED;
+            case PgnGame.DRAW -> game.isDrawByRepetition() ? GameState.DRAW_REPETITION
+                    : game.isDrawByFiftyMoves() ? GameState.DRAW_FIFTY_MOVE : GameState.ADJUDICATED;
+            default -> GameState.UNFINISHED;
+        };
+    }
+
+    /**
+     * @param game stored game
+     * @return game from the start of its move history, with its name and players as tags
+     */
+    public static PgnGame toPgnGame(Game game) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", game.gameName());
+        tags.put("Site", "console-chess-game");
+        if (game.whiteUsername() != null) tags.put("White", game.whiteUsername());
+        if (game.blackUsername() != null) tags.put("Black", game.blackUsername());
+        tags.put("GameId", Integer.toString(game.gameID()));
+
+        // Moves made are listed, then taken back on a copy to find where they start
+        ChessGame start = game.game().copy();
+        MoveHistory history = start.getMoveHistory();
+        int made = (history == null) ? 0 : history.cursor();
+        List<ChessMove> moves = new ArrayList<>(made);
+        for (int i = 0; i < made; i++) {
+            moves.add(PackedMove.toChessMove(history.move(i)));
+            start.undoMove();
+        }
+        return new PgnGame(tags, moves, resultOf(game), start);
+    }
+
+    private static String resultOf(Game game) {
+        if (game.state() == null || game.state() == GameState.UNFINISHED) return PgnGame.UNFINISHED;
+        if (game.state() == GameState.STALEMATE || game.state() == GameState.DRAW_REPETITION
+                || game.state() == GameState.DRAW_FIFTY_MOVE) {
+            return PgnGame.DRAW;
+        }
+        ChessGame.TeamColor winner = GameAnnotationJob.winner(game);
+        if (winner != null) return (winner == ChessGame.TeamColor.WHITE) ? PgnGame.WHITE_WINS : PgnGame.BLACK_WINS;
+        // Resigned games stored before the team resigning was, and adjudicated ones the tables can't tell
+        return PgnGame.UNFINISHED;
+    }
+
+    /**
+     * Import or export the games of the MySQL database.<br>
+     * Arguments: import|export file
+     *
+     * @param args see above
+     * @throws Exception Database or file error
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2 || !args[0].equals("import") && !args[0].equals("export")) {
+            System.err.println("Usage: GameArchive import|export file.pgn");
+            return;
+        }
+
+        ServerGlobals.database(new MySqlDatabase());
+        GameArchive archive = new GameArchive(new GameDAO());
+        Path path = Path.of(args[1]);
+        long start = System.currentTimeMillis();
+        Counts counts;
+        if (args[0].equals("import")) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                counts = archive.importGames(reader);
+            }
+        } else {
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                counts = archive.exportGames(writer);
+            }
+        }
+        System.out.printf("%sed %d games, skipped %d in %d ms%n", args[0].equals("import") ? "Import" : "Export",
+                counts.games(), counts.skipped(), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,221 @@
+package edu.blaylock.server.batch;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.engine.MateSolution;
+import edu.blaylock.chess.engine.MateSolver;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.notation.Fen;
+import edu.blaylock.chess.notation.San;
+import edu.blaylock.server.ServerGlobals;
+import edu.blaylock.server.database.dao.GameDAO;
+import edu.blaylock.server.database.implementations.mysql.MySqlDatabase;
+import edu.blaylock.server.database.models.Game;
+import edu.blaylock.server.exceptions.DataAccessException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Offline job mining blaylock_game for mate puzzles.<br>
+ * Games are read GameAnnotationJob.PAGE_SIZE at a time in gameID order, the next page being read while the current one
+ * is solved. The candidates of a game are its last CANDIDATE_PLIES positions, found by taking its moves back on a copy,
+ * or only its final position for games stored before their moves were kept. Candidates are solved in parallel on a
+ * fork-join pool, each thread with its own MateSolver, and a position that comes up in several games is solved once. A
+ * candidate becomes a puzzle when the side to move has a forced mate whose key move is the only one.<br>
+ * Time is bounded twice: the solver gives up on a position after its node limit, and once the time budget is spent
+ * the page being solved is dropped and the run stops, saying which gameID to start after next time.
+ */
+public class PuzzleGenerator {
+
+    public static final int CANDIDATE_PLIES = 16;
+    public static final int DEFAULT_MAX_MOVES = 3;
+
+    /**
+     * Keys of positions solved that are remembered, so memory stays bounded however many games there are
+     */
+    private static final int MAX_SEEN = 1 << 20;
+
+    private final GameDAO games;
+    private final ForkJoinPool pool;
+    private final int maxMoves;
+    private final ThreadLocal<MateSolver> solvers;
+
+    /**
+     * Mate found in a stored game
+     *
+     * @param gameID   game the position comes from
+     * @param position position of the puzzle, the side to move mating
+     * @param key      only first move of the mate
+     * @param moves    moves of the side to move to mate
+     */
+    public record Puzzle(int gameID, ChessGame position, ChessMove key, int moves) {
+    }
+
+    private record Candidate(int gameID, ChessGame position) {
+    }
+
+    /**
+     * Totals of a run
+     *
+     * @param read       games read
+     * @param solved     candidate positions solved
+     * @param puzzles    puzzles written
+     * @param lastGameID gameID of the last game whose candidates were all solved
+     */
+    public record Progress(int read, int solved, int puzzles, int lastGameID) {
+    }
+
+    /**
+     * @param games     games to read
+     * @param pool      pool solving candidates
+     * @param maxMoves  longest mate to look for, at most MateSolver.MAX_MOVES
+     * @param nodeLimit positions the solver visits at most for a candidate
+     */
+    public PuzzleGenerator(GameDAO games, ForkJoinPool pool, int maxMoves, long nodeLimit) {
+        this.games = games;
+        this.pool = pool;
+        this.maxMoves = maxMoves;
+        this.solvers = ThreadLocal.withInitial(() -> new MateSolver(nodeLimit));
+    }
+
+    /**
+     * Write the puzzles of the games after a gameID, until there are no more games or the time budget is spent
+     *
+     * @param afterGameID  gameID to start after, 0 for every game
+     * @param budgetMillis time after which no more candidates are solved
+     * @param out          where to write puzzles as EPD, flushed after every page but not closed
+     * @return totals of this run
+     * @throws DataAccessException Database error
+     * @throws IOException         if the puzzles can't be written
+     */
+    public Progress run(int afterGameID, long budgetMillis, Writer out) throws DataAccessException, IOException {
+        long deadline = System.currentTimeMillis() + budgetMillis;
+        AtomicBoolean outOfTime = new AtomicBoolean();
+        Set<Long> seen = new HashSet<>();
+        int last = afterGameID;
+        int read = 0;
+        int solved = 0;
+        int written = 0;
+
+        Game[] page = games.findGamesAfter(last, GameAnnotationJob.PAGE_SIZE);
+        while (page.length > 0) {
+            if (seen.size() > MAX_SEEN) seen.clear();
+            List<Candidate> candidates = new ArrayList<>();
+            for (Game game : page) {
+                for (ChessGame position : candidates(game)) {
+                    if (seen.add(position.getZobristKey())) candidates.add(new Candidate(game.gameID(), position));
+                }
+            }
+            ForkJoinTask<List<Puzzle>> task = pool.submit(() -> candidates.parallelStream()
+                    .map((candidate) -> solve(candidate, deadline, outOfTime))
+                    .filter(Objects::nonNull)
+                    .toList());
+
+            Game[] current = page;
+            page = outOfTime.get() ? new Game[0] : games.findGamesAfter(current[current.length - 1].gameID(),
+                    GameAnnotationJob.PAGE_SIZE);
+
+            List<Puzzle> puzzles = task.join();
+            // A page cut short is solved again from its start by the next run, so none of its puzzles are written
+            if (outOfTime.get()) break;
+            for (Puzzle puzzle : puzzles) {
+                try {
+                    out.write(toEpd(puzzle));
+                    out.write('\n');
+                    written++;
+                } catch (InvalidMoveException e) {
+                    throw new IllegalStateException("Solver found an illegal key move in game " + puzzle.gameID(), e);
+                }
+            }
+            out.flush();
+
+            solved += candidates.size();
+            read += current.length;
+            last = current[current.length - 1].gameID();
+        }
+        return new Progress(read, solved, written, last);
+    }
+
+    private Puzzle solve(Candidate candidate, long deadline, AtomicBoolean outOfTime) {
+        if (outOfTime.get() || System.currentTimeMillis() > deadline) {
+            outOfTime.set(true);
+            return null;
+        }
+        MateSolution solution = solvers.get().solve(candidate.position(), maxMoves);
+        if (solution == null || !solution.unique()) return null;
+        return new Puzzle(candidate.gameID(), candidate.position(), solution.key(), solution.moves());
+    }
+
+    /**
+     * @param game stored game
+     * @return positions of its last CANDIDATE_PLIES moves, the final one first
+     */
+    public static List<ChessGame> candidates(Game game) {
+        List<ChessGame> positions = new ArrayList<>();
+        if (game.game() == null) return positions;
+
+        ChessGame replay = game.game().copy();
+        do {
+            positions.add(new ChessGameImpl(replay.getBoard().copy(), replay.getTeamTurn()));
+        } while (positions.size() < CANDIDATE_PLIES && replay.undoMove());
+        return positions;
+    }
+
+    /**
+     * @param puzzle puzzle to write
+     * @return puzzle as an EPD line: the first four FEN fields, then the key move, the mate and the game it comes from
+     * @throws InvalidMoveException if the key move isn't legal
+     */
+    public static String toEpd(Puzzle puzzle) throws InvalidMoveException {
+        String[] fields = Fen.write(puzzle.position()).split(" ");
+        return String.join(" ", Arrays.copyOf(fields, 4)) + " bm " + San.encode(puzzle.position(), puzzle.key())
+                + "; dm " + puzzle.moves() + "; id \"game " + puzzle.gameID() + "\";";
+    }
+
+    /**
+     * Mine the games of the MySQL database for puzzles.<br>
+     * Arguments: output file [seconds, default 600] [max moves, default 3] [gameID to start after, default 0]
+     * [threads, default one per processor]
+     *
+     * @param args see above
+     * @throws Exception Database or file error
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: PuzzleGenerator file.epd [seconds] [max moves] [after gameID] [threads]");
+            return;
+        }
+        long seconds = (args.length > 1) ? Long.parseLong(args[1]) : 600;
+        int maxMoves = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_MAX_MOVES;
+        int after = (args.length > 3) ? Integer.parseInt(args[3]) : 0;
+        int threads = (args.length > 4) ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        ServerGlobals.database(new MySqlDatabase());
+        long start = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (Writer writer = Files.newBufferedWriter(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            PuzzleGenerator generator = new PuzzleGenerator(new GameDAO(), pool, maxMoves,
+                    MateSolver.DEFAULT_NODE_LIMIT);
+            Progress progress = generator.run(after, seconds * 1000, writer);
+            System.out.printf("Read %d games, solved %d positions, wrote %d puzzles, up to gameID %d in %d ms%n",
+                    progress.read(), progress.solved(), progress.puzzles(), progress.lastGameID(),
+                    System.currentTimeMillis() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -60,6 +60,18 @@ public class GameDAO extends DAO<Game> {
         return models[0];
     }
 
+    /**
+     * Get the games following a gameID, in order, to go through every game a page at a time
+     *
+     * @param gameID last gameID of the previous page, 0 for the first page
+     * @param limit  most games to return
+     * @return games with a greater gameID, empty when there are none left
+     * @throws DataAccessException Database error
+     */
+    public Game[] findGamesAfter(int gameID, int limit) throws DataAccessException {
+        return this.database.queryRecordsAfter(getSpecification(), "gameID", gameID, limit);
+    }
+
     /**
      * Populates game with username for appropriate team color
      *
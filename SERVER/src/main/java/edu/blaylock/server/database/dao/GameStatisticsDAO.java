@@ -0,0 +1,67 @@
+package edu.blaylock.server.database.dao;
+
+import edu.blaylock.server.database.implementations.IDatabase;
+import edu.blaylock.server.database.models.GameStatistics;
+import edu.blaylock.server.database.tablespecs.GameStatisticsSpec;
+import edu.blaylock.server.database.tablespecs.TableSpec;
+import edu.blaylock.server.exceptions.DataAccessException;
+
+/**
+ * DAO object describing the following table:<br/>
+ * Name - "blaylock_game_statistics"<br/>
+ * Fields (Name:DBType:JavaType) -<br/>
+ * &emsp;("gameID":Integer:Integer), ("plies":Integer:Integer), ("captures":Integer:Integer),
+ * ("material":Integer:Integer), ("inCheck":Integer:Boolean), ("checks":Integer:Integer), ("swing":Integer:Integer),
+ * ("state":String:GameState), ("winner":String:String)<br/>
+ * Conversion - GameStatistics to/from Object[9]
+ */
+public class GameStatisticsDAO extends DAO<GameStatistics> {
+    /**
+     * Table description
+     */
+    public static final TableSpec<GameStatistics> SPECIFICATION = new GameStatisticsSpec();
+
+    /**
+     * Create new DAO for GameStatistics with given Database/Connection
+     *
+     * @param database IDatabase to call
+     */
+    public GameStatisticsDAO(IDatabase database) throws DataAccessException {
+        super(database);
+    }
+
+    public GameStatisticsDAO() throws DataAccessException {
+        super();
+    }
+
+    /**
+     * Get statistics of a game
+     *
+     * @param gameID gameID
+     * @return GameStatistics if found, null otherwise
+     * @throws DataAccessException Database error
+     */
+    public GameStatistics getStatisticsById(int gameID) throws DataAccessException {
+        GameStatistics[] models = findModelsByAttribute("gameID", gameID);
+        if (models.length == 0) return null;
+        return models[0];
+    }
+
+    /**
+     * Store statistics unless the game already has some, so a page written again after a restart is skipped
+     *
+     * @param statistics statistics to store
+     * @return whether they were stored
+     * @throws DataAccessException Database error
+     */
+    public boolean saveIfAbsent(GameStatistics statistics) throws DataAccessException {
+        if (getStatisticsById(statistics.gameID()) != null) return false;
+        create(statistics);
+        return true;
+    }
+
+    @Override
+    public TableSpec<GameStatistics> getSpecification() {
+        return SPECIFICATION;
+    }
+}
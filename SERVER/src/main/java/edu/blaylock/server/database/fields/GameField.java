@@ -16,7 +16,16 @@ public class GameField extends Field<ChessGame> {
      * @param name name of field
      */
     public GameField(String name) {
-        super(name, JDBCType.VARCHAR, ColumnAttributes.builder().notNull().maxLength(512).build());
+        super(name, JDBCType.VARCHAR, ColumnAttributes.builder().notNull().build());
+    }
+
+    /**
+     * Games carry their move history, which grows with every move, so they are stored as MEDIUMTEXT rather than a
+     * VARCHAR of fixed length
+     */
+    @Override
+    public String getSqlTypeDescription() {
+        return name + " MEDIUMTEXT NOT NULL";
     }
 
     @Override
@@ -44,6 +44,21 @@ public interface IDatabase {
      */
     <T extends IModel> T[] queryRecordsByField(TableSpec<T> spec, String field, Object key) throws DataAccessException;
 
+    /**
+     * Get, in order of a field, up to limit models whose value in that field is greater than a key. Lets a large table
+     * be read a page at a time, each page starting after the last value of the one before
+     *
+     * @param spec  Table description
+     * @param field name of field to order by, usually the primary key
+     * @param after value to start after
+     * @param limit most models to return
+     * @param <T>   Model type
+     * @return array of model results, empty once the table is exhausted
+     * @throws DataAccessException Database error, field and spec mismatch
+     */
+    <T extends IModel> T[] queryRecordsAfter(TableSpec<T> spec, String field, Object after, int limit)
+            throws DataAccessException;
+
     /**
      * Attempts to create a new record described by model. Throws error if any Uniqueness constraints fail
      *
@@ -47,6 +47,20 @@ public class MemoryDatabase implements IDatabase {
         return modelResults;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends IModel> T[] queryRecordsAfter(TableSpec<T> spec, String field, Object after, int limit)
+            throws DataAccessException {
+        Table table = getTable(spec);
+        Object[][] queryResults = table.findAfter(field, after, limit);
+
+        T[] modelResults = (T[]) Array.newInstance(spec.getModelClass(), queryResults.length);
+        for (int i = 0; i < queryResults.length; i++)
+            modelResults[i] = spec.getModelFromDatabaseRecord(queryResults[i]);
+
+        return modelResults;
+    }
+
     @Override
     public <T extends IModel> void addRecord(TableSpec<T> spec, T model) throws DataAccessException {
         Table table = getTable(spec);
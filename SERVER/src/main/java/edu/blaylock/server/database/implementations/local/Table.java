@@ -90,6 +90,28 @@ public class Table {
         return results.toArray(new Object[0][header.length]);
     }
 
+    /**
+     * Find, in order of a field, up to limit tuples whose value in that field is greater than a value
+     *
+     * @param field Field to order by, holding comparable values
+     * @param value Value to start after
+     * @param limit Most tuples to return
+     * @return Array of tuples(Object arrays)
+     * @throws DataAccessException Database error
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Object[][] findAfter(String field, Object value, int limit) throws DataAccessException {
+        int search_index = getIndexOfField(field);
+        Comparable after = (Comparable) value;
+        List<Object[]> results = new ArrayList<>();
+        for (Iterator<Object[]> iterator = iterator(); iterator.hasNext(); ) {
+            Object[] fields = iterator.next();
+            if (fields[search_index] != null && after.compareTo(fields[search_index]) < 0) results.add(fields);
+        }
+        results.sort((first, second) -> ((Comparable) first[search_index]).compareTo(second[search_index]));
+        return results.subList(0, Math.min(limit, results.size())).toArray(new Object[0][header.length]);
+    }
+
     /**
      * Replaces replacement value in replacementField for all tuples that match the keyValue in keyField
      *
@@ -131,6 +131,46 @@ public class MySqlDatabase implements IDatabase {
         return models.toArray((T[]) Array.newInstance(spec.getModelClass(), 0));
     }
 
+    /**
+     * Grab the page of records ordered by a field that comes after a value
+     *
+     * @param spec  Table description
+     * @param field name of field to order by
+     * @param after value to start after
+     * @param limit most records to return
+     * @param <T>   Model Type
+     * @return Array of models in order of the field
+     * @throws DataAccessException error retrieving data (field doesn't exist)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends IModel> T[] queryRecordsAfter(TableSpec<T> spec, String field, Object after, int limit)
+            throws DataAccessException {
+        List<T> models = new ArrayList<>();
+
+        Connection connection = connectionPool.getConnection();
+        try {
+            String sql = "SELECT * FROM %s WHERE %s > ? ORDER BY %s LIMIT ? ;";
+            sql = String.format(sql, spec.getName(), field, field);
+
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                spec.getFieldByName(field).addFieldValue(statement, 1, after);
+                statement.setInt(2, limit);
+
+                try (ResultSet results = statement.executeQuery()) {
+                    while (results.next()) {
+                        models.add(spec.getmodelFromResultSet(results));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new DataAccessException(e.getMessage());
+            }
+        } finally {
+            connectionPool.returnConnection(connection);
+        }
+        return models.toArray((T[]) Array.newInstance(spec.getModelClass(), 0));
+    }
+
     @Override
     public <T extends IModel> void addRecord(TableSpec<T> spec, T model) throws DataAccessException {
         Connection connection = connectionPool.getConnection();
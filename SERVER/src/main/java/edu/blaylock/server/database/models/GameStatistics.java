@@ -0,0 +1,21 @@
+package edu.blaylock.server.database.models;
+
+import edu.blaylock.chess.GameState;
+
+/**
+ * Statistics of a finished game, computed offline by GameAnnotationJob
+ *
+ * @param gameID   gameID of the game described
+ * @param plies    moves made, counting both colors
+ * @param captures pieces taken by either color
+ * @param material material left to white minus material left to black, in centipawns
+ * @param inCheck  whether the team to move was in check when the game ended
+ * @param checks   checks given by either color, null if the game's moves weren't stored
+ * @param swing    highest minus lowest material balance reached during the game, in centipawns. Null if the game's
+ *                 moves weren't stored
+ * @param state    how the game ended
+ * @param winner   color that won, null for a draw or when the stored game doesn't tell
+ */
+public record GameStatistics(int gameID, int plies, int captures, int material, boolean inCheck, Integer checks,
+                             Integer swing, GameState state, String winner) implements IModel {
+}
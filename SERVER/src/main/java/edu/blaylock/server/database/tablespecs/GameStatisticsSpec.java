@@ -0,0 +1,53 @@
+package edu.blaylock.server.database.tablespecs;
+
+import edu.blaylock.chess.GameState;
+import edu.blaylock.server.database.fields.*;
+import edu.blaylock.server.database.models.GameStatistics;
+
+/**
+ * Info on the GameStatistics table in database (name and formattings)
+ * Converts from database types to java model
+ */
+public class GameStatisticsSpec extends TableSpec<GameStatistics> {
+    /**
+     * Name of table in database
+     */
+    static final String TABLE_NAME = "blaylock_game_statistics";
+
+    /**
+     * Fields in table (name, type, attributes)
+     */
+    static final Field<?>[] SIGNATURE = new Field<?>[]{
+            new IntField("gameID", ColumnAttributes.builder().primary().build()),
+            new IntField("plies"),
+            new IntField("captures"),
+            new IntField("material"),
+            new IntField("inCheck"),
+            new IntField("checks"),
+            new IntField("swing"),
+            new EnumField<>("state", GameState.class),
+            new VarCharField("winner", 5)
+    };
+
+    public GameStatisticsSpec() {
+        super(TABLE_NAME, GameStatistics.class);
+    }
+
+    @Override
+    public Field<?>[] getSignature() {
+        return SIGNATURE;
+    }
+
+    @Override
+    public Object[] convertModelToArray(GameStatistics model) {
+        return new Object[]{model.gameID(), model.plies(), model.captures(), model.material(),
+                model.inCheck() ? 1 : 0, model.checks(), model.swing(), model.state(), model.winner()};
+    }
+
+    @Override
+    public GameStatistics convertArrayToModel(Object[] fieldValues) {
+        return new GameStatistics((Integer) fieldValues[0], (Integer) fieldValues[1], (Integer) fieldValues[2],
+                (Integer) fieldValues[3], (Integer) fieldValues[4] != 0, (Integer) fieldValues[5],
+                (Integer) fieldValues[6], (GameState) fieldValues[7], (String) fieldValues[8]);
+    }
+}
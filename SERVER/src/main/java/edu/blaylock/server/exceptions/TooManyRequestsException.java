@@ -0,0 +1,10 @@
+package edu.blaylock.server.exceptions;
+
+/**
+ * Thrown when a user has too much work pending on the server, or the server has no room left for more
+ */
+public class TooManyRequestsException extends Exception {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,43 @@
+package edu.blaylock.server.gameplay;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import edu.blaylock.chess.book.OpeningBook;
+import edu.blaylock.chess.engine.Engine;
+import edu.blaylock.chess.rules.PackedMove;
+import edu.blaylock.server.ServerGlobals;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Computer player sitting in one color of a game. It has no session: the database holds USERNAME for its color, and
+ * GameManager asks it for a move whenever it is its turn, playing that move like one sent by a player. While the game
+ * is in the server's opening book it plays book moves instead of searching.
+ */
+public class BotPlayer {
+    /**
+     * Name stored for the computer's color, reserved so no user can register it
+     */
+    public static final String USERNAME = "computer";
+
+    private final Engine engine = new Engine();
+
+    /**
+     * Pick a book move, or search for a move within the engine's time budget
+     *
+     * @param game game to move in, left unchanged
+     * @return move to make, null if there is none
+     */
+    public synchronized ChessMove chooseMove(ChessGame game) {
+        OpeningBook book = ServerGlobals.openingBook();
+        if (book != null) {
+            int packed = book.pickMove(game, ThreadLocalRandom.current().nextDouble());
+            if (packed != -1) {
+                ChessMove move = PackedMove.toChessMove(packed);
+                // Guards against a key shared by another position
+                if (game.validMoves(move.getStartPosition()).contains(move)) return move;
+            }
+        }
+        return engine.search(game).move();
+    }
+}
@@ -7,17 +7,21 @@ import org.eclipse.jetty.websocket.api.Session;
 import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Contains various pieces of information about a game referenced to by the gameID. An array of player sessions (based
  * TeamColor enum ordinal) as well as a collection of observers. Two mutexes are available to lock the chess game as
- * well as the structures holding the sessions.
+ * well as the structures holding the sessions. A color may be played by a BotPlayer instead of a session.<br>
+ * The game itself is kept as a GameSnapshot, only replaced while holding the game mutex and read without it.
  */
 class GameInfo {
     private final Object gameMutex = new Object();
     private final Object sessionMutex = new Object();
     private final Session[] players = new Session[2];
     private final Set<Session> observers = ConcurrentHashMap.newKeySet();
+    private final BotPlayer[] bots = new BotPlayer[2];
+    private final AtomicReference<GameSnapshot> snapshot = new AtomicReference<>();
 
     public Session[] players() {
         return players;
@@ -35,6 +39,22 @@ class GameInfo {
         return sessionMutex;
     }
 
+    /**
+     * @return game as of its last accepted move, null before anyone joined
+     */
+    public GameSnapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Replace the game everyone reads, only while holding the game mutex
+     *
+     * @param game game after a change
+     */
+    public void publish(GameSnapshot game) {
+        snapshot.set(game);
+    }
+
     /**
      * Will add a session to this class depending on color
      *
@@ -50,6 +70,27 @@ class GameInfo {
         }
     }
 
+    /**
+     * @param color color to check
+     * @return computer player of the color, null if none
+     */
+    public BotPlayer bot(ChessGame.TeamColor color) {
+        synchronized (sessionMutex) {
+            return bots[color.ordinal()];
+        }
+    }
+
+    /**
+     * Seat a computer player in a color, if one isn't already there
+     *
+     * @param color color for the computer to play
+     */
+    public void seatBot(ChessGame.TeamColor color) {
+        synchronized (sessionMutex) {
+            if (bots[color.ordinal()] == null) bots[color.ordinal()] = new BotPlayer();
+        }
+    }
+
     /**
      * Removes a session by color
      *
@@ -3,8 +3,13 @@ package edu.blaylock.server.gameplay;
 import chess.ChessGame;
 import chess.ChessMove;
 import edu.blaylock.chess.GameState;
+import edu.blaylock.chess.notation.San;
+import edu.blaylock.chess.tablebase.TablebaseResult;
+import edu.blaylock.chess.tablebase.Tablebases;
+import edu.blaylock.server.ServerGlobals;
 import edu.blaylock.server.database.dao.GameDAO;
 import edu.blaylock.server.database.models.Game;
+import edu.blaylock.server.exceptions.AlreadyTakenException;
 import edu.blaylock.server.exceptions.DataAccessException;
 import edu.blaylock.server.exceptions.SocketException;
 import edu.blaylock.utils.gson.GsonUtils;
@@ -49,6 +54,10 @@ public class GameManager {
         Game game = WSUtils.validateGame(gameID);
         if (color != null) WSUtils.validateColorMatch(username, color, game, WSUtils.UNAUTHORIZED);
         GameInfo gameInfo = gameToInfo.computeIfAbsent(gameID, ignored -> new GameInfo());
+        for (ChessGame.TeamColor seat : ChessGame.TeamColor.values()) {
+            if (BotPlayer.USERNAME.equals(game.username(seat))) gameInfo.seatBot(seat);
+        }
+        reload(gameID, gameInfo);
         gameInfo.joinGame(color, session);
         sessionToInfo.put(session, new SessionInfo(gameID, color, username));
     }
@@ -65,8 +74,10 @@ public class GameManager {
         GameInfo gameInfo = gameToInfo.get(sessionInfo.gameID());
         gameInfo.remove(session, sessionInfo.color());
         synchronized (gameInfo.gameMutex()) {
-            if (sessionInfo.color() != null)
+            if (sessionInfo.color() != null) {
                 new GameDAO().removeGamePlayer(sessionInfo.gameID(), sessionInfo.username(), sessionInfo.color());
+                gameInfo.publish(GameSnapshot.of(WSUtils.validateGame(sessionInfo.gameID())));
+            }
         }
         sessionToInfo.remove(session);
         if (gameInfo.empty()) {
@@ -75,36 +86,153 @@ public class GameManager {
     }
 
     /**
-     * Pulls the chessgame from database and makes a move. Makes sure the game is in correct state and that the proper
-     * client is doing this.
+     * Make a move on a copy of the game's snapshot, store it and publish it as the new snapshot. Makes sure the game is
+     * in correct state and that the proper client is doing this.
      *
      * @param session Session who asked
      * @param move    Move to make
-     * @return modified ChessGame
+     * @return snapshot after the move
      * @throws Exception Invalid Move, Unauthorized, Game finished
      */
-    public static ChessGame makeMove(Session session, ChessMove move) throws Exception {
+    public static GameSnapshot makeMove(Session session, ChessMove move) throws Exception {
         SessionInfo info = getInfo(session);
-        if (info.game().state() != GameState.UNFINISHED) throw new SocketException(WSUtils.GAME_ENDED);
-        WSUtils.validateColorMatch(info.username(), info.chessGame().getTeamTurn(), info.game(), WSUtils.OUT_OF_TURN);
-        if (GameManager.getInfo(session).color() != info.chessGame().getTeamTurn())
-            throw new SocketException(WSUtils.OUT_OF_TURN);
+        GameInfo gameInfo = gameToInfo.get(info.gameID());
 
-        GameInfo sessions = gameToInfo.get(info.gameID());
+        synchronized (gameInfo.gameMutex()) {
+            GameSnapshot current = gameInfo.snapshot();
+            if (current.state() != GameState.UNFINISHED) throw new SocketException(WSUtils.GAME_ENDED);
+            ChessGame.TeamColor turn = current.chessGame().getTeamTurn();
+            WSUtils.validateColorMatch(info.username(), turn, current.game(), WSUtils.OUT_OF_TURN);
+            if (info.color() != turn) throw new SocketException(WSUtils.OUT_OF_TURN);
 
-        synchronized (sessions.gameMutex()) {
-            ChessGame game = info.chessGame();
-            game.makeMove(move);
-            new GameDAO().updateChessGame(info.gameID(), game);
+            return publishMove(gameInfo, current, move);
+        }
+    }
+
+    /**
+     * Make a move on a copy of the current snapshot, store it and publish the result. Called holding the game mutex
+     */
+    private static GameSnapshot publishMove(GameInfo gameInfo, GameSnapshot current, ChessMove move)
+            throws Exception {
+        ChessGame game = current.chessGame().copy();
+        game.makeMove(move);
+        String san = San.encode(current.chessGame(), move, game);
+
+        Game stored = current.game();
+        GameState state = saveMove(stored.gameID(), game);
+        GameSnapshot next = GameSnapshot.of(new Game(stored.gameID(), stored.whiteUsername(), stored.blackUsername(),
+                stored.gameName(), game, state), move, san);
+        gameInfo.publish(next);
+        return next;
+    }
+
+    /**
+     * Load a game from the database as its snapshot, done when sessions join since players may have been set outside
+     * of websockets
+     */
+    private static void reload(int gameID, GameInfo gameInfo) throws SocketException, DataAccessException {
+        synchronized (gameInfo.gameMutex()) {
+            gameInfo.publish(GameSnapshot.of(WSUtils.validateGame(gameID)));
+        }
+    }
+
+    /**
+     * @param gameID game to look up
+     * @return game as of its last move, without waiting for a move being made. Null if no session is in the game
+     */
+    public static GameSnapshot snapshot(int gameID) {
+        GameInfo gameInfo = gameToInfo.get(gameID);
+        return (gameInfo == null) ? null : gameInfo.snapshot();
+    }
+
+    /**
+     * Seat the computer in an empty color of the session's game. Only players of the game may do so.
+     *
+     * @param session Session who asked
+     * @param color   color for the computer to play
+     * @throws SocketException     Observer, game finished or color already taken
+     * @throws DataAccessException Error with database
+     */
+    public static void addBot(Session session, ChessGame.TeamColor color) throws SocketException, DataAccessException {
+        SessionInfo info = getInfo(session);
+        if (info.color() == null) throw new SocketException("Can't add the computer as Observer");
+        if (color == null) throw new SocketException("No color given for the computer");
+
+        GameInfo gameInfo = gameToInfo.get(info.gameID());
+        synchronized (gameInfo.gameMutex()) {
+            if (gameInfo.snapshot().state() != GameState.UNFINISHED) throw new SocketException(WSUtils.GAME_ENDED);
+            try {
+                new GameDAO().setGamePlayer(info.gameID(), BotPlayer.USERNAME, color);
+            } catch (AlreadyTakenException exception) {
+                throw new SocketException("Color already taken!");
+            }
+            gameInfo.publish(GameSnapshot.of(WSUtils.validateGame(info.gameID())));
+        }
+        gameInfo.seatBot(color);
+    }
+
+    /**
+     * If the computer plays the color to move, have it choose a move and make it. The search runs on the published
+     * snapshot without holding the game mutex, so players can still join, leave or resign meanwhile, and the mutex is
+     * only taken to make the move. If the snapshot was replaced during the search the position is searched again.
+     * Takes as long as the engine's time budget, so it is not to be called from a websocket thread.
+     *
+     * @param gameID Game to move in
+     * @return snapshot after the move, null if it isn't the computer's turn or the game is over
+     * @throws Exception Database error or invalid move
+     */
+    public static GameSnapshot makeBotMove(int gameID) throws Exception {
+        GameInfo gameInfo = gameToInfo.get(gameID);
+        if (gameInfo == null) return null;
 
-            if (game.isInCheckmate(game.getTeamTurn())) {
-                new GameDAO().setGameState(info.gameID(), GameState.CHECKMATE);
-            } else if (game.isInStalemate(game.getTeamTurn())) {
-                new GameDAO().setGameState(info.gameID(), GameState.STALEMATE);
+        while (true) {
+            GameSnapshot searched = gameInfo.snapshot();
+            if (searched.state() != GameState.UNFINISHED) return null;
+
+            BotPlayer bot = gameInfo.bot(searched.chessGame().getTeamTurn());
+            if (bot == null) return null;
+
+            ChessMove move = bot.chooseMove(searched.chessGame());
+            if (move == null) return null;
+            synchronized (gameInfo.gameMutex()) {
+                if (gameInfo.snapshot() == searched) return publishMove(gameInfo, searched, move);
             }
+        }
+    }
+
+    /**
+     * Store a game after a move, marking it as finished if the move ended it. Games repeating themselves or going fifty
+     * moves without progress are drawn, so they can't be kept going forever, and games down to a tablebase ending are
+     * adjudicated, as their result is already known.
+     *
+     * @return state of the game after the move
+     */
+    private static GameState saveMove(int gameID, ChessGame game) throws DataAccessException {
+        new GameDAO().updateChessGame(gameID, game);
 
-            return game;
+        GameState state = GameState.UNFINISHED;
+        if (game.isInCheckmate(game.getTeamTurn())) {
+            state = GameState.CHECKMATE;
+        } else if (game.isInStalemate(game.getTeamTurn())) {
+            state = GameState.STALEMATE;
+        } else if (game.isDrawByRepetition()) {
+            state = GameState.DRAW_REPETITION;
+        } else if (game.isDrawByFiftyMoves()) {
+            state = GameState.DRAW_FIFTY_MOVE;
+        } else if (probeTablebases(game) != null) {
+            state = GameState.ADJUDICATED;
         }
+        if (state != GameState.UNFINISHED) new GameDAO().setGameState(gameID, state);
+        return state;
+    }
+
+    /**
+     * @param game game to look up
+     * @return tablebase value of the game for the color to move, null if the tables aren't loaded or don't cover it
+     */
+    public static TablebaseResult probeTablebases(ChessGame game) {
+        Tablebases tablebases = ServerGlobals.tablebases();
+        return (tablebases == null) ? null : tablebases.probe(game);
     }
 
     /**
@@ -117,9 +245,18 @@ public class GameManager {
     public static void resign(Session session) throws DataAccessException, SocketException {
         SessionInfo info = getInfo(session);
         if (info.color() == null) throw new SocketException("Can't Resign as Observer");
-        if (info.game().state() != GameState.UNFINISHED) throw new SocketException(WSUtils.GAME_ENDED);
-        new GameDAO().setGameState(info.gameID(), GameState.RESIGNED);
 
+        GameInfo gameInfo = gameToInfo.get(info.gameID());
+        synchronized (gameInfo.gameMutex()) {
+            GameSnapshot current = gameInfo.snapshot();
+            if (current.state() != GameState.UNFINISHED) throw new SocketException(WSUtils.GAME_ENDED);
+            // Stored with the game, as the state alone doesn't say who won
+            ChessGame game = current.chessGame().copy();
+            game.setResignedTeam(info.color());
+            new GameDAO().updateChessGame(info.gameID(), game);
+            new GameDAO().setGameState(info.gameID(), GameState.RESIGNED);
+            gameInfo.publish(current.withGame(game, GameState.RESIGNED));
+        }
     }
 
     /**
@@ -143,11 +280,16 @@ public class GameManager {
      * @throws IOException     Error sending message
      */
     public static void broadcast(int gameID, Session originator, ServerMessage message) throws SocketException, IOException {
+        broadcast(gameID, originator, GsonUtils.standard().toJson(message));
+    }
+
+    /**
+     * Same as broadcast with a message already serialized, like a GameSnapshot's LoadGameMessage
+     */
+    public static void broadcast(int gameID, Session originator, String string) throws SocketException, IOException {
         GameInfo sessions = gameToInfo.getOrDefault(gameID, null);
         if (sessions == null) throw new SocketException(WSUtils.BAD_GAME_ID);
 
-        String string = GsonUtils.standard().toJson(message);
-
         synchronized (sessions.sessionMutex()) {
             for (Session player : sessions.players())
                 if ((originator == null || originator != player) && player != null)
@@ -159,6 +301,25 @@ public class GameManager {
         }
     }
 
+    /**
+     * Send a ServerMessage to one session of a game, holding the same lock as broadcasts so messages sent from other
+     * threads don't interleave with them
+     *
+     * @param gameID  Game the session is in
+     * @param session Session to send to
+     * @param message Message to send
+     * @throws SocketException Game doesn't exist
+     * @throws IOException     Error sending message
+     */
+    public static void send(int gameID, Session session, ServerMessage message) throws SocketException, IOException {
+        GameInfo sessions = gameToInfo.getOrDefault(gameID, null);
+        if (sessions == null) throw new SocketException(WSUtils.BAD_GAME_ID);
+
+        synchronized (sessions.sessionMutex()) {
+            session.getRemote().sendString(GsonUtils.standard().toJson(message));
+        }
+    }
+
     /**
      * Send broadcast to everyone
      *
@@ -180,11 +341,16 @@ public class GameManager {
      * @throws IOException     Error sending broadcast
      */
     public static void broadcastVerbose(int gameID, ServerMessage message) throws SocketException, IOException {
+        broadcastVerbose(gameID, GsonUtils.standard().toJson(message));
+    }
+
+    /**
+     * Same as broadcastVerbose with a message already serialized
+     */
+    public static void broadcastVerbose(int gameID, String string) throws SocketException, IOException {
         GameInfo sessions = gameToInfo.getOrDefault(gameID, null);
         if (sessions == null) throw new SocketException(WSUtils.BAD_GAME_ID);
 
-        String string = GsonUtils.standard().toJson(message);
-
         synchronized (sessions.sessionMutex()) {
             for (Session player : sessions.players())
                 if (player != null && getInfo(player).verbose())
@@ -0,0 +1,67 @@
+package edu.blaylock.server.gameplay;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import edu.blaylock.chess.GameState;
+import edu.blaylock.server.database.models.Game;
+import edu.blaylock.utils.gson.GsonUtils;
+import webSocketMessages.serverMessages.LoadGameMessage;
+
+/**
+ * A game as of its last accepted move, published by GameManager for anyone to read without taking the game's lock.
+ * Nothing changes a snapshot once published: moves are made on a copy of its ChessGame, which shares the position
+ * history with it, and become a new snapshot. Its LoadGameMessage is serialized and its last move written in SAN once
+ * when it is made, so every session sent the game gets the same text.
+ *
+ * @param game        game as stored, its ChessGame is never changed
+ * @param lastMove    move that led to this snapshot, null if it was loaded from the database
+ * @param lastMoveSan lastMove in SAN, null if there is no last move
+ * @param loadGame    serialized LoadGameMessage of the game
+ */
+public record GameSnapshot(Game game, ChessMove lastMove, String lastMoveSan, String loadGame) {
+
+    /**
+     * @param game game as stored, not to be changed afterward
+     * @return snapshot of the game, without a last move
+     */
+    public static GameSnapshot of(Game game) {
+        return of(game, null, null);
+    }
+
+    /**
+     * @param game        game as stored, not to be changed afterward
+     * @param lastMove    move that led to it, may be null
+     * @param lastMoveSan lastMove in SAN
+     * @return snapshot of the game
+     */
+    public static GameSnapshot of(Game game, ChessMove lastMove, String lastMoveSan) {
+        LoadGameMessage message = new LoadGameMessage(game.game(), game.state(), game.gameName());
+        return new GameSnapshot(game, lastMove, lastMoveSan, GsonUtils.standard().toJson(message));
+    }
+
+    public ChessGame chessGame() {
+        return game.game();
+    }
+
+    public GameState state() {
+        return game.state();
+    }
+
+    /**
+     * @param state state the game is now in
+     * @return snapshot of the same position in that state
+     */
+    public GameSnapshot withState(GameState state) {
+        return withGame(game.game(), state);
+    }
+
+    /**
+     * @param chessGame game replacing this one's, not to be changed afterward
+     * @param state     state the game is now in
+     * @return snapshot of the game in that state, with the same last move
+     */
+    public GameSnapshot withGame(ChessGame chessGame, GameState state) {
+        return of(new Game(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(), chessGame,
+                state), lastMove, lastMoveSan);
+    }
+}
@@ -2,6 +2,7 @@ package edu.blaylock.server.handlers;
 
 import edu.blaylock.server.exceptions.AlreadyTakenException;
 import edu.blaylock.server.exceptions.BadRequestException;
+import edu.blaylock.server.exceptions.TooManyRequestsException;
 import edu.blaylock.server.exceptions.UnauthorizedException;
 import edu.blaylock.utils.Status;
 import edu.blaylock.utils.gson.GsonUtils;
@@ -15,12 +16,14 @@ import spark.Spark;
 public class ExceptionHandlers {
 
     /**
-     * Set all handlers, AlreadyTakenException, BadRequestException, UnauthorizedException, All Exceptions
+     * Set all handlers, AlreadyTakenException, BadRequestException, UnauthorizedException,
+     * TooManyRequestsException, All Exceptions
      */
     public void registerHandlers() {
         Spark.exception(AlreadyTakenException.class, new ExHandler(Status.ALREADY_TAKEN)::handle);
         Spark.exception(BadRequestException.class, new ExHandler(Status.BAD_REQUEST)::handle);
         Spark.exception(UnauthorizedException.class, new ExHandler(Status.UNAUTHORIZED)::handle);
+        Spark.exception(TooManyRequestsException.class, new ExHandler(Status.TOO_MANY_REQUESTS)::handle);
         Spark.exception(Exception.class, new ExHandler(Status.ERROR)::handle);
 
     }
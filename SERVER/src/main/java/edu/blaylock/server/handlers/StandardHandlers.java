@@ -3,11 +3,15 @@ package edu.blaylock.server.handlers;
 import edu.blaylock.server.exceptions.AlreadyTakenException;
 import edu.blaylock.server.exceptions.BadRequestException;
 import edu.blaylock.server.exceptions.DataAccessException;
+import edu.blaylock.server.exceptions.TooManyRequestsException;
 import edu.blaylock.server.exceptions.UnauthorizedException;
 import edu.blaylock.server.gameplay.GameManager;
+import edu.blaylock.server.services.game.AnalysisService;
 import edu.blaylock.server.services.game.GameService;
+import edu.blaylock.server.services.game.requests.AnalyzeGameRequest;
 import edu.blaylock.server.services.game.requests.CreateGameRequest;
 import edu.blaylock.server.services.game.requests.JoinGameRequest;
+import edu.blaylock.server.services.game.responses.AnalysisResponse;
 import edu.blaylock.server.services.game.responses.CreateGameResponse;
 import edu.blaylock.server.services.game.responses.ListGamesResponse;
 import edu.blaylock.server.services.user.UserService;
@@ -16,6 +20,7 @@ import edu.blaylock.server.services.user.requests.LogoutRequest;
 import edu.blaylock.server.services.user.requests.RegisterRequest;
 import edu.blaylock.server.services.user.responses.AuthTokenResponse;
 import edu.blaylock.utils.Status;
+import edu.blaylock.utils.gson.GsonUtils;
 import spark.Request;
 import spark.Response;
 import spark.Spark;
@@ -35,6 +40,7 @@ public class StandardHandlers {
         Spark.get("/game", this::listGames);
         Spark.post("/game", this::createGame);
         Spark.put("/game", this::joinGame);
+        Spark.get("/game/analysis", this::analyzeGame);
     }
 
     /**
@@ -104,4 +110,24 @@ public class StandardHandlers {
         res.status(Status.SUCCESS);
         return HandlerUtils.EMPTY_BODY;
     }
+
+    /**
+     * Search the current position of a game, gameID given as a query parameter. The search itself runs on the
+     * analysis pool and this thread doesn't wait for it: until it is done the request is answered 202 with a message,
+     * and the same request is to be made again for the result
+     */
+    protected String analyzeGame(Request req, Response res)
+            throws BadRequestException, TooManyRequestsException, UnauthorizedException, DataAccessException {
+        checkAuthorization(req);
+
+        AnalyzeGameRequest serviceRequest = AnalyzeGameRequest.getRequest(req);
+        AnalysisResponse serviceResponse = AnalysisService.analyzeGame(serviceRequest);
+
+        if (serviceResponse == null) {
+            res.status(Status.ACCEPTED);
+            return GsonUtils.standard().toJson(new ExceptionHandlers.Message(AnalysisService.PENDING));
+        }
+        res.status(Status.SUCCESS);
+        return serviceResponse.createResponseBody();
+    }
 }
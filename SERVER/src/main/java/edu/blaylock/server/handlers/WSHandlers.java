@@ -1,32 +1,48 @@
 package edu.blaylock.server.handlers;
 
 import chess.ChessGame;
+import edu.blaylock.chess.GameState;
+import edu.blaylock.chess.tablebase.TablebaseResult;
 import edu.blaylock.server.database.models.AuthToken;
 import edu.blaylock.server.database.models.Game;
 import edu.blaylock.server.exceptions.DataAccessException;
 import edu.blaylock.server.exceptions.SocketException;
+import edu.blaylock.server.gameplay.BotPlayer;
 import edu.blaylock.server.gameplay.GameManager;
+import edu.blaylock.server.gameplay.GameSnapshot;
 import edu.blaylock.server.gameplay.SessionInfo;
 import edu.blaylock.server.gameplay.WSUtils;
+import edu.blaylock.server.services.game.AnalysisService;
 import edu.blaylock.utils.gson.GsonUtils;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import spark.Spark;
 import webSocketMessages.serverMessages.ErrorMessage;
-import webSocketMessages.serverMessages.LoadGameMessage;
 import webSocketMessages.serverMessages.NotificationMessage;
 import webSocketMessages.userCommands.*;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Contains the all the base handlers for UserGameCommands sent by a client through websockets.
  */
 @WebSocket
 public class WSHandlers {
+    private static final Logger LOG = LoggerFactory.getLogger(WSHandlers.class);
+
+    /**
+     * Runs the computer's moves, whose searches would otherwise hold the websocket threads
+     */
+    private static final ExecutorService bots = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2), WSHandlers::newBotThread);
+
     private final UserCommandHandler<?>[] handlers = new UserCommandHandler<?>[UserGameCommand.CommandType.values().length];
 
     /**
@@ -40,6 +56,8 @@ public class WSHandlers {
         register(UserGameCommand.CommandType.LEAVE, (UserCommandHandler<LeaveCommand>) this::handleLeave);
         register(UserGameCommand.CommandType.RESIGN, (UserCommandHandler<ResignCommand>) this::handleResign);
         register(UserGameCommand.CommandType.VERBOSE, (UserCommandHandler<VerboseCommand>) this::handleVerbose);
+        register(UserGameCommand.CommandType.ADD_BOT, (UserCommandHandler<AddBotCommand>) this::handleAddBot);
+        register(UserGameCommand.CommandType.ANALYZE, (UserCommandHandler<AnalyzeCommand>) this::handleAnalyze);
     }
 
     /**
@@ -101,21 +119,40 @@ public class WSHandlers {
         AuthToken auth = WSUtils.validateAuthorization(command.getAuthString());
         WSUtils.validateSession(session, command.gameID());
 
-        ChessGame modifiedGame = GameManager.makeMove(session, command.move());
-        Game game = GameManager.getInfo(session).game();
-        GameManager.broadcast(command.gameID(), new LoadGameMessage(modifiedGame, game.state(), game.gameName()));
-        GameManager.broadcast(command.gameID(), session, new NotificationMessage("Move made by " + auth.username() + ": " + command.move().toString()));
+        GameSnapshot snapshot = GameManager.makeMove(session, command.move());
+        broadcastMove(command.gameID(), session, auth.username(), snapshot);
+        playBotMove(command.gameID());
+    }
 
-        ChessGame.TeamColor color = GameManager.getInfo(session).color().next();
-        String otherUser = GameManager.getInfo(session).game().username(color);
+    void handleAddBot(AddBotCommand command, Session session) throws Exception {
+        WSUtils.validateAuthorization(command.getAuthString());
+        WSUtils.validateSession(session, command.gameID());
 
-        if (modifiedGame.isInCheckmate(color)) {
-            GameManager.broadcast(command.gameID(), new NotificationMessage(otherUser + " is checkmated!"));
-        } else if (modifiedGame.isInCheck(color)) {
-            GameManager.broadcast(command.gameID(), new NotificationMessage(otherUser + " is in Check!"));
-        } else if (modifiedGame.isInStalemate(color)) {
-            GameManager.broadcast(command.gameID(), new NotificationMessage("Stalemate!"));
-        }
+        GameManager.addBot(session, command.botColor());
+        GameManager.broadcast(command.gameID(), new NotificationMessage(BotPlayer.USERNAME + " joined the game as "
+                + command.botColor()));
+        playBotMove(command.gameID());
+    }
+
+    /**
+     * Queue a search of the game and answer the session alone once it is done, without holding this thread
+     */
+    void handleAnalyze(AnalyzeCommand command, Session session) throws Exception {
+        AuthToken auth = WSUtils.validateAuthorization(command.getAuthString());
+        WSUtils.validateSession(session, command.gameID());
+
+        int gameID = command.gameID();
+        ChessGame game = GameManager.snapshot(gameID).chessGame();
+        AnalysisService.analyze(auth.username(), game).whenComplete((analysis, error) -> {
+            try {
+                if (error != null) GameManager.send(gameID, session, new ErrorMessage("ERROR: " + error.getMessage()));
+                else GameManager.send(gameID, session, new NotificationMessage(analysis.describe()));
+            } catch (IOException | SocketException ignored) {
+                // Session closed or left the game while the search ran
+            } catch (RuntimeException e) {
+                LOG.error("Couldn't answer analysis of game " + gameID, e);
+            }
+        });
     }
 
     void handleLeave(LeaveCommand command, Session session) throws Exception {
@@ -130,8 +167,7 @@ public class WSHandlers {
         WSUtils.validateSession(session, command.gameID());
         GameManager.resign(session);
         GameManager.broadcast(command.gameID(), new NotificationMessage(auth.username() + " has Resigned."));
-        Game game = GameManager.getInfo(session).game();
-        GameManager.broadcastVerbose(command.gameID(), new LoadGameMessage(game.game(), game.state(), game.gameName()));
+        GameManager.broadcastVerbose(command.gameID(), GameManager.snapshot(command.gameID()).loadGame());
     }
 
     void handleVerbose(VerboseCommand command, Session session) throws SocketException, DataAccessException {
@@ -140,6 +176,68 @@ public class WSHandlers {
         GameManager.setVerbose(session);
     }
 
+    /**
+     * Let the computer answer if it plays the color to move, broadcasting its move like a player's. The move is chosen,
+     * made and broadcast on the bot pool, this thread doesn't wait for it.
+     */
+    private void playBotMove(int gameID) {
+        bots.execute(() -> {
+            try {
+                GameSnapshot snapshot = GameManager.makeBotMove(gameID);
+                if (snapshot == null) return;
+                broadcastMove(gameID, null, BotPlayer.USERNAME, snapshot);
+            } catch (SocketException | IOException ignored) {
+                // Everyone left the game while the computer was thinking
+            } catch (Exception e) {
+                LOG.error("Computer couldn't move in game " + gameID, e);
+            }
+        });
+    }
+
+    private static Thread newBotThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "bot");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Send the game after a move to everyone, tell the others who moved and announce check, checkmate or stalemate.
+     *
+     * @param gameID     game moved in
+     * @param originator session that moved, excluded from the move notification. Null for the computer
+     * @param username   name of who moved
+     * @param snapshot   game after the move
+     */
+    private void broadcastMove(int gameID, Session originator, String username, GameSnapshot snapshot)
+            throws Exception {
+        Game game = snapshot.game();
+        ChessGame modifiedGame = snapshot.chessGame();
+        GameManager.broadcast(gameID, null, snapshot.loadGame());
+        GameManager.broadcast(gameID, originator, new NotificationMessage("Move made by " + username + ": "
+                + snapshot.lastMoveSan()));
+
+        ChessGame.TeamColor color = modifiedGame.getTeamTurn();
+        String otherUser = game.username(color);
+
+        if (modifiedGame.isInCheckmate(color)) {
+            GameManager.broadcast(gameID, new NotificationMessage(otherUser + " is checkmated!"));
+        } else if (game.state() == GameState.DRAW_REPETITION) {
+            GameManager.broadcast(gameID, new NotificationMessage("Draw by threefold repetition, game over!"));
+        } else if (game.state() == GameState.DRAW_FIFTY_MOVE) {
+            GameManager.broadcast(gameID, new NotificationMessage("Draw by the fifty-move rule, game over!"));
+        } else if (game.state() == GameState.ADJUDICATED) {
+            TablebaseResult result = GameManager.probeTablebases(modifiedGame);
+            String winner = (result.outcome() == TablebaseResult.Outcome.WIN) ? otherUser : game.username(color.next());
+            GameManager.broadcast(gameID, new NotificationMessage((result.outcome() == TablebaseResult.Outcome.DRAW)
+                    ? "Drawn endgame, game over!"
+                    : "Won endgame, " + winner + " mates in " + (result.pliesToMate() + 1) / 2 + ". Game over!"));
+        } else if (modifiedGame.isInCheck(color)) {
+            GameManager.broadcast(gameID, new NotificationMessage(otherUser + " is in Check!"));
+        } else if (modifiedGame.isInStalemate(color)) {
+            GameManager.broadcast(gameID, new NotificationMessage("Stalemate!"));
+        }
+    }
+
     /**
      * register a handler to a commandType
      */
@@ -160,10 +258,8 @@ public class WSHandlers {
     /**
      * Send a Load game message
      */
-    private void sendLoadGame(Session session) throws IOException, DataAccessException {
-        Game game = GameManager.getInfo(session).game();
-        LoadGameMessage message = new LoadGameMessage(game.game(), game.state(), game.gameName());
-        session.getRemote().sendString(GsonUtils.standard().toJson(message));
+    private void sendLoadGame(Session session) throws IOException {
+        session.getRemote().sendString(GameManager.snapshot(GameManager.getInfo(session).gameID()).loadGame());
     }
 
 }
\ No newline at end of file
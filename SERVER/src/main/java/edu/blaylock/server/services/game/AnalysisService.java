@@ -0,0 +1,195 @@
+package edu.blaylock.server.services.game;
+
+import chess.ChessGame;
+import edu.blaylock.chess.engine.Engine;
+import edu.blaylock.chess.engine.PieceSquareEvaluator;
+import edu.blaylock.server.database.dao.AuthTokenDAO;
+import edu.blaylock.server.database.dao.GameDAO;
+import edu.blaylock.server.database.models.Game;
+import edu.blaylock.server.exceptions.BadRequestException;
+import edu.blaylock.server.exceptions.DataAccessException;
+import edu.blaylock.server.exceptions.TooManyRequestsException;
+import edu.blaylock.server.gameplay.GameManager;
+import edu.blaylock.server.gameplay.GameSnapshot;
+import edu.blaylock.server.services.game.requests.AnalyzeGameRequest;
+import edu.blaylock.server.services.game.responses.AnalysisResponse;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Searches positions for their best move on behalf of users, over HTTP and websockets.<br>
+ * Searches run on a small pool of daemon threads with a bounded queue, never on the Jetty threads that serve requests,
+ * so analysis can't hold up moves being made. Websocket requests are answered from the pool when the search finishes.
+ * HTTP requests never wait for it: a position searched already is answered at once, otherwise the search is started
+ * and the request is told it is pending, to be asked again. A user may only wait on MAX_PENDING_PER_USER positions at a
+ * time, whether they started the search or asked about one already running, and requests beyond that, or beyond the
+ * queue, are turned away with a TooManyRequestsException.<br>
+ * Results are kept by the position's Zobrist key, so asking again about a position, even from another game, costs
+ * nothing. A position asked about while it is still being searched waits for the same search.
+ */
+public class AnalysisService {
+
+    public static final long ANALYSIS_MILLIS = 500;
+    public static final int MAX_PENDING_PER_USER = 2;
+
+    public static final String USER_BUSY = "Already analyzing, wait for the last analysis to finish!";
+    public static final String SERVER_BUSY = "Server is too busy to analyze, try again later!";
+    public static final String PENDING = "Analysis started, ask again for the result";
+
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int QUEUE_CAPACITY = 16 * THREADS;
+    private static final int CACHE_CAPACITY = 4096;
+
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 0,
+            TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), AnalysisService::newThread,
+            new ThreadPoolExecutor.AbortPolicy());
+
+    /**
+     * Engines keep their buffers between searches and can't be shared, so each pool thread has its own
+     */
+    private static final ThreadLocal<Engine> engines = ThreadLocal.withInitial(() ->
+            new Engine(new PieceSquareEvaluator(), ANALYSIS_MILLIS, Engine.MAX_PLY));
+
+    /**
+     * Keys of the positions each user waits on, users waiting on none left out. Guarded by itself
+     */
+    private static final Map<String, Set<Long>> pending = new HashMap<>();
+
+    /**
+     * Searches by Zobrist key, least recently asked about dropped first. Guarded by itself
+     */
+    private static final Map<Long, CompletableFuture<AnalysisResponse>> results =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<AnalysisResponse>> eldest) {
+                    return size() > CACHE_CAPACITY;
+                }
+            };
+
+    private static Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "analysis");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Analyze the current position of a game without waiting for the search
+     *
+     * @param request Wrapper for user and gameID
+     * @return best move found, null if the search was started or is still running
+     * @throws BadRequestException      game with gameID doesn't exist
+     * @throws TooManyRequestsException user or server is too busy
+     * @throws DataAccessException      Database error
+     */
+    public static AnalysisResponse analyzeGame(AnalyzeGameRequest request)
+            throws BadRequestException, TooManyRequestsException, DataAccessException {
+        // A game being played is read from its snapshot, without waiting for a move being made or the database
+        GameSnapshot snapshot = GameManager.snapshot(request.gameID());
+        Game game = (snapshot != null) ? snapshot.game() : new GameDAO().getGameById(request.gameID());
+        if (game == null) throw new BadRequestException();
+        String username = new AuthTokenDAO().getAuthToken(request.authToken()).username();
+
+        try {
+            return analyze(username, game.game()).getNow(null);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TooManyRequestsException busy) throw busy;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Start analyzing a position without waiting for it
+     *
+     * @param username user asking, counted against their quota until the search finishes
+     * @param game     game to analyze, left unchanged
+     * @return search of the position, already complete if it was searched before
+     * @throws TooManyRequestsException user waits on too many positions or the queue is full
+     */
+    public static CompletableFuture<AnalysisResponse> analyze(String username, ChessGame game)
+            throws TooManyRequestsException {
+        long key = game.getZobristKey();
+        CompletableFuture<AnalysisResponse> future;
+        synchronized (results) {
+            future = results.get(key);
+        }
+        if (future != null && future.isDone()) return future;
+
+        boolean reserved = reserve(username, key);
+        try {
+            if (future == null) future = start(key, game);
+        } catch (TooManyRequestsException e) {
+            if (reserved) release(username, key);
+            throw e;
+        }
+        if (reserved) future.whenComplete((analysis, error) -> release(username, key));
+        return future;
+    }
+
+    /**
+     * Queue the search of a position, unless someone started it meanwhile
+     *
+     * @return search of the position
+     * @throws TooManyRequestsException queue is full
+     */
+    private static CompletableFuture<AnalysisResponse> start(long key, ChessGame game)
+            throws TooManyRequestsException {
+        CompletableFuture<AnalysisResponse> future = new CompletableFuture<>();
+        synchronized (results) {
+            CompletableFuture<AnalysisResponse> known = results.putIfAbsent(key, future);
+            if (known != null) return known;
+        }
+
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(AnalysisResponse.of(turn, engines.get().search(game)));
+                } catch (Throwable e) {
+                    forget(key, future);
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            forget(key, future);
+            TooManyRequestsException busy = new TooManyRequestsException(SERVER_BUSY);
+            future.completeExceptionally(busy);
+            throw busy;
+        }
+        return future;
+    }
+
+    /**
+     * Count a position against a user's quota, once however often they ask about it
+     *
+     * @return whether the position wasn't counted already
+     * @throws TooManyRequestsException user already waits on MAX_PENDING_PER_USER other positions
+     */
+    private static boolean reserve(String username, long key) throws TooManyRequestsException {
+        synchronized (pending) {
+            Set<Long> userPending = pending.computeIfAbsent(username, (name) -> new HashSet<>());
+            if (userPending.contains(key)) return false;
+            if (userPending.size() >= MAX_PENDING_PER_USER) throw new TooManyRequestsException(USER_BUSY);
+            return userPending.add(key);
+        }
+    }
+
+    private static void release(String username, long key) {
+        synchronized (pending) {
+            pending.computeIfPresent(username, (name, userPending) -> {
+                userPending.remove(key);
+                return userPending.isEmpty() ? null : userPending;
+            });
+        }
+    }
+
+    private static void forget(long key, CompletableFuture<AnalysisResponse> future) {
+        synchronized (results) {
+            results.remove(key, future);
+        }
+    }
+}
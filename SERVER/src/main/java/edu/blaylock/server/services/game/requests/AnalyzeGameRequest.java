@@ -0,0 +1,31 @@
+package edu.blaylock.server.services.game.requests;
+
+import edu.blaylock.server.exceptions.BadRequestException;
+import spark.Request;
+
+/**
+ * Wrapper for a token and the gameID of the game to analyze
+ *
+ * @param authToken String token
+ * @param gameID    int id
+ */
+public record AnalyzeGameRequest(String authToken, int gameID) {
+
+    /**
+     * Reads an HTTP request and populates an AnalyzeGameRequest. The gameID is a query parameter since the request is
+     * a GET without a body
+     *
+     * @param request An http request
+     * @return populated AnalyzeGameRequest
+     * @throws BadRequestException Thrown if gameID is missing, not a number or 0
+     */
+    public static AnalyzeGameRequest getRequest(Request request) throws BadRequestException {
+        try {
+            int gameID = Integer.parseInt(request.queryParams("gameID"));
+            if (gameID == 0) throw new BadRequestException();
+            return new AnalyzeGameRequest(request.headers("authorization"), gameID);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException();
+        }
+    }
+}
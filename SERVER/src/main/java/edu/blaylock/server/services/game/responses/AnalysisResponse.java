@@ -0,0 +1,55 @@
+package edu.blaylock.server.services.game.responses;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import edu.blaylock.chess.engine.Engine;
+import edu.blaylock.chess.engine.SearchResult;
+import edu.blaylock.utils.gson.GsonUtils;
+
+/**
+ * Best move found by analyzing a position
+ *
+ * @param turn   team to move in the analyzed position
+ * @param move   best move, null if there is no legal move
+ * @param score  centipawns for the team to move
+ * @param mateIn moves until mate, negative if the team to move gets mated. Null without a forced mate
+ * @param depth  plies searched
+ * @param nodes  positions visited
+ */
+public record AnalysisResponse(ChessGame.TeamColor turn, ChessMove move, int score, Integer mateIn, int depth,
+                               long nodes) {
+
+    /**
+     * @param turn   team to move in the analyzed position
+     * @param result search of the position
+     * @return response for the search
+     */
+    public static AnalysisResponse of(ChessGame.TeamColor turn, SearchResult result) {
+        Integer mateIn = null;
+        if (result.isMate()) {
+            int moves = (Engine.MATE - Math.abs(result.score()) + 1) / 2;
+            mateIn = (result.score() > 0) ? moves : -moves;
+        }
+        return new AnalysisResponse(turn, result.move(), result.score(), mateIn, result.depth(), result.nodes());
+    }
+
+    /**
+     * @return one line for players, like "Best move for WHITE: 2E->4E:null (+0.35, depth 7)"
+     */
+    public String describe() {
+        if (move == null) return "No legal move for " + turn;
+
+        String value = (mateIn != null) ? ((mateIn > 0) ? "mate in " + mateIn : "mated in " + -mateIn)
+                : String.format("%+.2f", score / 100.0);
+        return "Best move for " + turn + ": " + move + " (" + value + ", depth " + depth + ")";
+    }
+
+    /**
+     * Create json string
+     *
+     * @return json dict with every field, null ones included
+     */
+    public String createResponseBody() {
+        return GsonUtils.allowNulls().toJson(this);
+    }
+}
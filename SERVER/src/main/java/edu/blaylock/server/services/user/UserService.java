@@ -8,6 +8,7 @@ import edu.blaylock.server.database.models.User;
 import edu.blaylock.server.exceptions.AlreadyTakenException;
 import edu.blaylock.server.exceptions.DataAccessException;
 import edu.blaylock.server.exceptions.UnauthorizedException;
+import edu.blaylock.server.gameplay.BotPlayer;
 import edu.blaylock.server.services.user.requests.LoginRequest;
 import edu.blaylock.server.services.user.requests.LogoutRequest;
 import edu.blaylock.server.services.user.requests.RegisterRequest;
@@ -20,7 +21,7 @@ public class UserService {
 
     /**
      * Register a new User in database. Name suggested needs to be unique and will throw an error if
-     * this constraint fails.
+     * this constraint fails. The computer player's name is always taken.
      *
      * @param request Wrapper for a username, password, and email
      * @return RegisterResponse containing an AuthToken
@@ -32,7 +33,8 @@ public class UserService {
         UserDAO userDAO = new UserDAO();
         AuthTokenDAO authDAO = new AuthTokenDAO();
 
-        if (userDAO.getUserByName(request.username()) != null) throw new AlreadyTakenException();
+        if (BotPlayer.USERNAME.equals(request.username()) || userDAO.getUserByName(request.username()) != null)
+            throw new AlreadyTakenException();
 
         String hashedPassword = UserUtils.saltedHash(request.password());
         User proposedUser = new User(request.username(), hashedPassword, request.email());
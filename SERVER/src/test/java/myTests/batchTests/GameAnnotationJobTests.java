@@ -0,0 +1,195 @@
+package myTests.batchTests;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.GameState;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.impl.PieceSquareTables;
+import edu.blaylock.chess.notation.Fen;
+import edu.blaylock.chess.tablebase.Tablebases;
+import edu.blaylock.server.ServerGlobals;
+import edu.blaylock.server.batch.GameAnnotationJob;
+import edu.blaylock.server.database.dao.GameDAO;
+import edu.blaylock.server.database.dao.GameStatisticsDAO;
+import edu.blaylock.server.database.models.GameStatistics;
+import edu.blaylock.server.exceptions.DataAccessException;
+import myTests.resources.DatabaseFactory;
+import myTests.resources.GameFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+public class GameAnnotationJobTests {
+    /**
+     * White to move with a queen against a bare king, won for white
+     */
+    private static final String QUEEN_ENDING = "k7/8/1K6/8/8/8/8/6Q1 w - - 0 40";
+
+    @BeforeAll
+    static void setupDatabase() throws Exception {
+        DatabaseFactory.setupMemoryDatabase();
+    }
+
+    @BeforeEach
+    void clearDatabase() throws DataAccessException {
+        ServerGlobals.database().dropDatabase();
+    }
+
+    @AfterEach
+    void unloadTablebases() {
+        ServerGlobals.tablebases(null);
+    }
+
+    @Test
+    void testAnnotateCheckmate() throws Exception {
+        ChessGame game = GameFactory.readPgn(GameFactory.FOOLS_MATE).play();
+        DatabaseFactory.createGame(1, "mate", game, GameState.CHECKMATE);
+
+        GameStatistics statistics = GameAnnotationJob.annotate(new GameDAO().getGameById(1));
+
+        Assertions.assertEquals(new GameStatistics(1, 4, 0, 0, true, 1, 0, GameState.CHECKMATE, "BLACK"),
+                statistics);
+    }
+
+    @Test
+    void testAnnotateResignedReplaysMaterialSwing() throws Exception {
+        ChessGame game = GameFactory.readPgn(GameFactory.SCANDINAVIAN).play();
+        game.setResignedTeam(ChessGame.TeamColor.WHITE);
+        DatabaseFactory.createGame(1, "resigned", game, GameState.RESIGNED);
+
+        GameStatistics statistics = GameAnnotationJob.annotate(new GameDAO().getGameById(1));
+
+        Assertions.assertEquals(new GameStatistics(1, 5, 2, 0, false, 0,
+                        PieceSquareTables.value(ChessPiece.PieceType.PAWN), GameState.RESIGNED, "BLACK"),
+                statistics);
+    }
+
+    @Test
+    void testAnnotateWithoutMoveHistory() throws Exception {
+        ChessGame played = GameFactory.readPgn(GameFactory.FOOLS_MATE).play();
+        ChessGame read = Fen.read(Fen.write(played));
+        Assertions.assertNull(read.getMoveHistory());
+        DatabaseFactory.createGame(1, "with moves", played, GameState.CHECKMATE);
+        DatabaseFactory.createGame(2, "without moves", read, GameState.CHECKMATE);
+
+        GameDAO dao = new GameDAO();
+        GameStatistics withMoves = GameAnnotationJob.annotate(dao.getGameById(1));
+        GameStatistics withoutMoves = GameAnnotationJob.annotate(dao.getGameById(2));
+
+        // Only the replay is missing, what the final position tells is the same
+        Assertions.assertEquals(new GameStatistics(2, withMoves.plies(), withMoves.captures(), withMoves.material(),
+                withMoves.inCheck(), null, null, GameState.CHECKMATE, "BLACK"), withoutMoves);
+    }
+
+    @Test
+    void testResignedBeforeTeamStoredHasNoWinner() throws DataAccessException {
+        ChessGame game = new ChessGameImpl();
+        game.setBoard(ChessBoardFactory.defaultChessBoard().copy());
+        DatabaseFactory.createGame(1, "old", game, GameState.RESIGNED);
+
+        GameStatistics statistics = GameAnnotationJob.annotate(new GameDAO().getGameById(1));
+
+        Assertions.assertEquals(new GameStatistics(1, 0, 0, 0, false, null, null, GameState.RESIGNED, null),
+                statistics);
+    }
+
+    @Test
+    void testAdjudicatedWinnerComesFromTablebases() throws DataAccessException {
+        DatabaseFactory.createGame(1, "white to move", Fen.read(QUEEN_ENDING), GameState.ADJUDICATED);
+        DatabaseFactory.createGame(2, "black to move", Fen.read(QUEEN_ENDING.replace(" w ", " b ")),
+                GameState.ADJUDICATED);
+        GameDAO dao = new GameDAO();
+
+        Assertions.assertNull(GameAnnotationJob.winner(dao.getGameById(1)));
+        Assertions.assertNull(GameAnnotationJob.annotate(dao.getGameById(1)).winner());
+
+        ServerGlobals.tablebases(Tablebases.generate());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, GameAnnotationJob.winner(dao.getGameById(1)));
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, GameAnnotationJob.winner(dao.getGameById(2)));
+
+        GameStatistics statistics = GameAnnotationJob.annotate(dao.getGameById(1));
+        Assertions.assertEquals(GameState.ADJUDICATED, statistics.state());
+        Assertions.assertEquals("WHITE", statistics.winner());
+        Assertions.assertEquals(29, statistics.captures());
+    }
+
+    @Test
+    void testRunResumesFromCheckpoint(@TempDir Path directory) throws Exception {
+        createFinishedGame(1);
+        DatabaseFactory.createGame(2, "unfinished");
+        createFinishedGame(3);
+        Path checkpoint = directory.resolve(GameAnnotationJob.DEFAULT_CHECKPOINT);
+        GameStatisticsDAO statistics = new GameStatisticsDAO();
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            GameAnnotationJob job = new GameAnnotationJob(new GameDAO(), statistics, pool, checkpoint);
+            Assertions.assertEquals(new GameAnnotationJob.Progress(3, 2, 3), job.run());
+            Assertions.assertEquals("3", Files.readString(checkpoint));
+            Assertions.assertNotNull(statistics.getStatisticsById(1));
+            Assertions.assertNull(statistics.getStatisticsById(2));
+
+            createFinishedGame(4);
+            job = new GameAnnotationJob(new GameDAO(), statistics, pool, checkpoint);
+            Assertions.assertEquals(new GameAnnotationJob.Progress(1, 1, 4), job.run());
+            Assertions.assertEquals(GameState.CHECKMATE, statistics.getStatisticsById(4).state());
+
+            Assertions.assertEquals(new GameAnnotationJob.Progress(0, 0, 4), job.run());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testRunSkipsGamesBeforeCheckpoint(@TempDir Path directory) throws Exception {
+        createFinishedGame(1);
+        createFinishedGame(2);
+        Path checkpoint = directory.resolve(GameAnnotationJob.DEFAULT_CHECKPOINT);
+        Files.writeString(checkpoint, "1");
+        GameStatisticsDAO statistics = new GameStatisticsDAO();
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            GameAnnotationJob job = new GameAnnotationJob(new GameDAO(), statistics, pool, checkpoint);
+            Assertions.assertEquals(new GameAnnotationJob.Progress(1, 1, 2), job.run());
+            Assertions.assertNull(statistics.getStatisticsById(1));
+            Assertions.assertNotNull(statistics.getStatisticsById(2));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testRunDoesNotStoreStatisticsTwice(@TempDir Path directory) throws Exception {
+        createFinishedGame(1);
+        GameStatisticsDAO statistics = new GameStatisticsDAO();
+        // Written just before a job stopped, without the checkpoint getting to it
+        GameStatistics stored = GameAnnotationJob.annotate(new GameDAO().getGameById(1));
+        Assertions.assertTrue(statistics.saveIfAbsent(stored));
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            GameAnnotationJob job = new GameAnnotationJob(new GameDAO(), statistics,
+                    pool, directory.resolve(GameAnnotationJob.DEFAULT_CHECKPOINT));
+            Assertions.assertEquals(new GameAnnotationJob.Progress(1, 0, 1), job.run());
+            Assertions.assertEquals(stored, statistics.getStatisticsById(1));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void createFinishedGame(int id) throws DataAccessException, IOException, InvalidMoveException {
+        DatabaseFactory.createGame(id, "game" + id, GameFactory.readPgn(GameFactory.FOOLS_MATE).play(),
+                GameState.CHECKMATE);
+    }
+}
@@ -0,0 +1,162 @@
+package myTests.batchTests;
+
+import chess.ChessGame;
+import edu.blaylock.chess.GameState;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.notation.Fen;
+import edu.blaylock.chess.notation.PgnGame;
+import edu.blaylock.chess.tablebase.Tablebases;
+import edu.blaylock.server.ServerGlobals;
+import edu.blaylock.server.batch.GameArchive;
+import edu.blaylock.server.database.dao.GameDAO;
+import edu.blaylock.server.database.models.Game;
+import edu.blaylock.server.exceptions.DataAccessException;
+import myTests.resources.DatabaseFactory;
+import myTests.resources.GameFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+
+public class GameArchiveTests {
+    private static final String ARCHIVE = """
+            [Event "Casual"]
+            [White "diego"]
+            [Black "blaylock"]
+            [Result "0-1"]
+
+            1. f3 e5 2. g4 Qh4# 0-1
+
+            [Event "Casual"]
+            [White "blaylock"]
+            [Black "diego"]
+            [Result "1-0"]
+
+            1. e4 d5 2. exd5 Qxd5 3. Nc3 1-0
+
+            [Event "Casual"]
+            [White "diego"]
+            [Black "blaylock"]
+            [Result "1/2-1/2"]
+
+            1. Nf3 Nf6 2. Ng1 Ng8 3. Nf3 Nf6 4. Ng1 Ng8 1/2-1/2
+            """;
+
+    @BeforeAll
+    static void setupDatabase() throws Exception {
+        DatabaseFactory.setupMemoryDatabase();
+    }
+
+    @BeforeEach
+    void clearDatabase() throws DataAccessException {
+        ServerGlobals.database().dropDatabase();
+    }
+
+    @AfterEach
+    void unloadTablebases() {
+        ServerGlobals.tablebases(null);
+    }
+
+    @Test
+    void testToGameReadsHowGameEnded() throws Exception {
+        List<PgnGame> pgnGames = GameFactory.readAllPgn(ARCHIVE);
+
+        Game mate = GameArchive.toGame(pgnGames.get(0));
+        Assertions.assertEquals("diego vs blaylock", mate.gameName());
+        Assertions.assertEquals(GameState.CHECKMATE, mate.state());
+        Assertions.assertNull(mate.game().getResignedTeam());
+
+        Game resigned = GameArchive.toGame(pgnGames.get(1));
+        Assertions.assertEquals(GameState.RESIGNED, resigned.state());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, resigned.game().getResignedTeam());
+
+        Assertions.assertEquals(GameState.DRAW_REPETITION, GameArchive.toGame(pgnGames.get(2)).state());
+        Assertions.assertEquals(GameState.ADJUDICATED,
+                GameArchive.toGame(GameFactory.readPgn("1. e4 e5 1/2-1/2")).state());
+        Assertions.assertEquals(GameState.UNFINISHED, GameArchive.toGame(GameFactory.readPgn("1. e4 e5 *")).state());
+    }
+
+    @Test
+    void testToPgnGameStartsFromMoveHistory() throws Exception {
+        ChessGame played = GameFactory.readPgn(GameFactory.SCANDINAVIAN).play();
+        DatabaseFactory.createGame(1, "with moves", played, GameState.UNFINISHED);
+        DatabaseFactory.createGame(2, "without moves", Fen.read(Fen.write(played)), GameState.UNFINISHED);
+        GameDAO dao = new GameDAO();
+
+        PgnGame withMoves = GameArchive.toPgnGame(dao.getGameById(1));
+        Assertions.assertEquals(5, withMoves.moves().size());
+        Assertions.assertEquals(Fen.STARTING_POSITION, Fen.write(withMoves.start()));
+        Assertions.assertEquals(Fen.write(played), Fen.write(withMoves.play()));
+
+        // Stored before moves were kept, so written as a SetUp game from where it is
+        PgnGame withoutMoves = GameArchive.toPgnGame(dao.getGameById(2));
+        Assertions.assertTrue(withoutMoves.moves().isEmpty());
+        Assertions.assertEquals(Fen.write(played), Fen.write(withoutMoves.start()));
+
+        // The stored game is left where it was
+        Assertions.assertEquals(5, dao.getGameById(1).game().getMoveHistory().cursor());
+    }
+
+    @Test
+    void testToPgnGameResults() throws Exception {
+        ChessGame mate = GameFactory.readPgn(GameFactory.FOOLS_MATE).play();
+        ChessGame resigned = GameFactory.readPgn(GameFactory.SCANDINAVIAN).play();
+        resigned.setResignedTeam(ChessGame.TeamColor.BLACK);
+        ChessGame resignedUnknown = new ChessGameImpl();
+        resignedUnknown.setBoard(ChessBoardFactory.defaultChessBoard().copy());
+        ChessGame adjudicated = Fen.read("k7/8/1K6/8/8/8/8/6Q1 b - - 0 40");
+
+        DatabaseFactory.createGame(1, "mate", mate, GameState.CHECKMATE);
+        DatabaseFactory.createGame(2, "resigned", resigned, GameState.RESIGNED);
+        DatabaseFactory.createGame(3, "resigned unknown", resignedUnknown, GameState.RESIGNED);
+        DatabaseFactory.createGame(4, "adjudicated", adjudicated, GameState.ADJUDICATED);
+        DatabaseFactory.createGame(5, "repetition", GameArchive.toGame(GameFactory.readAllPgn(ARCHIVE).get(2)).game(),
+                GameState.DRAW_REPETITION);
+        DatabaseFactory.createGame(6, "unfinished");
+        GameDAO dao = new GameDAO();
+
+        Assertions.assertEquals(PgnGame.BLACK_WINS, GameArchive.toPgnGame(dao.getGameById(1)).result());
+        Assertions.assertEquals(PgnGame.WHITE_WINS, GameArchive.toPgnGame(dao.getGameById(2)).result());
+        Assertions.assertEquals(PgnGame.UNFINISHED, GameArchive.toPgnGame(dao.getGameById(3)).result());
+        Assertions.assertEquals(PgnGame.UNFINISHED, GameArchive.toPgnGame(dao.getGameById(4)).result());
+        Assertions.assertEquals(PgnGame.DRAW, GameArchive.toPgnGame(dao.getGameById(5)).result());
+        Assertions.assertEquals(PgnGame.UNFINISHED, GameArchive.toPgnGame(dao.getGameById(6)).result());
+
+        ServerGlobals.tablebases(Tablebases.generate());
+        Assertions.assertEquals(PgnGame.WHITE_WINS, GameArchive.toPgnGame(dao.getGameById(4)).result());
+    }
+
+    @Test
+    void testPgnRoundTripThroughDatabase() throws Exception {
+        List<PgnGame> imported = GameFactory.readAllPgn(ARCHIVE);
+        // MemoryDatabase doesn't generate gameIDs, so games are stored under their own instead of with createGame
+        GameDAO dao = new GameDAO();
+        for (int i = 0; i < imported.size(); i++) {
+            Game game = GameArchive.toGame(imported.get(i));
+            dao.create(new Game(i + 1, null, null, game.gameName(), game.game(), game.state()));
+        }
+
+        StringWriter text = new StringWriter();
+        Assertions.assertEquals(new GameArchive.Counts(3, 0), new GameArchive(dao).exportGames(text));
+
+        List<PgnGame> exported = GameFactory.readAllPgn(text.toString());
+        Assertions.assertEquals(imported.size(), exported.size());
+        for (int i = 0; i < imported.size(); i++) {
+            Game stored = dao.getGameById(i + 1);
+            Assertions.assertEquals(imported.get(i).moves(), exported.get(i).moves());
+            Assertions.assertEquals(imported.get(i).result(), exported.get(i).result());
+            Assertions.assertEquals(stored.gameName(), exported.get(i).tags().get("Event"));
+            Assertions.assertEquals(Integer.toString(i + 1), exported.get(i).tags().get("GameId"));
+
+            Game reimported = GameArchive.toGame(exported.get(i));
+            Assertions.assertEquals(stored.state(), reimported.state());
+            Assertions.assertEquals(stored.game().getResignedTeam(), reimported.game().getResignedTeam());
+            Assertions.assertEquals(Fen.write(stored.game()), Fen.write(reimported.game()));
+        }
+    }
+}
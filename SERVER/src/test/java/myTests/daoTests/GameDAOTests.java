@@ -115,6 +115,19 @@ public class GameDAOTests {
         Assertions.assertThrows(AlreadyTakenException.class, () -> dao.setGamePlayer(1, "u1", ChessGame.TeamColor.WHITE));
     }
 
+    @Test
+    void testFindGamesAfterPagesInOrder() throws DataAccessException {
+        Game game1 = DatabaseFactory.createGame(1, "game1");
+        Game game2 = DatabaseFactory.createGame(2, "game2");
+        Game game3 = DatabaseFactory.createGame(3, "game3");
+
+        GameDAO dao = new GameDAO();
+
+        Assertions.assertArrayEquals(new Game[]{game1, game2}, dao.findGamesAfter(0, 2));
+        Assertions.assertArrayEquals(new Game[]{game3}, dao.findGamesAfter(2, 2));
+        Assertions.assertEquals(0, dao.findGamesAfter(3, 2).length);
+    }
+
     /*
     set game player
     update chessgame
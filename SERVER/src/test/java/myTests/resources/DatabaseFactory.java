@@ -8,12 +8,14 @@ import edu.blaylock.server.ServerGlobals;
 import edu.blaylock.server.database.dao.AuthTokenDAO;
 import edu.blaylock.server.database.dao.GameDAO;
 import edu.blaylock.server.database.dao.UserDAO;
+import edu.blaylock.server.database.implementations.local.MemoryDatabase;
 import edu.blaylock.server.database.implementations.mysql.MySqlDatabase;
 import edu.blaylock.server.database.models.AuthToken;
 import edu.blaylock.server.database.models.Game;
 import edu.blaylock.server.database.models.User;
 import edu.blaylock.server.database.tablespecs.AuthTokenSpec;
 import edu.blaylock.server.database.tablespecs.GameSpec;
+import edu.blaylock.server.database.tablespecs.GameStatisticsSpec;
 import edu.blaylock.server.database.tablespecs.UserSpec;
 import edu.blaylock.server.exceptions.DataAccessException;
 import edu.blaylock.server.services.user.UserUtils;
@@ -28,6 +30,15 @@ public class DatabaseFactory {
         ServerGlobals.database().createTable(GameSpec.class);
     }
 
+    public static void setupMemoryDatabase() throws DataAccessException {
+        ServerGlobals.database(new MemoryDatabase());
+
+        ServerGlobals.database().createTable(UserSpec.class);
+        ServerGlobals.database().createTable(AuthTokenSpec.class);
+        ServerGlobals.database().createTable(GameSpec.class);
+        ServerGlobals.database().createTable(GameStatisticsSpec.class);
+    }
+
     public static User createUser(String username, String password, String email) throws DataAccessException {
         UserDAO dao = new UserDAO(ServerGlobals.database());
         User result = new User(username, UserUtils.saltedHash(password), email);
@@ -35,13 +46,17 @@ public class DatabaseFactory {
         return result;
     }
 
-    public static Game createGame(int id, String name, ChessGame game) throws DataAccessException {
+    public static Game createGame(int id, String name, ChessGame game, GameState state) throws DataAccessException {
         GameDAO dao = new GameDAO(ServerGlobals.database());
-        Game store = new Game(id, null, null, name, game, GameState.UNFINISHED);
+        Game store = new Game(id, null, null, name, game, state);
         dao.create(store);
         return store;
     }
 
+    public static Game createGame(int id, String name, ChessGame game) throws DataAccessException {
+        return createGame(id, name, game, GameState.UNFINISHED);
+    }
+
     public static Game createGame(int id, String name) throws DataAccessException {
         ChessGame game = new ChessGameImpl();
         game.setBoard(ChessBoardFactory.defaultChessBoard());
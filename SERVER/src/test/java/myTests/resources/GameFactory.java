@@ -0,0 +1,31 @@
+package myTests.resources;
+
+import chess.InvalidMoveException;
+import edu.blaylock.chess.notation.PgnGame;
+import edu.blaylock.chess.notation.PgnReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameFactory {
+
+    public static final String FOOLS_MATE = "1. f3 e5 2. g4 Qh4# 0-1";
+
+    /**
+     * 1. e4 d5 2. exd5 Qxd5 3. Nc3, white a pawn up after the third ply and even again after the fourth
+     */
+    public static final String SCANDINAVIAN = "1. e4 d5 2. exd5 Qxd5 3. Nc3 *";
+
+    public static PgnGame readPgn(String pgn) throws IOException, InvalidMoveException {
+        return readAllPgn(pgn).get(0);
+    }
+
+    public static List<PgnGame> readAllPgn(String pgn) throws IOException, InvalidMoveException {
+        List<PgnGame> games = new ArrayList<>();
+        PgnReader reader = new PgnReader(new StringReader(pgn));
+        for (PgnGame game = reader.next(); game != null; game = reader.next()) games.add(game);
+        return games;
+    }
+}
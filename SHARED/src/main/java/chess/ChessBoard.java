@@ -1,5 +1,7 @@
 package chess;
 
+import edu.blaylock.chess.MoveUndo;
+
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
@@ -41,10 +43,36 @@ public interface ChessBoard {
 
     ChessPiece movePiece(ChessMove move);
 
+    /**
+     * Makes a move in place, including the rook of a castle and the pawn taken en passant, and advances the round.
+     * A pawn reaching the last row without a promotion piece becomes a queen.
+     *
+     * @param move move to make, expected to be valid
+     * @param undo filled with what is needed to take the move back
+     */
+    void makeMove(ChessMove move, MoveUndo undo);
+
+    /**
+     * Takes back the move recorded in undo, restoring pieces, their moves taken and the round
+     *
+     * @param undo record filled by makeMove
+     */
+    void unmakeMove(MoveUndo undo);
+
     Iterable<ChessPosition> pieceLocationIterator(ChessGame.TeamColor color);
 
     ChessPosition getKingLocation(ChessGame.TeamColor color);
 
+    /**
+     * Looks outward from a square for a piece of a color that attacks it. Pawns only attack diagonally, so a square
+     * in front of a pawn is not attacked by it.
+     *
+     * @param position square to test
+     * @param byColor  color of the attacking pieces
+     * @return whether any piece of byColor attacks the square
+     */
+    boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor);
+
     ChessBoard copy();
 
     void updateRound(int round);
@@ -52,4 +80,22 @@ public interface ChessBoard {
     int getRound();
 
     String serialize();
+
+    /**
+     * Zobrist key of the pieces on the board, the castles still possible and the column of a pawn that can be taken en
+     * passant. Kept up to date by every change made through the board, so reading it is free. Changing the moves taken
+     * of a piece while it stands on the board is only seen once its square changes.
+     *
+     * @return 64 bit position hash, equal for boards holding the same position
+     */
+    long getZobristKey();
+
+    /**
+     * Material and piece-square score in centipawns, blended between middle game and endgame values by the pieces
+     * left, see PieceSquareTables. Kept up to date by every change made through the board like the Zobrist key, so
+     * reading it is free.
+     *
+     * @return score from white's side, positive when white is ahead
+     */
+    int getScore();
 }
@@ -1,5 +1,7 @@
 package chess;
 
+import edu.blaylock.chess.MoveHistory;
+
 import java.util.Collection;
 
 /**
@@ -95,4 +97,70 @@ public interface ChessGame {
      * @return the chessboard
      */
     ChessBoard getBoard();
+
+    /**
+     * @return Zobrist key of the board combined with the team whose turn it is
+     */
+    long getZobristKey();
+
+    /**
+     * @return game in the same position and with the same history, changed independently of this one
+     */
+    ChessGame copy();
+
+    /**
+     * Times a position has to come back, with the same team to move, for the game to be drawn
+     */
+    int REPETITIONS = 3;
+
+    /**
+     * Moves without a capture or pawn move, fifty by each team, after which the game is drawn
+     */
+    int FIFTY_MOVE_PLIES = 100;
+
+    /**
+     * @return moves made since the last capture or pawn move
+     */
+    int getHalfmoveClock();
+
+    /**
+     * @return True if the current position has come up REPETITIONS times with the same team to move
+     */
+    boolean isDrawByRepetition();
+
+    /**
+     * @return True if FIFTY_MOVE_PLIES moves were made without a capture or pawn move
+     */
+    boolean isDrawByFiftyMoves();
+
+    /**
+     * Take back the last move made, keeping it to be made again by redoMove until a different move is made
+     *
+     * @return False if there is no move to take back
+     */
+    boolean undoMove();
+
+    /**
+     * Make again the move last taken back by undoMove
+     *
+     * @return False if there is no move to make again
+     */
+    boolean redoMove();
+
+    /**
+     * @return moves made in this game, the ones taken back after its cursor, or null if none were made
+     */
+    MoveHistory getMoveHistory();
+
+    /**
+     * @return team that resigned the game, null if no one did
+     */
+    TeamColor getResignedTeam();
+
+    /**
+     * Record that a team resigned, kept with the game so who won is known once it is stored
+     *
+     * @param team team that resigned
+     */
+    void setResignedTeam(TeamColor team);
 }
@@ -45,6 +45,8 @@ public interface ChessPiece {
 
     void incrementMovesTaken();
 
+    void setMovesTaken(int movesTaken);
+
     ChessPiece copy();
 
     int getTimeOfLastMove();
@@ -4,5 +4,17 @@ public enum GameState {
     RESIGNED,
     STALEMATE,
     CHECKMATE,
-    UNFINISHED
+    UNFINISHED,
+    /**
+     * Ended by the endgame tablebases, which know the result with best play
+     */
+    ADJUDICATED,
+    /**
+     * Drawn by the same position coming up three times
+     */
+    DRAW_REPETITION,
+    /**
+     * Drawn by fifty moves each without a capture or pawn move
+     */
+    DRAW_FIFTY_MOVE
 }
@@ -0,0 +1,220 @@
+package edu.blaylock.chess;
+
+import chess.ChessPiece;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Moves of a game in the order they were made, kept in parallel primitive arrays so a long game costs 24 bytes a move
+ * and copies array by array. Each entry holds what the board can't tell once the move is made: the packed move
+ * with its flags and the type of piece it captured, the moves taken and round of last move of the moving piece and of
+ * the captured piece or castling rook, and the halfmove clock and Zobrist key of the game before the move. That is
+ * enough to take the move back or make it again in constant time, however long the game is.<br>
+ * The cursor is the number of moves currently on the board. Moves taken back stay after it, so a game can be stepped
+ * back and forth like a replay, until a different move is made and they are dropped. Moves taken and rounds are kept in
+ * 16 bits, like ChessBoard.serialize does.
+ */
+public class MoveHistory {
+
+    private static final int INITIAL_CAPACITY = 32;
+    private static final int ENTRY_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private static final int MOVE_MASK = (1 << 20) - 1;
+    private static final int CAPTURED_SHIFT = 20;
+    private static final int SHORT_MASK = 0xFFFF;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    /**
+     * PackedMove in the low 20 bits, captured type ordinal + 1 above, 0 for none
+     */
+    private int[] moves;
+
+    /**
+     * From the lowest 16 bits: moved piece's moves taken and round of last move, then the same for the captured piece
+     * or castling rook
+     */
+    private long[] pieces;
+
+    private int[] clocks;
+    private long[] keys;
+
+    private int size = 0;
+    private int cursor = 0;
+
+    public MoveHistory() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private MoveHistory(int capacity) {
+        moves = new int[capacity];
+        pieces = new long[capacity];
+        clocks = new int[capacity];
+        keys = new long[capacity];
+    }
+
+    /**
+     * Add a move about to be made at the cursor. The moves after the cursor are dropped, unless it is the move that
+     * comes next, which is kept along with them.
+     *
+     * @param move          PackedMove with its flags and promotion
+     * @param captured      type of the piece taken, null for none
+     * @param moved         piece about to move
+     * @param other         piece about to be taken, or rook about to castle, may be null
+     * @param halfmoveClock halfmove clock of the game before the move
+     * @param key           Zobrist key of the game before the move
+     */
+    public void record(int move, ChessPiece.PieceType captured, ChessPiece moved, ChessPiece other,
+                       int halfmoveClock, long key) {
+        if (cursor == size || (moves[cursor] & MOVE_MASK) != move) {
+            size = cursor + 1;
+        }
+        if (cursor == moves.length) grow();
+
+        moves[cursor] = move | ((captured == null) ? 0 : (captured.ordinal() + 1) << CAPTURED_SHIFT);
+        pieces[cursor] = pack(moved.numMovesTaken(), moved.getTimeOfLastMove(), 0)
+                | ((other == null) ? 0 : pack(other.numMovesTaken(), other.getTimeOfLastMove(), 32));
+        clocks[cursor] = halfmoveClock;
+        keys[cursor] = key;
+        cursor++;
+    }
+
+    private static long pack(int movesTaken, int lastRound, int shift) {
+        return ((long) (movesTaken & SHORT_MASK) | (long) (lastRound & SHORT_MASK) << 16) << shift;
+    }
+
+    private void grow() {
+        int capacity = moves.length * 2;
+        moves = Arrays.copyOf(moves, capacity);
+        pieces = Arrays.copyOf(pieces, capacity);
+        clocks = Arrays.copyOf(clocks, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+
+    /**
+     * Move the cursor back over the last move, once it is taken back
+     */
+    public void back() {
+        if (cursor == 0) throw new IllegalStateException("No move to take back");
+        cursor--;
+    }
+
+    /**
+     * @return moves recorded, including the ones taken back
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return moves currently made
+     */
+    public int cursor() {
+        return cursor;
+    }
+
+    /**
+     * @param ply index of the move, from 0
+     * @return PackedMove with its flags and promotion
+     */
+    public int move(int ply) {
+        return moves[ply] & MOVE_MASK;
+    }
+
+    /**
+     * @return type of the piece the move took, null for none
+     */
+    public ChessPiece.PieceType captured(int ply) {
+        int bits = moves[ply] >>> CAPTURED_SHIFT;
+        return (bits == 0) ? null : TYPES[bits - 1];
+    }
+
+    public int movedMovesTaken(int ply) {
+        return field(ply, 0);
+    }
+
+    public int movedLastRound(int ply) {
+        return field(ply, 16);
+    }
+
+    /**
+     * @return moves taken by the captured piece or castling rook before the move
+     */
+    public int otherMovesTaken(int ply) {
+        return field(ply, 32);
+    }
+
+    /**
+     * @return round of last move of the captured piece or castling rook before the move
+     */
+    public int otherLastRound(int ply) {
+        return field(ply, 48);
+    }
+
+    private int field(int ply, int shift) {
+        return (int) (pieces[ply] >>> shift) & SHORT_MASK;
+    }
+
+    /**
+     * @return halfmove clock of the game before the move
+     */
+    public int halfmoveClock(int ply) {
+        return clocks[ply];
+    }
+
+    /**
+     * @return Zobrist key of the game before the move
+     */
+    public long key(int ply) {
+        return keys[ply];
+    }
+
+    /**
+     * @return history with the same moves and cursor, changed independently of this one
+     */
+    public MoveHistory copy() {
+        MoveHistory copy = new MoveHistory(Math.max(size, INITIAL_CAPACITY));
+        System.arraycopy(moves, 0, copy.moves, 0, size);
+        System.arraycopy(pieces, 0, copy.pieces, 0, size);
+        System.arraycopy(clocks, 0, copy.clocks, 0, size);
+        System.arraycopy(keys, 0, copy.keys, 0, size);
+        copy.size = size;
+        copy.cursor = cursor;
+        return copy;
+    }
+
+    /**
+     * @return the cursor followed by the recorded moves, in Base64
+     */
+    public String serialize() {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + size * ENTRY_BYTES);
+        buffer.putInt(cursor);
+        for (int i = 0; i < size; i++) {
+            buffer.putInt(moves[i]).putLong(pieces[i]).putInt(clocks[i]).putLong(keys[i]);
+        }
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param string text made by serialize
+     * @return history it describes
+     */
+    public static MoveHistory deserialize(String string) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(string));
+        int cursor = buffer.getInt();
+        int size = buffer.remaining() / ENTRY_BYTES;
+
+        MoveHistory history = new MoveHistory(Math.max(size, INITIAL_CAPACITY));
+        for (int i = 0; i < size; i++) {
+            history.moves[i] = buffer.getInt();
+            history.pieces[i] = buffer.getLong();
+            history.clocks[i] = buffer.getInt();
+            history.keys[i] = buffer.getLong();
+        }
+        history.size = size;
+        history.cursor = Math.min(cursor, size);
+        return history;
+    }
+}
@@ -0,0 +1,118 @@
+package edu.blaylock.chess;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+/**
+ * Everything needed to take back a move made with ChessBoard.makeMove: the moving piece with its moves taken and round
+ * of last move, the captured piece (and where it stood, for en passant), the rook of a castle and the round of the
+ * board before the move. Meant to be reused between moves so that making and taking back moves doesn't allocate.
+ */
+public class MoveUndo {
+    private ChessMove move;
+    private ChessPiece moved;
+    private int movedMovesTaken;
+    private int movedLastRound;
+
+    private ChessPiece captured;
+    private ChessPosition capturedPosition;
+
+    private ChessPosition rookStart;
+    private ChessPosition rookEnd;
+    private int rookMovesTaken;
+    private int rookLastRound;
+
+    private int round;
+
+    /**
+     * Store the state of the board before a move. Clears any previous capture and castle
+     *
+     * @param move  move about to be made
+     * @param moved piece about to move
+     * @param round round of the board before the move
+     */
+    public void recordMove(ChessMove move, ChessPiece moved, int round) {
+        this.move = move;
+        this.moved = moved;
+        this.movedMovesTaken = moved.numMovesTaken();
+        this.movedLastRound = moved.getTimeOfLastMove();
+        this.round = round;
+        this.captured = null;
+        this.capturedPosition = null;
+        this.rookStart = null;
+        this.rookEnd = null;
+    }
+
+    /**
+     * @param captured         piece that is taken by the move
+     * @param capturedPosition where the piece was taken from
+     */
+    public void recordCapture(ChessPiece captured, ChessPosition capturedPosition) {
+        this.captured = captured;
+        this.capturedPosition = capturedPosition;
+    }
+
+    /**
+     * @param rook      rook that is moved by a castle
+     * @param rookStart where the rook started
+     * @param rookEnd   where the rook ended
+     */
+    public void recordCastle(ChessPiece rook, ChessPosition rookStart, ChessPosition rookEnd) {
+        this.rookStart = rookStart;
+        this.rookEnd = rookEnd;
+        this.rookMovesTaken = rook.numMovesTaken();
+        this.rookLastRound = rook.getTimeOfLastMove();
+    }
+
+    public ChessMove move() {
+        return move;
+    }
+
+    public ChessPiece moved() {
+        return moved;
+    }
+
+    public int movedMovesTaken() {
+        return movedMovesTaken;
+    }
+
+    public int movedLastRound() {
+        return movedLastRound;
+    }
+
+    public ChessPiece captured() {
+        return captured;
+    }
+
+    public ChessPosition capturedPosition() {
+        return capturedPosition;
+    }
+
+    /**
+     * @return whether the move was a castle
+     */
+    public boolean castled() {
+        return rookStart != null;
+    }
+
+    public ChessPosition rookStart() {
+        return rookStart;
+    }
+
+    public ChessPosition rookEnd() {
+        return rookEnd;
+    }
+
+    public int rookMovesTaken() {
+        return rookMovesTaken;
+    }
+
+    public int rookLastRound() {
+        return rookLastRound;
+    }
+
+    public int round() {
+        return round;
+    }
+}
@@ -0,0 +1,136 @@
+package edu.blaylock.chess.book;
+
+import chess.ChessGame;
+import edu.blaylock.chess.rules.MoveList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only opening book, memory mapped from a file written by OpeningBookBuilder. Nothing is read on opening: pages
+ * of the file are loaded by the operating system as lookups touch them, and are shared by every thread and process
+ * mapping the same file.<br>
+ * File layout, big endian: magic (4 bytes), number of entries (4 bytes), then the entries sorted by key and, for the
+ * same key, by decreasing weight. Each entry is the key of the position, ChessGame.getZobristKey (8 bytes), the move
+ * as a PackedMove without flags (4 bytes) and the number of times it was played (4 bytes).<br>
+ * Lookups only use absolute reads of the mapped buffer, so they allocate nothing and are safe from any number of
+ * threads. Books are limited to 2 GB, the most a single mapping can hold.
+ */
+public final class OpeningBook {
+
+    static final int MAGIC = 0x43424B31;
+    static final int HEADER_BYTES = 8;
+    static final int ENTRY_BYTES = 16;
+
+    private final ByteBuffer buffer;
+    private final int size;
+
+    private OpeningBook(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) throw new IOException("Not an opening book");
+
+        this.buffer = buffer;
+        this.size = buffer.getInt(4);
+        if (size < 0 || (long) HEADER_BYTES + (long) size * ENTRY_BYTES > buffer.limit()) {
+            throw new IOException("Opening book is truncated");
+        }
+    }
+
+    /**
+     * Map a book file. The file must not be changed while the book is in use.
+     *
+     * @param path file written by OpeningBookBuilder
+     * @return book reading the file
+     * @throws IOException if the file can't be mapped or isn't a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OpeningBook(mapped);
+        }
+    }
+
+    /**
+     * @return number of entries, a position with several moves having one entry per move
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param game game in the position to look up
+     * @return index of the most played move of the position, -1 if the position isn't in the book
+     */
+    public int find(ChessGame game) {
+        return find(game.getZobristKey());
+    }
+
+    /**
+     * @param key key of the position, see ChessGame.getZobristKey
+     * @return index of the most played move of the position, -1 if the position isn't in the book
+     */
+    public int find(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (key(middle) < key) low = middle + 1;
+            else high = middle;
+        }
+        return (low < size && key(low) == key) ? low : -1;
+    }
+
+    /**
+     * Add every book move of a position, most played first
+     *
+     * @param game  game in the position to look up
+     * @param moves list to add PackedMoves to, without flags
+     * @return total weight of the moves added, 0 if the position isn't in the book
+     */
+    public int addMoves(ChessGame game, MoveList moves) {
+        long key = game.getZobristKey();
+        int total = 0;
+        for (int index = find(key); index >= 0 && index < size && key(index) == key; index++) {
+            moves.add(move(index));
+            total += weight(index);
+        }
+        return total;
+    }
+
+    /**
+     * Choose a book move with a chance proportional to how often it was played
+     *
+     * @param game   game in the position to look up
+     * @param random number from 0 inclusive to 1 exclusive
+     * @return PackedMove without flags, -1 if the position isn't in the book
+     */
+    public int pickMove(ChessGame game, double random) {
+        long key = game.getZobristKey();
+        int first = find(key);
+        if (first < 0) return -1;
+
+        long total = 0;
+        for (int index = first; index < size && key(index) == key; index++) total += weight(index);
+
+        long target = (long) (random * total);
+        for (int index = first; ; index++) {
+            target -= weight(index);
+            if (target < 0 || index + 1 >= size || key(index + 1) != key) return move(index);
+        }
+    }
+
+    public long key(int index) {
+        return buffer.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+    }
+
+    public int move(int index) {
+        return buffer.getInt(HEADER_BYTES + index * ENTRY_BYTES + 8);
+    }
+
+    public int weight(int index) {
+        return buffer.getInt(HEADER_BYTES + index * ENTRY_BYTES + 12);
+    }
+}
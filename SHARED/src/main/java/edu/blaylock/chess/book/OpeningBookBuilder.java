@@ -0,0 +1,192 @@
+package edu.blaylock.chess.book;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.impl.ChessMoveImpl;
+import edu.blaylock.chess.impl.ChessPositionImpl;
+import edu.blaylock.chess.rules.PackedMove;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds an opening book file from lines of moves, each line being a game from the starting position. Moves are
+ * written as start and end square, with the column letter first and an optional promotion letter: "e2e4", "e7e8q".
+ * Blank lines and lines starting with '#' are skipped.<br>
+ * Every position reached in the first plies of a line counts one play of the move made from it. See OpeningBook for
+ * the file layout.
+ */
+public class OpeningBookBuilder {
+
+    /**
+     * Number of moves of each line added when not given
+     */
+    public static final int DEFAULT_MAX_PLIES = 20;
+
+    private final int maxPlies;
+
+    /**
+     * Times each move was played, by position key then by move
+     */
+    private final Map<Long, Map<Integer, Integer>> counts = new HashMap<>();
+
+    public OpeningBookBuilder() {
+        this(DEFAULT_MAX_PLIES);
+    }
+
+    /**
+     * @param maxPlies number of moves of each line to add, counting both colors
+     */
+    public OpeningBookBuilder(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Play a line from the starting position and count its moves
+     *
+     * @param line moves separated by spaces
+     * @throws InvalidMoveException if a move can't be read or isn't legal, moves before it are still counted
+     */
+    public void addLine(String line) throws InvalidMoveException {
+        ChessGame game = new ChessGameImpl();
+        game.setBoard(ChessBoardFactory.defaultChessBoard().copy());
+
+        String[] moves = line.trim().split("\\s+");
+        for (int ply = 0; ply < moves.length && ply < maxPlies; ply++) {
+            if (moves[ply].isEmpty()) continue;
+
+            ChessMove move = parseMove(moves[ply]);
+            long key = game.getZobristKey();
+            game.makeMove(move);
+
+            counts.computeIfAbsent(key, (ignored) -> new HashMap<>())
+                    .merge(PackedMove.fromChessMove(move), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Add every line of a reader. Lines with an invalid move are reported and added up to that move.
+     *
+     * @param reader lines to add
+     * @return number of lines added
+     * @throws IOException if the reader fails
+     */
+    public int addLines(BufferedReader reader) throws IOException {
+        int added = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+
+            try {
+                addLine(line);
+            } catch (InvalidMoveException exception) {
+                System.err.println("Skipping rest of line " + (added + 1) + ": " + exception.getMessage());
+            }
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * @return number of entries the book will hold, one per move of each position
+     */
+    public int size() {
+        return counts.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Write the book, replacing the file if it exists
+     *
+     * @param path file to write
+     * @throws IOException if the file can't be written
+     */
+    public void write(Path path) throws IOException {
+        List<long[]> entries = new ArrayList<>(size());
+        counts.forEach((key, moves) -> moves.forEach((move, weight) -> entries.add(new long[]{key, move, weight})));
+        entries.sort((first, second) -> (first[0] != second[0])
+                ? Long.compare(first[0], second[0])
+                : Long.compare(second[2], first[2]));
+
+        ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.HEADER_BYTES + entries.size() * OpeningBook.ENTRY_BYTES);
+        buffer.putInt(OpeningBook.MAGIC);
+        buffer.putInt(entries.size());
+        for (long[] entry : entries) {
+            buffer.putLong(entry[0]);
+            buffer.putInt((int) entry[1]);
+            buffer.putInt((int) entry[2]);
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    /**
+     * @param move start and end square, column letter first, and an optional promotion letter: "e2e4", "e7e8q"
+     * @return move read
+     * @throws InvalidMoveException if the text isn't a move
+     */
+    public static ChessMove parseMove(String move) throws InvalidMoveException {
+        String text = move.toLowerCase();
+        if (text.length() < 4 || text.length() > 5 || !isSquare(text, 0) || !isSquare(text, 2)) {
+            throw new InvalidMoveException("Can't read move " + move);
+        }
+
+        ChessPiece.PieceType promotion = null;
+        if (text.length() == 5) {
+            promotion = switch (text.charAt(4)) {
+                case 'q' -> ChessPiece.PieceType.QUEEN;
+                case 'r' -> ChessPiece.PieceType.ROOK;
+                case 'b' -> ChessPiece.PieceType.BISHOP;
+                case 'n' -> ChessPiece.PieceType.KNIGHT;
+                default -> throw new InvalidMoveException("Can't read promotion of " + move);
+            };
+        }
+
+        return new ChessMoveImpl(ChessPositionImpl.of(text.charAt(1) - '0', text.charAt(0) - 'a' + 1),
+                ChessPositionImpl.of(text.charAt(3) - '0', text.charAt(2) - 'a' + 1), promotion);
+    }
+
+    private static boolean isSquare(String text, int index) {
+        char column = text.charAt(index);
+        char row = text.charAt(index + 1);
+        return column >= 'a' && column <= 'h' && row >= '1' && row <= '8';
+    }
+
+    /**
+     * Build a book from a file of lines.<br>
+     * Arguments: input file, output file, [plies per line, default 20]
+     *
+     * @param args see above
+     * @throws IOException if a file can't be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: OpeningBookBuilder <lines file> <book file> [plies per line]");
+            System.exit(1);
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(
+                (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_MAX_PLIES);
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(args[0]))) {
+            int lines = builder.addLines(reader);
+            builder.write(Path.of(args[1]));
+            System.out.println("Wrote " + builder.size() + " moves from " + lines + " lines to " + args[1]);
+        }
+    }
+}
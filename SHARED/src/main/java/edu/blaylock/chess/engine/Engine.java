@@ -0,0 +1,410 @@
+package edu.blaylock.chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import edu.blaylock.chess.MoveUndo;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessPositionImpl;
+import edu.blaylock.chess.impl.Zobrist;
+import edu.blaylock.chess.rules.LegalMoveGenerator;
+import edu.blaylock.chess.rules.MoveList;
+import edu.blaylock.chess.rules.PackedMove;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chooses moves for the computer player. Searches with iterative deepening, one depth at a time until the time budget
+ * runs out, using a principal variation search: the first move of each node gets a full window and the rest a null
+ * window, searched again only if they turn out better. Leaves are resolved by a quiescence search over captures and
+ * promotions so that the evaluation isn't taken in the middle of an exchange.<br>
+ * Moves are tried in this order: the best move of the previous iteration at the root, captures by most valuable
+ * victim then least valuable attacker, two killer moves per ply (quiet moves that caused a cutoff at the same ply) and
+ * then the rest by history (how often a move caused a cutoff anywhere).<br>
+ * Searched positions go into a TranspositionTable, which gives the move to try first when a position comes back and
+ * cuts the search short when it was already searched deep enough. Several engines may share a table and a stop flag
+ * to search the same game on several threads, see ParallelSearch.<br>
+ * The search runs on its own bitboard copy of the game's board, so the game is never changed. An engine keeps its
+ * buffers between searches and must not be used by more than one thread at a time.
+ */
+public class Engine {
+
+    public static final int MATE = 100_000;
+    public static final int MAX_PLY = 64;
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 100;
+
+    /**
+     * Table of 2^16 slots (1 MB) for engines that don't share one
+     */
+    private static final int DEFAULT_TABLE_BITS = 16;
+
+    private static final int INFINITY = 1_000_000;
+
+    /**
+     * Nodes between two looks at the clock, a power of two
+     */
+    private static final int TIME_CHECK_INTERVAL = 1024;
+
+    private static final int PV_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 24;
+    private static final int KILLER_SCORE = 1 << 23;
+
+    private static final ChessPiece.PieceType[] UNDER_PROMOTIONS = {ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP};
+
+    private final Evaluator evaluator;
+    private final long timeBudgetMillis;
+    private final int maxDepth;
+    private final TranspositionTable table;
+
+    /**
+     * Set to stop the search, shared between the engines of a parallel search
+     */
+    private final AtomicBoolean stop;
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] orderScores = new int[MAX_PLY][MoveList.DEFAULT_CAPACITY];
+    private final MoveUndo[] undos = new MoveUndo[MAX_PLY];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[] history = new int[64 * 64];
+    private final MoveList generated = new MoveList();
+
+    private ChessBoard board;
+    private long deadline;
+    private boolean stopped;
+    private long nodes;
+    private int completedDepth;
+    private int rootBest;
+    private int pvMove;
+
+    public Engine() {
+        this(new PieceSquareEvaluator(), DEFAULT_TIME_BUDGET_MILLIS, MAX_PLY / 2);
+    }
+
+    /**
+     * @param evaluator        scores positions
+     * @param timeBudgetMillis time allowed per move. The first iteration always completes
+     * @param maxDepth         deepest iteration to search, at most MAX_PLY / 2
+     */
+    public Engine(Evaluator evaluator, long timeBudgetMillis, int maxDepth) {
+        this(evaluator, timeBudgetMillis, maxDepth, new TranspositionTable(DEFAULT_TABLE_BITS), new AtomicBoolean());
+    }
+
+    /**
+     * @param evaluator        scores positions
+     * @param timeBudgetMillis time allowed per move
+     * @param maxDepth         deepest iteration to search, at most MAX_PLY / 2
+     * @param table            table of searched positions, may be shared with other engines
+     * @param stop             stops the search when set, may be shared with other engines
+     */
+    Engine(Evaluator evaluator, long timeBudgetMillis, int maxDepth, TranspositionTable table, AtomicBoolean stop) {
+        this.table = table;
+        this.stop = stop;
+        this.evaluator = evaluator;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.maxDepth = Math.max(1, Math.min(maxDepth, MAX_PLY / 2));
+
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+            undos[ply] = new MoveUndo();
+        }
+    }
+
+    /**
+     * Find the best move for the side to move
+     *
+     * @param game game to search, left unchanged
+     * @return best move with its score, or a null move if the game is over
+     */
+    public SearchResult search(ChessGame game) {
+        stop.set(false);
+        return search(game, 1);
+    }
+
+    /**
+     * Search without clearing the stop flag, for engines helping in a parallel search
+     *
+     * @param game       game to search, left unchanged
+     * @param firstDepth depth of the first iteration. Helpers start at different depths so they don't all search the
+     *                   same tree at the same time
+     * @return best move found. If stopped before finishing an iteration, a legal move with a depth of 0
+     */
+    SearchResult search(ChessGame game, int firstDepth) {
+        long start = System.nanoTime();
+        board = toSearchBoard(game.getBoard());
+        ChessGame.TeamColor color = game.getTeamTurn();
+
+        deadline = start + timeBudgetMillis * 1_000_000;
+        stopped = false;
+        nodes = 0;
+        completedDepth = 0;
+        pvMove = -1;
+        for (int[] plyKillers : killers) Arrays.fill(plyKillers, -1);
+        Arrays.fill(history, 0);
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, color);
+        generate(generator, moveLists[0], false);
+        if (moveLists[0].isEmpty()) {
+            int score = generator.isInCheck() ? -MATE : 0;
+            return new SearchResult(null, score, 0, 0, (System.nanoTime() - start) / 1_000_000);
+        }
+        boolean onlyMove = moveLists[0].size() == 1;
+
+        int bestScore = 0;
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth; depth++) {
+            rootBest = -1;
+            int score = search(depth, 0, -INFINITY, INFINITY, color);
+            if (stopped) break;
+
+            pvMove = rootBest;
+            bestScore = score;
+            completedDepth = depth;
+
+            long elapsed = System.nanoTime() - start;
+            // The next iteration would take several times as long as this one
+            if (onlyMove || Math.abs(score) >= MATE - MAX_PLY || elapsed > timeBudgetMillis * 1_000_000 / 2) break;
+        }
+
+        int move = (pvMove != -1) ? pvMove : moveLists[0].get(0);
+        return new SearchResult(PackedMove.toChessMove(move), bestScore, completedDepth, nodes,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int search(int depth, int ply, int alpha, int beta, ChessGame.TeamColor color) {
+        if (depth <= 0) return quiescence(ply, alpha, beta, color);
+        if (ply > 0 && isTimeUp()) return 0;
+        if (ply >= MAX_PLY - 1) return evaluator.evaluate(board, color);
+
+        long key = board.getZobristKey() ^ ((color == ChessGame.TeamColor.BLACK) ? Zobrist.SIDE_TO_MOVE : 0);
+        long entry = table.probe(key);
+        int hashMove = -1;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, color);
+        MoveList moves = moveLists[ply];
+        generate(generator, moves, false);
+        if (moves.isEmpty()) return generator.isInCheck() ? -MATE + ply : 0;
+        int childDepth = generator.isInCheck() ? depth : depth - 1;
+
+        scoreMoves(ply, moves, hashMove);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(ply, moves, i);
+
+            makeMove(move, ply);
+            int score;
+            if (i == 0) {
+                score = -search(childDepth, ply + 1, -beta, -alpha, color.next());
+            } else {
+                score = -search(childDepth, ply + 1, -alpha - 1, -alpha, color.next());
+                if (score > alpha && score < beta) score = -search(childDepth, ply + 1, -beta, -alpha, color.next());
+            }
+            board.unmakeMove(undos[ply]);
+            if (stopped) return 0;
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) rootBest = move;
+            }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) {
+                if (!isTactical(move)) {
+                    if (killers[ply][0] != move) {
+                        killers[ply][1] = killers[ply][0];
+                        killers[ply][0] = move;
+                    }
+                    history[PackedMove.from(move) * 64 + PackedMove.to(move)] += depth * depth;
+                }
+                break;
+            }
+        }
+
+        int bound = (best >= beta) ? TranspositionTable.LOWER
+                : (best > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private int quiescence(int ply, int alpha, int beta, ChessGame.TeamColor color) {
+        if (isTimeUp()) return 0;
+        if (ply >= MAX_PLY - 1) return evaluator.evaluate(board, color);
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, color);
+        boolean inCheck = generator.isInCheck();
+
+        // Out of check the side to move can stand pat instead of capturing, in check every evasion is searched
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = evaluator.evaluate(board, color);
+            if (best >= beta) return best;
+            if (best > alpha) alpha = best;
+        }
+
+        MoveList moves = moveLists[ply];
+        generate(generator, moves, !inCheck);
+        if (inCheck && moves.isEmpty()) return -MATE + ply;
+
+        scoreMoves(ply, moves, -1);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(ply, moves, i);
+
+            makeMove(move, ply);
+            int score = -quiescence(ply + 1, -beta, -alpha, color.next());
+            board.unmakeMove(undos[ply]);
+            if (stopped) return 0;
+
+            if (score > best) best = score;
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) break;
+        }
+        return best;
+    }
+
+    /**
+     * Fill a list with legal moves, a pawn reaching the last row once per promotion piece
+     *
+     * @param tacticalOnly keep only captures and queen promotions
+     */
+    private void generate(LegalMoveGenerator generator, MoveList moves, boolean tacticalOnly) {
+        generated.clear();
+        generator.addAllMoves(generated);
+
+        moves.clear();
+        for (int i = 0; i < generated.size(); i++) {
+            int move = generated.get(i);
+            if (tacticalOnly && !isTactical(move)) continue;
+
+            if (!PackedMove.hasFlag(move, PackedMove.PROMOTION)) {
+                moves.add(move);
+                continue;
+            }
+
+            int from = PackedMove.from(move);
+            int to = PackedMove.to(move);
+            int flags = PackedMove.flags(move);
+            moves.add(PackedMove.of(from, to, ChessPiece.PieceType.QUEEN, flags));
+            if (tacticalOnly) continue;
+            for (ChessPiece.PieceType promotion : UNDER_PROMOTIONS) {
+                moves.add(PackedMove.of(from, to, promotion, flags));
+            }
+        }
+    }
+
+    /**
+     * @param hashMove best move stored in the table for the position, -1 if none
+     */
+    private void scoreMoves(int ply, MoveList moves, int hashMove) {
+        if (orderScores[ply].length < moves.size()) orderScores[ply] = new int[moves.size()];
+        int[] scores = orderScores[ply];
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if ((ply == 0 && move == pvMove) || move == hashMove) {
+                scores[i] = PV_SCORE;
+            } else if (isTactical(move)) {
+                scores[i] = CAPTURE_SCORE + 16 * victimValue(move) - attackerValue(move) / 10;
+                ChessPiece.PieceType promotion = PackedMove.promotion(move);
+                if (promotion != null) scores[i] += PieceSquareEvaluator.value(promotion);
+            } else if (move == killers[ply][0]) {
+                scores[i] = KILLER_SCORE;
+            } else if (move == killers[ply][1]) {
+                scores[i] = KILLER_SCORE - 1;
+            } else {
+                scores[i] = Math.min(history[PackedMove.from(move) * 64 + PackedMove.to(move)], KILLER_SCORE - 2);
+            }
+        }
+    }
+
+    /**
+     * Move the best scored of the remaining moves to an index, selection sort done one step at a time since most
+     * nodes are cut off after a few moves
+     */
+    private int pickNext(int ply, MoveList moves, int index) {
+        int[] scores = orderScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+
+        if (best != index) {
+            moves.swap(index, best);
+            int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+        return moves.get(index);
+    }
+
+    private int victimValue(int move) {
+        if (PackedMove.hasFlag(move, PackedMove.EN_PASSANT)) {
+            return PieceSquareEvaluator.value(ChessPiece.PieceType.PAWN);
+        }
+        ChessPiece victim = board.getPiece(ChessPositionImpl.ofSquare(PackedMove.to(move)));
+        return (victim == null) ? 0 : PieceSquareEvaluator.value(victim.getPieceType());
+    }
+
+    private int attackerValue(int move) {
+        return PieceSquareEvaluator.value(board.getPiece(ChessPositionImpl.ofSquare(PackedMove.from(move)))
+                .getPieceType());
+    }
+
+    private void makeMove(int move, int ply) {
+        board.makeMove(PackedMove.toChessMove(move), undos[ply]);
+    }
+
+    private boolean isTimeUp() {
+        if ((++nodes & (TIME_CHECK_INTERVAL - 1)) == 0) {
+            if (stop.get() || (completedDepth > 0 && System.nanoTime() > deadline)) stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Mate scores are stored counted from the position rather than from the root, as the position may come back at
+     * another ply
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score + ply;
+        if (score <= -MATE + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score - ply;
+        if (score <= -MATE + MAX_PLY) return score + ply;
+        return score;
+    }
+
+    private static boolean isTactical(int move) {
+        return PackedMove.hasFlag(move, PackedMove.CAPTURE | PackedMove.PROMOTION);
+    }
+
+    /**
+     * Copy the pieces of a board onto a new bitboard board, which generates moves the fastest
+     */
+    static ChessBoard toSearchBoard(ChessBoard source) {
+        ChessBoard copy = ChessBoardFactory.Implementation.BITBOARD.create();
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPosition position : source.pieceLocationIterator(color)) {
+                copy.addPiece(position, source.getPiece(position).copy());
+            }
+        }
+        copy.updateRound(source.getRound());
+        return copy;
+    }
+}
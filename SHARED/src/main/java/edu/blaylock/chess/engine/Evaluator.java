@@ -0,0 +1,17 @@
+package edu.blaylock.chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+/**
+ * Static evaluation used by the Engine at the leaves of its search
+ */
+public interface Evaluator {
+
+    /**
+     * @param board board to score
+     * @param color color whose point of view the score is from
+     * @return score in centipawns, positive when the color is better
+     */
+    int evaluate(ChessBoard board, ChessGame.TeamColor color);
+}
@@ -0,0 +1,14 @@
+package edu.blaylock.chess.engine;
+
+import chess.ChessMove;
+
+/**
+ * Shortest forced mate found by a MateSolver
+ *
+ * @param key    first move of the mate
+ * @param moves  moves of the attacker to mate, counting the key move
+ * @param unique whether the key move is the only one that mates in as few moves
+ * @param nodes  number of positions visited
+ */
+public record MateSolution(ChessMove key, int moves, boolean unique, long nodes) {
+}
@@ -0,0 +1,154 @@
+package edu.blaylock.chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import edu.blaylock.chess.MoveUndo;
+import edu.blaylock.chess.rules.LegalMoveGenerator;
+import edu.blaylock.chess.rules.MoveList;
+import edu.blaylock.chess.rules.PackedMove;
+
+/**
+ * Finds forced mates, for puzzles. A depth-limited alpha-beta search whose only scores are mate and not mate, so a
+ * node is cut off as soon as the attacker finds a mating move or the defender a move escaping it. The attacker only
+ * tries moves that give check, which keeps the tree small enough to search every defence, and the defender tries
+ * every legal move. Mates are looked for one move deeper at a time, so the first found is the shortest, and the other
+ * first moves of the attacker are searched as deep to tell whether the key move is the only one.<br>
+ * Each position gets a budget of nodes, so a batch of positions takes bounded time. Like Engine, the search runs on a
+ * bitboard copy of the game's board, so the game is never changed. A solver keeps its buffers between positions and
+ * must not be used by more than one thread at a time: solve positions in parallel with one solver per thread.
+ */
+public class MateSolver {
+
+    /**
+     * Longest mate searched for, in moves of the attacker
+     */
+    public static final int MAX_MOVES = 5;
+    public static final long DEFAULT_NODE_LIMIT = 500_000;
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP};
+
+    private final long nodeLimit;
+
+    private final MoveList[] moveLists = new MoveList[2 * MAX_MOVES];
+    private final MoveUndo[] undos = new MoveUndo[2 * MAX_MOVES];
+    private final MoveList generated = new MoveList();
+
+    private ChessBoard board;
+    private long nodes;
+    private boolean exhausted;
+
+    public MateSolver() {
+        this(DEFAULT_NODE_LIMIT);
+    }
+
+    /**
+     * @param nodeLimit positions visited at most per position solved, after which it is given up
+     */
+    public MateSolver(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+        for (int ply = 0; ply < moveLists.length; ply++) {
+            moveLists[ply] = new MoveList();
+            undos[ply] = new MoveUndo();
+        }
+    }
+
+    /**
+     * Find the shortest forced mate for the side to move
+     *
+     * @param game     game to solve, left unchanged
+     * @param maxMoves longest mate to look for, in moves of the side to move, at most MAX_MOVES
+     * @return shortest mate, or null if there is none within maxMoves or the node limit ran out first
+     */
+    public MateSolution solve(ChessGame game, int maxMoves) {
+        board = Engine.toSearchBoard(game.getBoard());
+        ChessGame.TeamColor attacker = game.getTeamTurn();
+        nodes = 0;
+        exhausted = false;
+
+        MoveList keys = moveLists[0];
+        generate(new LegalMoveGenerator(board, attacker), keys);
+        for (int moves = 1; moves <= Math.min(maxMoves, MAX_MOVES); moves++) {
+            int key = -1;
+            int found = 0;
+            for (int i = 0; i < keys.size() && found < 2; i++) {
+                if (forcesMate(keys.get(i), moves, 0, attacker)) {
+                    if (found++ == 0) key = keys.get(i);
+                }
+                if (exhausted) return null;
+            }
+            if (found > 0) return new MateSolution(PackedMove.toChessMove(key), moves, found == 1, nodes);
+        }
+        return null;
+    }
+
+    /**
+     * @param move      move of the attacker
+     * @param movesLeft moves of the attacker to mate in, counting this one
+     * @return whether the move gives check and mates whatever the defender does
+     */
+    private boolean forcesMate(int move, int movesLeft, int ply, ChessGame.TeamColor attacker) {
+        if (++nodes > nodeLimit) exhausted = true;
+        if (exhausted) return false;
+
+        board.makeMove(PackedMove.toChessMove(move), undos[ply]);
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, attacker.next());
+        boolean mates = false;
+        if (generator.isInCheck()) {
+            mates = (movesLeft == 1) ? !generator.hasLegalMove()
+                    : defenderLoses(generator, movesLeft - 1, ply + 1, attacker);
+        }
+        board.unmakeMove(undos[ply]);
+        return mates;
+    }
+
+    /**
+     * @param generator moves of the defender, in check
+     * @param movesLeft moves of the attacker left to mate
+     * @return whether every move of the defender is met by a mate in the moves left
+     */
+    private boolean defenderLoses(LegalMoveGenerator generator, int movesLeft, int ply, ChessGame.TeamColor attacker) {
+        MoveList replies = moveLists[ply];
+        generate(generator, replies);
+
+        // No replies is a mate already, sooner than asked
+        for (int i = 0; i < replies.size(); i++) {
+            board.makeMove(PackedMove.toChessMove(replies.get(i)), undos[ply]);
+            boolean mated = attackerWins(movesLeft, ply + 1, attacker);
+            board.unmakeMove(undos[ply]);
+            if (!mated) return false;
+        }
+        return true;
+    }
+
+    private boolean attackerWins(int movesLeft, int ply, ChessGame.TeamColor attacker) {
+        MoveList moves = moveLists[ply];
+        generate(new LegalMoveGenerator(board, attacker), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (forcesMate(moves.get(i), movesLeft, ply, attacker)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Fill a list with legal moves, a pawn reaching the last row once per promotion piece
+     */
+    private void generate(LegalMoveGenerator generator, MoveList moves) {
+        generated.clear();
+        generator.addAllMoves(generated);
+
+        moves.clear();
+        for (int i = 0; i < generated.size(); i++) {
+            int move = generated.get(i);
+            if (!PackedMove.hasFlag(move, PackedMove.PROMOTION)) {
+                moves.add(move);
+                continue;
+            }
+            for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                moves.add(PackedMove.of(PackedMove.from(move), PackedMove.to(move), promotion,
+                        PackedMove.flags(move)));
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package edu.blaylock.chess.engine;
+
+import chess.ChessGame;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.perft.PerftPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Searches one game on several threads at once (lazy SMP). Every thread runs its own Engine on the same root and they
+ * only share a TranspositionTable: what one thread finds is picked up by the others as they reach the same positions,
+ * and threads starting at different depths spread out over the tree. The first engine decides the move and, when it
+ * is done, sets the shared stop flag that the helpers check as they search.<br>
+ * Helper threads are kept between searches. Close the search to stop them.
+ */
+public class ParallelSearch implements AutoCloseable {
+
+    private final Engine[] engines;
+    private final AtomicBoolean stop = new AtomicBoolean();
+    private final ExecutorService helpers;
+
+    /**
+     * @param threads          number of threads searching, including the caller's
+     * @param timeBudgetMillis time allowed per move
+     * @param tableBits        log2 of the number of slots of the shared table, each taking 16 bytes
+     */
+    public ParallelSearch(int threads, long timeBudgetMillis, int tableBits) {
+        TranspositionTable table = new TranspositionTable(tableBits);
+        engines = new Engine[Math.max(1, threads)];
+        for (int i = 0; i < engines.length; i++) {
+            engines[i] = new Engine(new PieceSquareEvaluator(), timeBudgetMillis, Engine.MAX_PLY, table, stop);
+        }
+
+        helpers = (engines.length > 1) ? Executors.newFixedThreadPool(engines.length - 1, (runnable) -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public int threads() {
+        return engines.length;
+    }
+
+    /**
+     * Find the best move for the side to move, using every thread until the time budget runs out
+     *
+     * @param game game to search, left unchanged
+     * @return best move of the first engine, with the nodes of every thread added up
+     */
+    public SearchResult search(ChessGame game) {
+        stop.set(false);
+
+        List<Future<SearchResult>> helping = new ArrayList<>();
+        for (int i = 1; i < engines.length; i++) {
+            Engine engine = engines[i];
+            int firstDepth = 1 + i % 2;
+            helping.add(helpers.submit(() -> engine.search(game, firstDepth)));
+        }
+
+        SearchResult result = engines[0].search(game, 1);
+        stop.set(true);
+
+        long nodes = result.nodes();
+        for (Future<SearchResult> helper : helping) {
+            try {
+                nodes += helper.get().nodes();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException exception) {
+                throw new IllegalStateException(exception.getCause());
+            }
+        }
+        return new SearchResult(result.move(), result.score(), result.depth(), nodes, result.millis());
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) helpers.shutdownNow();
+    }
+
+    /**
+     * Measures how the search scales: searches a few positions with 1, 2, 4... threads up to a maximum and prints the
+     * nodes per second of each along with the speedup over one thread.<br>
+     * Arguments: [max threads, default the number of processors] [millis per position, default 1000]
+     *
+     * @param args see above
+     */
+    public static void main(String[] args) {
+        int maxThreads = (args.length > 0) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long millis = (args.length > 1) ? Long.parseLong(args[1]) : 1000;
+        PerftPosition[] positions = {PerftPosition.START, PerftPosition.KIWIPETE, PerftPosition.POSITION_4,
+                PerftPosition.POSITION_6};
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) threadCounts.add(threads);
+        threadCounts.add(maxThreads);
+
+        System.out.printf("%-8s %12s %12s %8s %10s%n", "Threads", "Nodes", "Nodes/s", "Speedup", "Avg depth");
+
+        double baseline = 0;
+        for (int threads : threadCounts) {
+            try (ParallelSearch search = new ParallelSearch(threads, millis, 20)) {
+                // Warm up so the first count isn't taken before the JIT compiles the search
+                search.search(PerftPosition.START.newGame(ChessBoardFactory.Implementation.BITBOARD));
+
+                long nodes = 0;
+                long elapsed = 0;
+                int depths = 0;
+                for (PerftPosition position : positions) {
+                    SearchResult result = search.search(position.newGame(ChessBoardFactory.Implementation.BITBOARD));
+                    nodes += result.nodes();
+                    elapsed += Math.max(result.millis(), 1);
+                    depths += result.depth();
+                }
+
+                double nodesPerSecond = nodes * 1000.0 / elapsed;
+                if (baseline == 0) baseline = nodesPerSecond;
+                System.out.printf("%-8d %12d %12.0f %7.2fx %10.1f%n", threads, nodes, nodesPerSecond,
+                        nodesPerSecond / baseline, (double) depths / positions.length);
+            }
+        }
+    }
+}
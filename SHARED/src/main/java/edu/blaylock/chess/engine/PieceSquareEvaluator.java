@@ -0,0 +1,27 @@
+package edu.blaylock.chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import edu.blaylock.chess.impl.PieceSquareTables;
+
+/**
+ * Material plus a bonus for each piece depending on its square, tapered from middle game to endgame values as pieces
+ * come off. Boards keep this score up to date as they change (see ChessBoard.getScore), so evaluating is free.
+ */
+public class PieceSquareEvaluator implements Evaluator {
+
+    /**
+     * @param type piece type
+     * @return centipawn value of the piece, 0 for the king
+     */
+    public static int value(ChessPiece.PieceType type) {
+        return PieceSquareTables.value(type);
+    }
+
+    @Override
+    public int evaluate(ChessBoard board, ChessGame.TeamColor color) {
+        int score = board.getScore();
+        return (color == ChessGame.TeamColor.WHITE) ? score : -score;
+    }
+}
@@ -0,0 +1,23 @@
+package edu.blaylock.chess.engine;
+
+import chess.ChessMove;
+
+/**
+ * Outcome of an Engine search
+ *
+ * @param move   best move found, null if the side to move has no legal move
+ * @param score  score of the move in centipawns for the side to move. Mates are scored Engine.MATE minus the number of
+ *               moves (plies) to reach them
+ * @param depth  deepest iteration that was searched completely
+ * @param nodes  number of positions visited
+ * @param millis time taken
+ */
+public record SearchResult(ChessMove move, int score, int depth, long nodes, long millis) {
+
+    /**
+     * @return whether the score is a forced mate, for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Engine.MATE - Engine.MAX_PLY;
+    }
+}
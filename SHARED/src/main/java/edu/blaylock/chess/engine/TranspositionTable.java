@@ -0,0 +1,93 @@
+package edu.blaylock.chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size table of searched positions shared by every thread of a search without locks. Each slot is two longs:
+ * the position key xor the data, then the data. A reader only accepts a slot when the two give back its key, so a
+ * slot torn by two threads writing at once reads as a miss instead of as the wrong position.<br>
+ * Data layout, lowest bit first: best move as a PackedMove (20 bits), depth (8 bits), bound (4 bits) and score (32
+ * bits). A bound is never 0, so data of 0 means nothing was found.
+ */
+public class TranspositionTable {
+
+    /**
+     * The score is the exact value of the position
+     */
+    public static final int EXACT = 1;
+
+    /**
+     * The search failed high, the position is worth at least the score
+     */
+    public static final int LOWER = 2;
+
+    /**
+     * The search failed low, the position is worth at most the score
+     */
+    public static final int UPPER = 3;
+
+    private static final int MOVE_MASK = 0xFFFFF;
+    private static final int DEPTH_SHIFT = 20;
+    private static final int BOUND_SHIFT = 28;
+
+    private final long[] slots;
+    private final int mask;
+
+    /**
+     * @param sizeBits log2 of the number of slots, each taking 16 bytes
+     */
+    public TranspositionTable(int sizeBits) {
+        slots = new long[2 << sizeBits];
+        mask = (1 << sizeBits) - 1;
+    }
+
+    /**
+     * @param key position key
+     * @return data stored for the position, or 0 if there is none
+     */
+    public long probe(long key) {
+        int index = ((int) key & mask) * 2;
+        long data = slots[index + 1];
+        return ((slots[index] ^ data) == key) ? data : 0;
+    }
+
+    /**
+     * Store a search result, unless the slot holds the same position searched deeper
+     *
+     * @param key   position key
+     * @param move  best move as a PackedMove, 0 if none
+     * @param score score, with mates counted from this position
+     * @param depth depth searched
+     * @param bound EXACT, LOWER or UPPER
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = ((int) key & mask) * 2;
+        long old = slots[index + 1];
+        if ((slots[index] ^ old) == key && depth(old) > depth) return;
+
+        long data = ((long) score << 32) | ((long) bound << BOUND_SHIFT) | ((long) Math.min(depth, 0xFF) << DEPTH_SHIFT)
+                | (move & MOVE_MASK);
+        slots[index] = key ^ data;
+        slots[index + 1] = data;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0);
+    }
+
+    public static int move(long data) {
+        return (int) data & MOVE_MASK;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0xF;
+    }
+
+    public static int score(long data) {
+        return (int) (data >> 32);
+    }
+}
@@ -0,0 +1,403 @@
+package edu.blaylock.chess.impl;
+
+import chess.*;
+import edu.blaylock.chess.MoveUndo;
+import edu.blaylock.chess.rules.Attacks;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * ChessBoard backed by twelve bitboards (one per color and piece type) as well as an occupancy mask for each color.
+ * Square index is (row - 1) * 8 + (column - 1), so bit 0 is the bottom left corner and bit 63 the top right.<br>
+ * The piece objects themselves are kept in a 64 entry array, because the rules rely on the moves taken and round of
+ * last move stored within each piece (castling, en passant, double pawn moves).
+ */
+public class BitboardChessBoardImpl implements ChessBoard {
+
+    /**
+     * Indexed by color ordinal * 6 + piece type ordinal
+     */
+    private final long[] bitboards = new long[12];
+
+    /**
+     * Indexed by color ordinal
+     */
+    private final long[] occupancy = new long[2];
+
+    private final ChessPiece[] squares = new ChessPiece[64];
+
+    private int round = 0;
+
+    private final Zobrist.SquareLookup lookup = (row, column) -> squares[row * 8 + column];
+
+    /**
+     * Parts of the Zobrist key, see getZobristKey
+     */
+    private long pieceKey = 0;
+    private long castlingKey = 0;
+    private long enPassantKey = 0;
+
+    /**
+     * Parts of the score, see getScore
+     */
+    private int midgameScore = 0;
+    private int endgameScore = 0;
+    private int phase = 0;
+
+    @Override
+    public void addPiece(ChessPosition position, ChessPiece piece) {
+        int square = squareOf(position);
+        removeSquare(square);
+
+        if (piece != null) {
+            long bit = 1L << square;
+            squares[square] = piece;
+            bitboards[boardIndex(piece)] |= bit;
+            occupancy[piece.getTeamColor().ordinal()] |= bit;
+            pieceKey ^= Zobrist.pieceKey(piece, square);
+            addScore(piece, square, 1);
+        }
+
+        updateKeys(square);
+        if (PieceSquareTables.VERIFY) PieceSquareTables.verify(this);
+    }
+
+    @Override
+    public void deletePieceAt(ChessPosition position) {
+        int square = squareOf(position);
+        removeSquare(square);
+        updateKeys(square);
+        if (PieceSquareTables.VERIFY) PieceSquareTables.verify(this);
+    }
+
+    @Override
+    public ChessPiece getPiece(ChessPosition position) {
+        return squares[squareOf(position)];
+    }
+
+    @Override
+    public void resetBoard() {
+        clear();
+
+        ChessBoard defaultBoard = ChessBoardFactory.defaultChessBoard();
+
+        for (ChessPosition position : defaultBoard.pieceLocationIterator(ChessGame.TeamColor.WHITE)) {
+            addPiece(position, defaultBoard.getPiece(position).copy());
+        }
+
+        for (ChessPosition position : defaultBoard.pieceLocationIterator(ChessGame.TeamColor.BLACK)) {
+            addPiece(position, defaultBoard.getPiece(position).copy());
+        }
+    }
+
+    @Override
+    public void reloadBoard() {
+        Arrays.fill(bitboards, 0L);
+        Arrays.fill(occupancy, 0L);
+        pieceKey = 0;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = squares[square];
+            if (piece == null) continue;
+
+            long bit = 1L << square;
+            bitboards[boardIndex(piece)] |= bit;
+            occupancy[piece.getTeamColor().ordinal()] |= bit;
+            pieceKey ^= Zobrist.pieceKey(piece, square);
+            addScore(piece, square, 1);
+        }
+
+        castlingKey = Zobrist.castlingKey(lookup);
+        enPassantKey = Zobrist.enPassantKey(lookup, round);
+    }
+
+    /**
+     * Same semantics as ChessBoardImpl. A pawn reaching the last row without a promotion piece is promoted to a queen,
+     * as a piece without a type can't be stored in a bitboard.
+     */
+    @Override
+    public ChessPiece movePiece(ChessMove move) {
+        int from = squareOf(move.getStartPosition());
+        int to = squareOf(move.getEndPosition());
+
+        ChessPiece start = squares[from];
+        ChessPiece end = squares[to];
+
+        if (start == null) {
+            return null;
+        }
+
+        removeSquare(from);
+        removeSquare(to);
+
+        start.incrementMovesTaken();
+
+        if (start.getPieceType() == ChessPiece.PieceType.PAWN) {
+            int row = move.getEndPosition().getRow();
+            if (start.getTeamColor() == ChessGame.TeamColor.WHITE && row == 8
+                    || start.getTeamColor() == ChessGame.TeamColor.BLACK && row == 1) {
+                ChessPiece.PieceType promotion = move.getPromotionPiece();
+                if (promotion == null) promotion = ChessPiece.PieceType.QUEEN;
+                start = new ChessPieceImpl(promotion, start.getTeamColor(), start.numMovesTaken());
+            }
+        }
+        start.updateTimeOfLastMove(round);
+        addPiece(move.getEndPosition(), start);
+        updateKeys(from);
+        return end;
+    }
+
+    @Override
+    public void makeMove(ChessMove move, MoveUndo undo) {
+        BoardMoves.makeMove(this, move, undo);
+    }
+
+    @Override
+    public void unmakeMove(MoveUndo undo) {
+        BoardMoves.unmakeMove(this, undo);
+    }
+
+    @Override
+    public Iterable<ChessPosition> pieceLocationIterator(ChessGame.TeamColor color) {
+        final long mask = occupancy[color.ordinal()];
+        return () -> new SquareIterator(mask);
+    }
+
+    @Override
+    public ChessPosition getKingLocation(ChessGame.TeamColor color) {
+        long kings = bitboards[color.ordinal() * 6 + ChessPiece.PieceType.KING.ordinal()];
+        if (kings == 0) return null;
+        return positionOf(Long.numberOfTrailingZeros(kings));
+    }
+
+    @Override
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return getAttackers(squareOf(position), byColor) != 0;
+    }
+
+    /**
+     * @param square  square index
+     * @param byColor color of the attacking pieces
+     * @return bitboard of every piece of byColor attacking the square
+     */
+    public long getAttackers(int square, ChessGame.TeamColor byColor) {
+        return Attacks.attackersTo(square, getOccupancy(), bitboards, byColor);
+    }
+
+    /**
+     * @param byColor color of the attacking pieces
+     * @return bitboard of every square attacked by a piece of byColor
+     */
+    public long getAttackMap(ChessGame.TeamColor byColor) {
+        return Attacks.attackMap(bitboards, getOccupancy(), byColor);
+    }
+
+    @Override
+    public ChessBoard copy() {
+        BitboardChessBoardImpl copy = new BitboardChessBoardImpl();
+        System.arraycopy(bitboards, 0, copy.bitboards, 0, bitboards.length);
+        System.arraycopy(occupancy, 0, copy.occupancy, 0, occupancy.length);
+
+        for (int square = 0; square < 64; square++) {
+            if (squares[square] != null) copy.squares[square] = squares[square].copy();
+        }
+
+        copy.round = round;
+        copy.pieceKey = pieceKey;
+        copy.castlingKey = castlingKey;
+        copy.enPassantKey = enPassantKey;
+        copy.midgameScore = midgameScore;
+        copy.endgameScore = endgameScore;
+        copy.phase = phase;
+        return copy;
+    }
+
+    /**
+     * Bitboard of a single color and piece type
+     *
+     * @param color color of pieces
+     * @param type  type of pieces
+     * @return bitboard with a bit set for every square holding such a piece
+     */
+    public long getBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return bitboards[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * @param color color of pieces
+     * @return bitboard with a bit set for every square holding a piece of the color
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        return occupancy[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard with a bit set for every occupied square
+     */
+    public long getOccupancy() {
+        return occupancy[0] | occupancy[1];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof BitboardChessBoardImpl board) {
+            return board.round == round && Arrays.equals(bitboards, board.bitboards)
+                    && Arrays.equals(squares, board.squares);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(pieceKey) + round;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder build = new StringBuilder();
+        for (int i = 7; i >= 0; i--) {
+            build.append(i + 1).append(" |");
+            for (int j = 0; j < 8; j++) {
+                ChessPiece piece = squares[i * 8 + j];
+
+                if (piece == null) build.append(' ');
+                else build.append(piece.toString());
+                build.append("|");
+            }
+            build.append('\n');
+        }
+        build.append("   a b c d e f g h\n");
+
+        return build.toString();
+    }
+
+    @Override
+    public void updateRound(int round) {
+        this.round = round;
+        enPassantKey = Zobrist.enPassantKey(lookup, round);
+    }
+
+    @Override
+    public int getRound() {
+        return round;
+    }
+
+    @Override
+    public long getZobristKey() {
+        return pieceKey ^ castlingKey ^ enPassantKey;
+    }
+
+    @Override
+    public int getScore() {
+        return PieceSquareTables.taper(midgameScore, endgameScore, phase);
+    }
+
+    /**
+     * Same layout as ChessBoardImpl, see ChessBoardFactory buildFromBytes
+     *
+     * @return Base64 byte array
+     */
+    @Override
+    public String serialize() {
+        return Base64.getEncoder().encodeToString(ChessBoardImpl.serializeBytes(this));
+    }
+
+    /**
+     * Remove whatever piece is on a square from the mailbox and all bitboards
+     *
+     * @param square square index
+     */
+    private void removeSquare(int square) {
+        ChessPiece piece = squares[square];
+        if (piece == null) return;
+
+        long mask = ~(1L << square);
+        bitboards[boardIndex(piece)] &= mask;
+        occupancy[piece.getTeamColor().ordinal()] &= mask;
+        squares[square] = null;
+        pieceKey ^= Zobrist.pieceKey(piece, square);
+        addScore(piece, square, -1);
+    }
+
+    /**
+     * Add or take away the score of a piece on a square
+     *
+     * @param sign 1 when the piece is placed, -1 when it is removed
+     */
+    private void addScore(ChessPiece piece, int square, int sign) {
+        midgameScore += sign * PieceSquareTables.midgame(piece, square);
+        endgameScore += sign * PieceSquareTables.endgame(piece, square);
+        phase += sign * PieceSquareTables.phase(piece);
+    }
+
+    /**
+     * Recompute the castling and en passant keys if the square they depend on changed
+     */
+    private void updateKeys(int square) {
+        if (Zobrist.affectsCastling(square / 8, square % 8)) castlingKey = Zobrist.castlingKey(lookup);
+        if (Zobrist.affectsEnPassant(square / 8)) enPassantKey = Zobrist.enPassantKey(lookup, round);
+    }
+
+    private void clear() {
+        Arrays.fill(bitboards, 0L);
+        Arrays.fill(occupancy, 0L);
+        Arrays.fill(squares, null);
+        pieceKey = 0;
+        castlingKey = 0;
+        enPassantKey = 0;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+    }
+
+    private static int boardIndex(ChessPiece piece) {
+        return piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal();
+    }
+
+    /**
+     * @param position position on the board
+     * @return square index used by the bitboards
+     */
+    public static int squareOf(ChessPosition position) {
+        return (position.getRow() - 1) * 8 + position.getColumn() - 1;
+    }
+
+    /**
+     * @param square square index used by the bitboards
+     * @return position on the board
+     */
+    public static ChessPosition positionOf(int square) {
+        return ChessPositionImpl.ofSquare(square);
+    }
+
+    /**
+     * Iterates over the set bits of a mask captured when the iterator was created, so the board may be changed while
+     * iterating.
+     */
+    private static class SquareIterator implements Iterator<ChessPosition> {
+        private long remaining;
+
+        SquareIterator(long mask) {
+            remaining = mask;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining != 0;
+        }
+
+        @Override
+        public ChessPosition next() {
+            if (remaining == 0) throw new NoSuchElementException();
+            int square = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            return positionOf(square);
+        }
+    }
+}
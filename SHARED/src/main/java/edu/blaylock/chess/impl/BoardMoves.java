@@ -0,0 +1,86 @@
+package edu.blaylock.chess.impl;
+
+import chess.ChessBoard;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import edu.blaylock.chess.MoveUndo;
+
+/**
+ * In place make/unmake shared by the ChessBoard implementations. Only relies on the basic board operations, so special
+ * moves are recognized by their shape: a king moving two columns castles and a pawn moving diagonally onto an empty
+ * square takes en passant.
+ */
+final class BoardMoves {
+
+    private BoardMoves() {
+    }
+
+    static void makeMove(ChessBoard board, ChessMove move, MoveUndo undo) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        ChessPiece piece = board.getPiece(start);
+        int round = board.getRound();
+
+        undo.recordMove(move, piece, round);
+
+        ChessPiece captured = board.getPiece(end);
+        if (captured != null) {
+            undo.recordCapture(captured, end);
+        } else if (piece.getPieceType() == ChessPiece.PieceType.PAWN && start.getColumn() != end.getColumn()) {
+            ChessPosition target = ChessPositionImpl.of(start.getRow(), end.getColumn());
+            undo.recordCapture(board.getPiece(target), target);
+            board.deletePieceAt(target);
+        }
+
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN && (end.getRow() == 8 || end.getRow() == 1)) {
+            // Promoted here rather than by movePiece, so a move without a promotion piece makes a single queen
+            ChessPiece.PieceType promotion = move.getPromotionPiece();
+            board.deletePieceAt(start);
+            board.deletePieceAt(end);
+            piece.incrementMovesTaken();
+            ChessPiece promoted = new ChessPieceImpl((promotion != null) ? promotion : ChessPiece.PieceType.QUEEN,
+                    piece.getTeamColor(), piece.numMovesTaken());
+            promoted.updateTimeOfLastMove(round);
+            board.addPiece(end, promoted);
+        } else {
+            board.movePiece(move);
+        }
+
+        if (piece.getPieceType() == ChessPiece.PieceType.KING && Math.abs(end.getColumn() - start.getColumn()) == 2) {
+            ChessPosition rookStart = ChessPositionImpl.of(end.getRow(), (end.getColumn() == 7) ? 8 : 1);
+            ChessPosition rookEnd = ChessPositionImpl.of(end.getRow(), (end.getColumn() == 7) ? 6 : 4);
+            ChessPiece rook = board.getPiece(rookStart);
+            undo.recordCastle(rook, rookStart, rookEnd);
+            board.deletePieceAt(rookStart);
+            rook.incrementMovesTaken();
+            rook.updateTimeOfLastMove(round);
+            board.addPiece(rookEnd, rook);
+        }
+
+        board.updateRound(round + 1);
+    }
+
+    static void unmakeMove(ChessBoard board, MoveUndo undo) {
+        ChessMove move = undo.move();
+        board.updateRound(undo.round());
+
+        if (undo.castled()) {
+            ChessPiece rook = board.getPiece(undo.rookEnd());
+            board.deletePieceAt(undo.rookEnd());
+            rook.setMovesTaken(undo.rookMovesTaken());
+            rook.updateTimeOfLastMove(undo.rookLastRound());
+            board.addPiece(undo.rookStart(), rook);
+        }
+
+        ChessPiece moved = undo.moved();
+        board.deletePieceAt(move.getEndPosition());
+        moved.setMovesTaken(undo.movedMovesTaken());
+        moved.updateTimeOfLastMove(undo.movedLastRound());
+        board.addPiece(move.getStartPosition(), moved);
+
+        if (undo.captured() != null) {
+            board.addPiece(undo.capturedPosition(), undo.captured());
+        }
+    }
+}
@@ -7,17 +7,69 @@ import edu.blaylock.misc.ResourceManager;
 
 import java.nio.ByteBuffer;
 import java.util.Base64;
+import java.util.function.Supplier;
 
 public class ChessBoardFactory {
-    protected static final ChessBoard DEFAULT_CHESS_BOARD = buildFromString(ResourceManager.DEFAULT_BOARD_CONFIG);
+
+    /**
+     * Available ChessBoard implementations. The default can be chosen with the system property "chess.board"
+     * (object or bitboard)
+     */
+    public enum Implementation {
+        OBJECT(ChessBoardImpl::new),
+        BITBOARD(BitboardChessBoardImpl::new);
+
+        private final Supplier<ChessBoard> constructor;
+
+        Implementation(Supplier<ChessBoard> constructor) {
+            this.constructor = constructor;
+        }
+
+        public ChessBoard create() {
+            return constructor.get();
+        }
+    }
+
+    private static Implementation implementation =
+            Implementation.valueOf(System.getProperty("chess.board", "object").toUpperCase());
+
+    protected static ChessBoard DEFAULT_CHESS_BOARD = buildFromString(ResourceManager.DEFAULT_BOARD_CONFIG);
 
     public static ChessBoard defaultChessBoard() {
 
         return DEFAULT_CHESS_BOARD;
     }
 
+    /**
+     * Choose which implementation is built by this factory from now on. The default board is rebuilt as well.
+     *
+     * @param newImplementation implementation to use
+     */
+    public static void setImplementation(Implementation newImplementation) {
+        implementation = newImplementation;
+        DEFAULT_CHESS_BOARD = buildFromString(ResourceManager.DEFAULT_BOARD_CONFIG);
+    }
+
+    public static Implementation getImplementation() {
+        return implementation;
+    }
+
+    /**
+     * @return empty board of the selected implementation
+     */
+    public static ChessBoard emptyChessBoard() {
+        return implementation.create();
+    }
+
     public static ChessBoard buildFromString(String string) {
-        ChessBoard result = new ChessBoardImpl();
+        return buildFromString(string, implementation);
+    }
+
+    /**
+     * Same as buildFromString, building a board of the given implementation instead of the selected one
+     */
+    public static ChessBoard buildFromString(String string, Implementation boardImplementation) {
+        ChessBoard result = boardImplementation.create();
 
         int row = 0, col = 0;
 
@@ -42,7 +94,7 @@ public class ChessBoardFactory {
             };
 
             if (type != null) {
-                result.addPiece(new ChessPositionImpl(8 - row, col + 1), new ChessPieceImpl(type, color));
+                result.addPiece(ChessPositionImpl.of(8 - row, col + 1), new ChessPieceImpl(type, color));
             }
 
             col++;
@@ -66,7 +118,7 @@ public class ChessBoardFactory {
     public static ChessBoard buildFromBytes(String string) {
         ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(string));
 
-        ChessBoardImpl board = new ChessBoardImpl();
+        ChessBoard board = emptyChessBoard();
         board.updateRound(buffer.getShort());
 
         int row = 0;
@@ -83,7 +135,7 @@ public class ChessBoardFactory {
                 col %= 8;
             } else {
                 ChessPieceImpl piece = deserializeChessPiece(next, buffer.getShort(), buffer.getShort());
-                board.addPiece(new ChessPositionImpl(row + 1, col + 1), piece);
+                board.addPiece(ChessPositionImpl.of(row + 1, col + 1), piece);
 
                 col++;
                 if (col >= 8) {
@@ -1,6 +1,7 @@
 package edu.blaylock.chess.impl;
 
 import chess.*;
+import edu.blaylock.chess.MoveUndo;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
@@ -10,6 +11,11 @@ import java.util.Set;
 
 public class ChessBoardImpl implements ChessBoard {
 
+    private static final int[][] KNIGHT_STEPS =
+            {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+    private static final int[][] DIAGONAL_STEPS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final int[][] STRAIGHT_STEPS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
     private final ChessPiece[][] pieces = new ChessPiece[8][8];
 
     private final transient Set<ChessPosition> allWhites = new HashSet<>();
@@ -20,9 +26,36 @@ public class ChessBoardImpl implements ChessBoard {
 
     private int round = 0;
 
+    private final transient Zobrist.SquareLookup lookup = (row, column) -> pieces[row][column];
+
+    /**
+     * Parts of the Zobrist key, see getZobristKey
+     */
+    private transient long pieceKey = 0;
+    private transient long castlingKey = 0;
+    private transient long enPassantKey = 0;
+
+    /**
+     * Parts of the score, see getScore
+     */
+    private transient int midgameScore = 0;
+    private transient int endgameScore = 0;
+    private transient int phase = 0;
+
     @Override
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        pieces[position.getRow() - 1][position.getColumn() - 1] = piece;
+        int row = position.getRow() - 1;
+        int column = position.getColumn() - 1;
+        int square = row * 8 + column;
+        ChessPiece replaced = pieces[row][column];
+
+        pieceKey ^= Zobrist.pieceKey(replaced, square) ^ Zobrist.pieceKey(piece, square);
+        midgameScore += PieceSquareTables.midgame(piece, square) - PieceSquareTables.midgame(replaced, square);
+        endgameScore += PieceSquareTables.endgame(piece, square) - PieceSquareTables.endgame(replaced, square);
+        phase += PieceSquareTables.phase(piece) - PieceSquareTables.phase(replaced);
+        pieces[row][column] = piece;
+        updateKeys(row, column);
+        if (PieceSquareTables.VERIFY) PieceSquareTables.verify(this);
 
         if (piece == null) return;
 
@@ -50,6 +83,13 @@ public class ChessBoardImpl implements ChessBoard {
         allBlacks.clear();
         allWhites.clear();
 
+        pieceKey = 0;
+        castlingKey = 0;
+        enPassantKey = 0;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+
         ChessBoard defaultBoard = ChessBoardFactory.defaultChessBoard();
 
         for (ChessPosition position : defaultBoard.pieceLocationIterator(ChessGame.TeamColor.WHITE)) {
@@ -66,7 +106,7 @@ public class ChessBoardImpl implements ChessBoard {
     public void reloadBoard() {
         for (int i = 0; i < pieces.length; i++) {
             for (int j = 0; j < pieces[0].length; j++) {
-                addPiece(new ChessPositionImpl(i, j), pieces[i][j]);
+                addPiece(ChessPositionImpl.of(i, j), pieces[i][j]);
             }
         }
     }
@@ -102,6 +142,16 @@ public class ChessBoardImpl implements ChessBoard {
         return end;
     }
 
+    @Override
+    public void makeMove(ChessMove move, MoveUndo undo) {
+        BoardMoves.makeMove(this, move, undo);
+    }
+
+    @Override
+    public void unmakeMove(MoveUndo undo) {
+        BoardMoves.unmakeMove(this, undo);
+    }
+
     @Override
     public Iterable<ChessPosition> pieceLocationIterator(ChessGame.TeamColor color) {
         return (color == ChessGame.TeamColor.WHITE) ? allWhites : allBlacks;
@@ -112,6 +162,61 @@ public class ChessBoardImpl implements ChessBoard {
         return (color == ChessGame.TeamColor.WHITE) ? whiteKing : blackKing;
     }
 
+    @Override
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        int row = position.getRow() - 1;
+        int column = position.getColumn() - 1;
+
+        for (int[] step : KNIGHT_STEPS) {
+            if (isPieceAt(row + step[0], column + step[1], byColor, ChessPiece.PieceType.KNIGHT)) return true;
+        }
+
+        // A pawn attacks the square from one row behind it, relative to the pawn's direction
+        int pawnRow = (byColor == ChessGame.TeamColor.WHITE) ? row - 1 : row + 1;
+        if (isPieceAt(pawnRow, column - 1, byColor, ChessPiece.PieceType.PAWN)
+                || isPieceAt(pawnRow, column + 1, byColor, ChessPiece.PieceType.PAWN)) return true;
+
+        return isAttackedAlong(DIAGONAL_STEPS, row, column, byColor, ChessPiece.PieceType.BISHOP)
+                || isAttackedAlong(STRAIGHT_STEPS, row, column, byColor, ChessPiece.PieceType.ROOK);
+    }
+
+    /**
+     * Follow each direction to the first piece. The king is found at distance one in any direction.
+     *
+     * @param slider bishop or rook, whichever moves along the given directions. Queens are always checked.
+     */
+    private boolean isAttackedAlong(int[][] steps, int row, int column, ChessGame.TeamColor byColor,
+                                    ChessPiece.PieceType slider) {
+        for (int[] step : steps) {
+            int r = row + step[0];
+            int c = column + step[1];
+            int distance = 1;
+
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                ChessPiece piece = pieces[r][c];
+                if (piece != null) {
+                    if (piece.getTeamColor() == byColor) {
+                        ChessPiece.PieceType type = piece.getPieceType();
+                        if (type == slider || type == ChessPiece.PieceType.QUEEN
+                                || (distance == 1 && type == ChessPiece.PieceType.KING)) return true;
+                    }
+                    break;
+                }
+
+                r += step[0];
+                c += step[1];
+                distance++;
+            }
+        }
+        return false;
+    }
+
+    private boolean isPieceAt(int row, int column, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        if (row < 0 || row > 7 || column < 0 || column > 7) return false;
+        ChessPiece piece = pieces[row][column];
+        return piece != null && piece.getTeamColor() == color && piece.getPieceType() == type;
+    }
+
     @Override
     public ChessBoard copy() {
         ChessBoard copy = new ChessBoardImpl();
@@ -123,6 +228,7 @@ public class ChessBoardImpl implements ChessBoard {
             copy.addPiece(position, getPiece(position).copy());
         }
 
+        copy.updateRound(round);
         return copy;
     }
 
@@ -136,13 +242,18 @@ public class ChessBoardImpl implements ChessBoard {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(pieceKey) + round;
+    }
+
     @Override
     public String toString() {
         StringBuilder build = new StringBuilder();
         for (int i = 7; i >= 0; i--) {
             build.append(i + 1).append(" |");
             for (int j = 0; j < 8; j++) {
-                ChessPiece piece = getPiece(new ChessPositionImpl(i + 1, j + 1));
+                ChessPiece piece = getPiece(ChessPositionImpl.of(i + 1, j + 1));
 
                 if (piece == null) build.append(' ');
                 else build.append(piece.toString());
@@ -158,6 +269,7 @@ public class ChessBoardImpl implements ChessBoard {
     @Override
     public void updateRound(int round) {
         this.round = round;
+        enPassantKey = Zobrist.enPassantKey(lookup, round);
     }
 
     @Override
@@ -165,6 +277,24 @@ public class ChessBoardImpl implements ChessBoard {
         return round;
     }
 
+    @Override
+    public long getZobristKey() {
+        return pieceKey ^ castlingKey ^ enPassantKey;
+    }
+
+    @Override
+    public int getScore() {
+        return PieceSquareTables.taper(midgameScore, endgameScore, phase);
+    }
+
+    /**
+     * Recompute the castling and en passant keys if the square they depend on changed
+     */
+    private void updateKeys(int row, int column) {
+        if (Zobrist.affectsCastling(row, column)) castlingKey = Zobrist.castlingKey(lookup);
+        if (Zobrist.affectsEnPassant(row)) enPassantKey = Zobrist.enPassantKey(lookup, round);
+    }
+
     /**
      * See ChessBoardFactory buildFromBytes
      *
@@ -172,28 +302,37 @@ public class ChessBoardImpl implements ChessBoard {
      */
     @Override
     public String serialize() {
+        return Base64.getEncoder().encodeToString(serializeBytes(this));
+    }
+
+    /**
+     * Bytes encoded by serialize, for any board. Two boards give the same bytes exactly when they hold the same
+     * pieces with the same moves taken and last moves on the same round.
+     *
+     * @param board board to serialize
+     * @return bytes in the layout read by ChessBoardFactory buildFromBytes
+     */
+    public static byte[] serializeBytes(ChessBoard board) {
         ByteBuffer buffer = ByteBuffer.allocate(322);
 
-        buffer.putShort((short) round);
+        buffer.putShort((short) board.getRound());
 
         int numNull = 0;
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                ChessPiece piece = pieces[i][j];
-
-                if (piece == null) { // COUNT UP NULLs
-                    numNull++;
-                    continue;
-                }
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(ChessPositionImpl.ofSquare(square));
 
-                if (numNull > 0) { // PUT IN -1 THEN NUMBER NULL
-                    buffer.put((byte) -1);
-                    buffer.put((byte) numNull);
-                    numNull = 0;
-                }
+            if (piece == null) { // COUNT UP NULLs
+                numNull++;
+                continue;
+            }
 
-                serializePiece(piece, buffer);
+            if (numNull > 0) { // PUT IN -1 THEN NUMBER NULL
+                buffer.put((byte) -1);
+                buffer.put((byte) numNull);
+                numNull = 0;
             }
+
+            serializePiece(piece, buffer);
         }
 
         if (numNull > 0) { // END CONDITION
@@ -205,7 +344,7 @@ public class ChessBoardImpl implements ChessBoard {
         buffer.flip();
         buffer.get(result);
 
-        return Base64.getEncoder().encodeToString(result);
+        return result;
     }
 
     /**
@@ -214,7 +353,7 @@ public class ChessBoardImpl implements ChessBoard {
      * @param piece piece to serialize
      * @param store ByteBuffer in which to store
      */
-    private static void serializePiece(ChessPiece piece, ByteBuffer store) {
+    static void serializePiece(ChessPiece piece, ByteBuffer store) {
         store.put((byte) (piece.getTeamColor().ordinal() | (piece.getPieceType().ordinal() << 1)));
         store.putShort((short) piece.numMovesTaken());
         store.putShort((short) piece.getTimeOfLastMove());
@@ -1,12 +1,16 @@
 package edu.blaylock.chess.impl;
 
 import chess.*;
+import edu.blaylock.chess.MoveHistory;
+import edu.blaylock.chess.MoveUndo;
+import edu.blaylock.chess.rules.PackedMove;
+import edu.blaylock.chess.rules.PositionCache;
 import edu.blaylock.chess.rules.special.ISpecialRule;
 import edu.blaylock.chess.rules.special.SpecialRulesManager;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashSet;
 
 public class ChessGameImpl implements ChessGame {
     TeamColor currentTeam = TeamColor.WHITE;
@@ -14,6 +18,54 @@ public class ChessGameImpl implements ChessGame {
 
     int round = 0;
 
+    /**
+     * Moves since the last capture or pawn move
+     */
+    int halfmoveClock = 0;
+
+    /**
+     * Moves made since the game started or its board was set, with what is needed to take them back and the key of
+     * the position before each, which repetitions are counted from. Null until the first move
+     */
+    MoveHistory moves;
+
+    /**
+     * Team that resigned, null if no one did
+     */
+    TeamColor resigned;
+
+    /**
+     * Where legal moves are looked up, PositionCache.shared() while null. Not stored with the game
+     */
+    transient PositionCache positionCache;
+
+    public ChessGameImpl() {
+    }
+
+    /**
+     * Game continuing from a board, at the board's round
+     *
+     * @param board board to play on
+     * @param turn  team to move
+     */
+    public ChessGameImpl(ChessBoard board, TeamColor turn) {
+        this(board, turn, 0);
+    }
+
+    /**
+     * Game continuing from a board, at the board's round, with moves already made since the last capture or pawn move
+     *
+     * @param board         board to play on
+     * @param turn          team to move
+     * @param halfmoveClock moves since the last capture or pawn move
+     */
+    public ChessGameImpl(ChessBoard board, TeamColor turn, int halfmoveClock) {
+        this.chessBoard = board;
+        this.currentTeam = turn;
+        this.round = board.getRound();
+        this.halfmoveClock = halfmoveClock;
+    }
+
     @Override
     public TeamColor getTeamTurn() {
         return currentTeam;
@@ -24,34 +76,13 @@ public class ChessGameImpl implements ChessGame {
         currentTeam = team;
     }
 
-    public Collection<ChessMove> filterMoves(ChessPosition startPosition, Collection<ChessMove> validMoves) {
-        ChessBoard testBoard;
-        ChessPiece startPiece = chessBoard.getPiece(startPosition);
-
-        Iterator<ChessMove> iter = validMoves.iterator();
-        while (iter.hasNext()) {
-            ChessMove move = iter.next();
-            testBoard = chessBoard.copy();
-            testBoard.movePiece(move);
-            if (testBoard.getPiece(move.getEndPosition()).getPieceType() == null) {
-                ChessPiece queen = new ChessPieceImpl(ChessPiece.PieceType.QUEEN, startPiece.getTeamColor());
-                testBoard.addPiece(move.getEndPosition(), queen);
-            }
-
-            if (ChessGameImpl.isInCheck(startPiece.getTeamColor(), testBoard)) {
-                iter.remove();
-            }
-        }
-
-        return validMoves;
-    }
-
     @Override
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         if (startPosition == null || chessBoard.getPiece(startPosition) == null) return Collections.emptySet();
-        Collection<ChessMove> validMoves = chessBoard.getPiece(startPosition).pieceMoves(chessBoard, startPosition);
-        SpecialRulesManager.addValidRules(chessBoard, startPosition, validMoves);
-        return filterMoves(startPosition, validMoves);
+        Collection<ChessMove> validMoves = new HashSet<>();
+        positionCache().lookup(chessBoard, chessBoard.getPiece(startPosition).getTeamColor())
+                .addMoves(startPosition, validMoves);
+        return validMoves;
     }
 
 
@@ -63,12 +94,18 @@ public class ChessGameImpl implements ChessGame {
             throw new InvalidMoveException("Incorrect starting position");
         }
 
-        Collection<ChessMove> validMoves = validMoves(move.getStartPosition());
-        if (!validMoves.contains(move) ||
-                move.getEndPosition().equals(chessBoard.getKingLocation(getTeamTurn().next()))) {
+        // Usually cached by the validMoves call that came before, the flags of the matching move say which special
+        // rule applies
+        int packed = positionCache().lookup(chessBoard, getTeamTurn()).find(
+                BitboardChessBoardImpl.squareOf(move.getStartPosition()),
+                BitboardChessBoardImpl.squareOf(move.getEndPosition()));
+        if (packed == -1 || move.getEndPosition().equals(chessBoard.getKingLocation(getTeamTurn().next()))) {
             throw new InvalidMoveException("Invalid move chosen for piece");
         }
-        ISpecialRule specialRule = SpecialRulesManager.getPertinentRule(chessBoard, move);
+        ISpecialRule specialRule = SpecialRulesManager.getRule(packed);
+        boolean pawnMove = startPiece.getPieceType() == ChessPiece.PieceType.PAWN;
+        recordMove(PackedMove.of(PackedMove.from(packed), PackedMove.to(packed), move.getPromotionPiece(),
+                PackedMove.flags(packed)), startPiece, getZobristKey());
 
         ChessPiece killed = chessBoard.movePiece(move);
 
@@ -79,6 +116,131 @@ public class ChessGameImpl implements ChessGame {
         setTeamTurn(TeamColor.getNext(getTeamTurn()));
         round++;
         chessBoard.updateRound(round);
+        halfmoveClock = (pawnMove || killed != null) ? 0 : halfmoveClock + 1;
+    }
+
+    /**
+     * Add a move about to be made to the move history, with the piece it takes or the rook it castles
+     */
+    private void recordMove(int packed, ChessPiece startPiece, long previousKey) {
+        ChessPosition start = BitboardChessBoardImpl.positionOf(PackedMove.from(packed));
+        ChessPosition end = BitboardChessBoardImpl.positionOf(PackedMove.to(packed));
+        ChessPiece other;
+        if (PackedMove.hasFlag(packed, PackedMove.CASTLE)) {
+            other = chessBoard.getPiece(ChessPositionImpl.of(end.getRow(), (end.getColumn() == 7) ? 8 : 1));
+        } else if (PackedMove.hasFlag(packed, PackedMove.EN_PASSANT)) {
+            other = chessBoard.getPiece(ChessPositionImpl.of(start.getRow(), end.getColumn()));
+        } else {
+            other = chessBoard.getPiece(end);
+        }
+        ChessPiece.PieceType captured = (other == null || PackedMove.hasFlag(packed, PackedMove.CASTLE)) ? null
+                : other.getPieceType();
+
+        if (moves == null) moves = new MoveHistory();
+        moves.record(packed, captured, startPiece, other, halfmoveClock, previousKey);
+    }
+
+    @Override
+    public boolean undoMove() {
+        if (moves == null || moves.cursor() == 0) return false;
+
+        int ply = moves.cursor() - 1;
+        int packed = moves.move(ply);
+        ChessPosition start = BitboardChessBoardImpl.positionOf(PackedMove.from(packed));
+        ChessPosition end = BitboardChessBoardImpl.positionOf(PackedMove.to(packed));
+        TeamColor mover = currentTeam.next();
+
+        // Pieces are rebuilt as they stood before the move, a promoted piece going back as the pawn it was
+        ChessPiece.PieceType type = PackedMove.hasFlag(packed, PackedMove.PROMOTION) ? ChessPiece.PieceType.PAWN
+                : chessBoard.getPiece(end).getPieceType();
+        MoveUndo undo = new MoveUndo();
+        undo.recordMove(PackedMove.toChessMove(packed),
+                piece(type, mover, moves.movedMovesTaken(ply), moves.movedLastRound(ply)), round - 1);
+        if (PackedMove.hasFlag(packed, PackedMove.CASTLE)) {
+            boolean kingSide = end.getColumn() == 7;
+            undo.recordCastle(piece(ChessPiece.PieceType.ROOK, mover, moves.otherMovesTaken(ply),
+                            moves.otherLastRound(ply)), ChessPositionImpl.of(end.getRow(), kingSide ? 8 : 1),
+                    ChessPositionImpl.of(end.getRow(), kingSide ? 6 : 4));
+        } else if (moves.captured(ply) != null) {
+            ChessPosition capturedPosition = PackedMove.hasFlag(packed, PackedMove.EN_PASSANT)
+                    ? ChessPositionImpl.of(start.getRow(), end.getColumn()) : end;
+            undo.recordCapture(piece(moves.captured(ply), currentTeam, moves.otherMovesTaken(ply),
+                    moves.otherLastRound(ply)), capturedPosition);
+        }
+
+        chessBoard.unmakeMove(undo);
+        moves.back();
+        currentTeam = mover;
+        round--;
+        halfmoveClock = moves.halfmoveClock(ply);
+        return true;
+    }
+
+    private static ChessPiece piece(ChessPiece.PieceType type, TeamColor color, int movesTaken, int lastRound) {
+        ChessPiece piece = new ChessPieceImpl(type, color, movesTaken);
+        piece.updateTimeOfLastMove(lastRound);
+        return piece;
+    }
+
+    @Override
+    public boolean redoMove() {
+        if (moves == null || moves.cursor() == moves.size()) return false;
+        try {
+            makeMove(PackedMove.toChessMove(moves.move(moves.cursor())));
+        } catch (InvalidMoveException e) {
+            throw new IllegalStateException("Recorded move " + moves.cursor() + " is no longer legal", e);
+        }
+        return true;
+    }
+
+    @Override
+    public MoveHistory getMoveHistory() {
+        return moves;
+    }
+
+    @Override
+    public TeamColor getResignedTeam() {
+        return resigned;
+    }
+
+    @Override
+    public void setResignedTeam(TeamColor team) {
+        resigned = team;
+    }
+
+    @Override
+    public ChessGame copy() {
+        ChessGameImpl copy = new ChessGameImpl(chessBoard.copy(), currentTeam, halfmoveClock);
+        copy.round = round;
+        copy.moves = (moves == null) ? null : moves.copy();
+        copy.resigned = resigned;
+        copy.positionCache = positionCache;
+        return copy;
+    }
+
+    @Override
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    @Override
+    public boolean isDrawByRepetition() {
+        if (moves == null) return false;
+
+        // Positions before the last capture or pawn move can't come back, and only positions with the same team to
+        // move can match, so every other key since then is compared
+        long current = getZobristKey();
+        int first = Math.max(0, moves.cursor() - halfmoveClock);
+        int count = 1;
+        for (int ply = moves.cursor() - 2; ply >= first; ply -= 2) {
+            if (moves.key(ply) == current && ++count == REPETITIONS) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isDrawByFiftyMoves() {
+        return halfmoveClock >= FIFTY_MOVE_PLIES;
     }
 
     @Override
@@ -92,43 +254,45 @@ public class ChessGameImpl implements ChessGame {
             return move.getEndPosition().getRow() == 8;
     }
 
+    /**
+     * Look up legal moves in another cache than the shared one, for callers visiting many positions that won't come
+     * up again, like Perft, so they don't push out the positions of games being played
+     *
+     * @param cache cache to use, null for PositionCache.shared()
+     */
+    public void setPositionCache(PositionCache cache) {
+        positionCache = cache;
+    }
+
+    private PositionCache positionCache() {
+        return (positionCache != null) ? positionCache : PositionCache.shared();
+    }
+
     @Override
     public boolean isInCheck(TeamColor teamColor) {
-
-        return ChessGameImpl.isInCheck(teamColor, chessBoard);
+        return positionCache().lookup(chessBoard, teamColor).isInCheck();
     }
 
     public static boolean isInCheck(TeamColor teamColor, ChessBoard board) {
-
-        ChessPosition king_location = board.getKingLocation(teamColor);
-
-        for (ChessPosition location : board.pieceLocationIterator(teamColor.next())) {
-            ChessPiece piece = board.getPiece(location);
-
-            for (ChessMove move : piece.pieceMoves(board, location)) {
-                if (move.getEndPosition().equals(king_location)) return true;
-            }
-        }
-        return false;
+        ChessPosition kingLocation = board.getKingLocation(teamColor);
+        return kingLocation != null && board.isSquareAttacked(kingLocation, teamColor.next());
     }
 
     @Override
     public boolean isInCheckmate(TeamColor teamColor) {
-        return isInStalemate(teamColor) && isInCheck(teamColor);
+        return positionCache().lookup(chessBoard, teamColor).isInCheckmate();
     }
 
     @Override
     public boolean isInStalemate(TeamColor teamColor) {
-        for (ChessPosition position : chessBoard.pieceLocationIterator(teamColor)) {
-            if (!validMoves(position).isEmpty()) return false;
-        }
-
-        return true;
+        return positionCache().lookup(chessBoard, teamColor).isInStalemate();
     }
 
     @Override
     public void setBoard(ChessBoard board) {
         chessBoard = board;
+        halfmoveClock = 0;
+        moves = null;
     }
 
     @Override
@@ -136,6 +300,12 @@ public class ChessGameImpl implements ChessGame {
         return chessBoard;
     }
 
+    @Override
+    public long getZobristKey() {
+        long key = chessBoard.getZobristKey();
+        return (currentTeam == TeamColor.BLACK) ? key ^ Zobrist.SIDE_TO_MOVE : key;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o instanceof ChessGameImpl game) {
@@ -51,6 +51,11 @@ public class ChessPieceImpl implements ChessPiece {
         ++stepsTaken;
     }
 
+    @Override
+    public void setMovesTaken(int movesTaken) {
+        stepsTaken = movesTaken;
+    }
+
     @Override
     public int hashCode() {
         return 57 * teamColor.ordinal() + 91 * type.ordinal() + stepsTaken;
@@ -4,6 +4,17 @@ import chess.ChessPosition;
 
 public class ChessPositionImpl implements ChessPosition {
 
+    /**
+     * One position per square, indexed (row - 1) * 8 + column - 1
+     */
+    private static final ChessPositionImpl[] SQUARES = new ChessPositionImpl[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPositionImpl(square / 8 + 1, square % 8 + 1);
+        }
+    }
+
     final private int rowIndex;
     final private int colIndex;
 
@@ -12,6 +23,27 @@ public class ChessPositionImpl implements ChessPosition {
         colIndex = col;
     }
 
+    /**
+     * Get the shared position of a square instead of allocating one. Coordinates off the board still get a new
+     * position, as some callers use them for borders and out of range input.
+     *
+     * @param row row, 1 to 8
+     * @param col column, 1 to 8
+     * @return position of the square
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) return new ChessPositionImpl(row, col);
+        return SQUARES[(row - 1) * 8 + col - 1];
+    }
+
+    /**
+     * @param square square index, (row - 1) * 8 + column - 1
+     * @return shared position of the square
+     */
+    public static ChessPosition ofSquare(int square) {
+        return SQUARES[square];
+    }
+
     @Override
     public int getRow() {
         return rowIndex;
@@ -31,7 +63,7 @@ public class ChessPositionImpl implements ChessPosition {
             return null;
         }
 
-        return new ChessPositionImpl(final_row, final_col);
+        return SQUARES[(final_row - 1) * 8 + final_col - 1];
     }
 
     @Override
@@ -41,6 +73,7 @@ public class ChessPositionImpl implements ChessPosition {
 
     @Override
     public boolean equals(Object obj) {
+        if (obj == this) return true;
         if (obj instanceof ChessPosition position) {
             return rowIndex == position.getRow() && colIndex == position.getColumn();
         }
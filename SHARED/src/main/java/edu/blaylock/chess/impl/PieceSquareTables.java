@@ -0,0 +1,219 @@
+package edu.blaylock.chess.impl;
+
+import chess.ChessBoard;
+import chess.ChessPiece;
+
+/**
+ * Material and piece-square values used for the score boards keep up to date. Each piece has a middle game and an
+ * endgame value, and the score blends the two by the phase of the game: the knights, bishops, rooks and queens left,
+ * from MAX_PHASE with every piece on the board down to 0 with only kings and pawns.<br>
+ * Tables are written from white's side with row 8 first, like default_board.txt, and mirrored for black. Values are
+ * in centipawns from white's side, so black pieces count negatively.
+ */
+public final class PieceSquareTables {
+
+    /**
+     * Phase of the starting position
+     */
+    public static final int MAX_PHASE = 24;
+
+    /**
+     * Whether boards recompute their score from scratch after every change and throw if it differs from the one they
+     * keep. Set with the system property "chess.verifyScore", for debugging only
+     */
+    static final boolean VERIFY = Boolean.getBoolean("chess.verifyScore");
+
+    private static final int[] MIDGAME_VALUES = new int[6];
+    private static final int[] ENDGAME_VALUES = new int[6];
+    private static final int[] PHASES = new int[6];
+    private static final int[][] MIDGAME_TABLES = new int[6][];
+    private static final int[][] ENDGAME_TABLES = new int[6][];
+
+    /**
+     * Values of each piece on each square, indexed by color ordinal * 6 + type ordinal then square
+     */
+    private static final int[][] MIDGAME = new int[12][64];
+    private static final int[][] ENDGAME = new int[12][64];
+
+    static {
+        setValues(ChessPiece.PieceType.KING, 0, 0, 0);
+        setValues(ChessPiece.PieceType.QUEEN, 900, 950, 4);
+        setValues(ChessPiece.PieceType.BISHOP, 330, 340, 1);
+        setValues(ChessPiece.PieceType.KNIGHT, 320, 290, 1);
+        setValues(ChessPiece.PieceType.ROOK, 500, 540, 2);
+        setValues(ChessPiece.PieceType.PAWN, 100, 120, 0);
+
+        MIDGAME_TABLES[ChessPiece.PieceType.PAWN.ordinal()] = new int[]{
+                0, 0, 0, 0, 0, 0, 0, 0,
+                50, 50, 50, 50, 50, 50, 50, 50,
+                10, 10, 20, 30, 30, 20, 10, 10,
+                5, 5, 10, 25, 25, 10, 5, 5,
+                0, 0, 0, 20, 20, 0, 0, 0,
+                5, -5, -10, 0, 0, -10, -5, 5,
+                5, 10, 10, -20, -20, 10, 10, 5,
+                0, 0, 0, 0, 0, 0, 0, 0};
+        ENDGAME_TABLES[ChessPiece.PieceType.PAWN.ordinal()] = new int[]{
+                0, 0, 0, 0, 0, 0, 0, 0,
+                80, 80, 80, 80, 80, 80, 80, 80,
+                50, 50, 50, 50, 50, 50, 50, 50,
+                30, 30, 30, 30, 30, 30, 30, 30,
+                20, 20, 20, 20, 20, 20, 20, 20,
+                10, 10, 10, 10, 10, 10, 10, 10,
+                10, 10, 10, 10, 10, 10, 10, 10,
+                0, 0, 0, 0, 0, 0, 0, 0};
+        MIDGAME_TABLES[ChessPiece.PieceType.KNIGHT.ordinal()] = new int[]{
+                -50, -40, -30, -30, -30, -30, -40, -50,
+                -40, -20, 0, 0, 0, 0, -20, -40,
+                -30, 0, 10, 15, 15, 10, 0, -30,
+                -30, 5, 15, 20, 20, 15, 5, -30,
+                -30, 0, 15, 20, 20, 15, 0, -30,
+                -30, 5, 10, 15, 15, 10, 5, -30,
+                -40, -20, 0, 5, 5, 0, -20, -40,
+                -50, -40, -30, -30, -30, -30, -40, -50};
+        MIDGAME_TABLES[ChessPiece.PieceType.BISHOP.ordinal()] = new int[]{
+                -20, -10, -10, -10, -10, -10, -10, -20,
+                -10, 0, 0, 0, 0, 0, 0, -10,
+                -10, 0, 5, 10, 10, 5, 0, -10,
+                -10, 5, 5, 10, 10, 5, 5, -10,
+                -10, 0, 10, 10, 10, 10, 0, -10,
+                -10, 10, 10, 10, 10, 10, 10, -10,
+                -10, 5, 0, 0, 0, 0, 5, -10,
+                -20, -10, -10, -10, -10, -10, -10, -20};
+        MIDGAME_TABLES[ChessPiece.PieceType.ROOK.ordinal()] = new int[]{
+                0, 0, 0, 0, 0, 0, 0, 0,
+                5, 10, 10, 10, 10, 10, 10, 5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                0, 0, 0, 5, 5, 0, 0, 0};
+        MIDGAME_TABLES[ChessPiece.PieceType.QUEEN.ordinal()] = new int[]{
+                -20, -10, -10, -5, -5, -10, -10, -20,
+                -10, 0, 0, 0, 0, 0, 0, -10,
+                -10, 0, 5, 5, 5, 5, 0, -10,
+                -5, 0, 5, 5, 5, 5, 0, -5,
+                0, 0, 5, 5, 5, 5, 0, -5,
+                -10, 5, 5, 5, 5, 5, 0, -10,
+                -10, 0, 5, 0, 0, 0, 0, -10,
+                -20, -10, -10, -5, -5, -10, -10, -20};
+        MIDGAME_TABLES[ChessPiece.PieceType.KING.ordinal()] = new int[]{
+                -30, -40, -40, -50, -50, -40, -40, -30,
+                -30, -40, -40, -50, -50, -40, -40, -30,
+                -30, -40, -40, -50, -50, -40, -40, -30,
+                -30, -40, -40, -50, -50, -40, -40, -30,
+                -20, -30, -30, -40, -40, -30, -30, -20,
+                -10, -20, -20, -20, -20, -20, -20, -10,
+                20, 20, 0, 0, 0, 0, 20, 20,
+                20, 30, 10, 0, 0, 10, 30, 20};
+        // The king walks to the center once there is nothing left to attack it
+        ENDGAME_TABLES[ChessPiece.PieceType.KING.ordinal()] = new int[]{
+                -50, -40, -30, -20, -20, -30, -40, -50,
+                -30, -20, -10, 0, 0, -10, -20, -30,
+                -30, -10, 20, 30, 30, 20, -10, -30,
+                -30, -10, 30, 40, 40, 30, -10, -30,
+                -30, -10, 30, 40, 40, 30, -10, -30,
+                -30, -10, 20, 30, 30, 20, -10, -30,
+                -30, -30, 0, 0, 0, 0, -30, -30,
+                -50, -30, -30, -30, -30, -30, -30, -50};
+
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            int t = type.ordinal();
+            if (ENDGAME_TABLES[t] == null) ENDGAME_TABLES[t] = MIDGAME_TABLES[t];
+
+            // Table index of a white piece is its square with the rows flipped, a black piece's is its square
+            for (int square = 0; square < 64; square++) {
+                MIDGAME[t][square] = MIDGAME_VALUES[t] + MIDGAME_TABLES[t][square ^ 56];
+                ENDGAME[t][square] = ENDGAME_VALUES[t] + ENDGAME_TABLES[t][square ^ 56];
+                MIDGAME[6 + t][square] = -(MIDGAME_VALUES[t] + MIDGAME_TABLES[t][square]);
+                ENDGAME[6 + t][square] = -(ENDGAME_VALUES[t] + ENDGAME_TABLES[t][square]);
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    private static void setValues(ChessPiece.PieceType type, int midgame, int endgame, int phase) {
+        MIDGAME_VALUES[type.ordinal()] = midgame;
+        ENDGAME_VALUES[type.ordinal()] = endgame;
+        PHASES[type.ordinal()] = phase;
+    }
+
+    /**
+     * @param type piece type
+     * @return middle game centipawn value of the piece, 0 for the king
+     */
+    public static int value(ChessPiece.PieceType type) {
+        return MIDGAME_VALUES[type.ordinal()];
+    }
+
+    /**
+     * @param piece  piece, may be null
+     * @param square square index, (row - 1) * 8 + column - 1
+     * @return middle game value of the piece on the square from white's side, 0 for no piece or a piece without a type
+     */
+    public static int midgame(ChessPiece piece, int square) {
+        if (piece == null || piece.getPieceType() == null) return 0;
+        return MIDGAME[piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal()][square];
+    }
+
+    /**
+     * @param piece  piece, may be null
+     * @param square square index, (row - 1) * 8 + column - 1
+     * @return endgame value of the piece on the square from white's side, 0 for no piece or a piece without a type
+     */
+    public static int endgame(ChessPiece piece, int square) {
+        if (piece == null || piece.getPieceType() == null) return 0;
+        return ENDGAME[piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal()][square];
+    }
+
+    /**
+     * @param piece piece, may be null
+     * @return how much the piece adds to the phase of the game
+     */
+    public static int phase(ChessPiece piece) {
+        if (piece == null || piece.getPieceType() == null) return 0;
+        return PHASES[piece.getPieceType().ordinal()];
+    }
+
+    /**
+     * @param midgame middle game score
+     * @param endgame endgame score
+     * @param phase   phase of the game, more than MAX_PHASE after promotions counts as MAX_PHASE
+     * @return blend of both scores, all middle game at MAX_PHASE and all endgame at 0
+     */
+    public static int taper(int midgame, int endgame, int phase) {
+        int weight = Math.min(phase, MAX_PHASE);
+        return (midgame * weight + endgame * (MAX_PHASE - weight)) / MAX_PHASE;
+    }
+
+    /**
+     * Score a board from scratch, going over every square
+     *
+     * @param board board to score
+     * @return same value as board.getScore()
+     */
+    public static int score(ChessBoard board) {
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(ChessPositionImpl.ofSquare(square));
+            midgame += midgame(piece, square);
+            endgame += endgame(piece, square);
+            phase += phase(piece);
+        }
+        return taper(midgame, endgame, phase);
+    }
+
+    /**
+     * Throw if a board's kept score isn't the one computed from scratch, see VERIFY
+     */
+    static void verify(ChessBoard board) {
+        int expected = score(board);
+        if (board.getScore() != expected) {
+            throw new IllegalStateException("Board score " + board.getScore() + " should be " + expected);
+        }
+    }
+}
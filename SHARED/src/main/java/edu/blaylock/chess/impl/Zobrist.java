@@ -0,0 +1,135 @@
+package edu.blaylock.chess.impl;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import edu.blaylock.chess.rules.special.EnPassant;
+
+import java.util.Random;
+
+/**
+ * Random keys used to hash positions. A board key is the xor of a key for each piece on its square, a key for each
+ * castle still possible and a key for the column of a pawn that can be taken en passant. Games add the side to move.
+ * <br>
+ * Castling rights and en passant aren't stored by the boards, they follow from the pieces: a castle is possible while
+ * the king and the corner rook have not moved, and en passant while a pawn that just moved two squares has an enemy
+ * pawn beside it. The keys are generated from a fixed seed so they are the same in every process.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECES = new long[12][64];
+    private static final long[] CASTLING = new long[4];
+    private static final long[] EN_PASSANT = new long[8];
+    public static final long SIDE_TO_MOVE;
+
+    static {
+        Random random = new Random(0x5EED_C4E55L);
+        for (long[] keys : PIECES) {
+            for (int square = 0; square < 64; square++) keys[square] = random.nextLong();
+        }
+        for (int i = 0; i < CASTLING.length; i++) CASTLING[i] = random.nextLong();
+        for (int i = 0; i < EN_PASSANT.length; i++) EN_PASSANT[i] = random.nextLong();
+        SIDE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Gives the piece on a square, with row and column starting at 0
+     */
+    interface SquareLookup {
+        ChessPiece pieceAt(int row, int column);
+    }
+
+    /**
+     * @param piece  piece, may be null
+     * @param square square index, (row - 1) * 8 + column - 1
+     * @return key of the piece on the square, 0 for no piece or a piece without a type
+     */
+    public static long pieceKey(ChessPiece piece, int square) {
+        if (piece == null || piece.getPieceType() == null) return 0;
+        return PIECES[piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal()][square];
+    }
+
+    /**
+     * @return whether a change to the square can change the castling key
+     */
+    static boolean affectsCastling(int row, int column) {
+        return (row == 0 || row == 7) && (column == 0 || column == 4 || column == 7);
+    }
+
+    /**
+     * @return whether a change to the square can change the en passant key
+     */
+    static boolean affectsEnPassant(int row) {
+        return row == 3 || row == 4;
+    }
+
+    static long castlingKey(SquareLookup lookup) {
+        long key = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            int row = (color == ChessGame.TeamColor.WHITE) ? 0 : 7;
+            if (!isUnmoved(lookup.pieceAt(row, 4), color, ChessPiece.PieceType.KING)) continue;
+
+            if (isUnmoved(lookup.pieceAt(row, 7), color, ChessPiece.PieceType.ROOK)) {
+                key ^= CASTLING[color.ordinal() * 2];
+            }
+            if (isUnmoved(lookup.pieceAt(row, 0), color, ChessPiece.PieceType.ROOK)) {
+                key ^= CASTLING[color.ordinal() * 2 + 1];
+            }
+        }
+        return key;
+    }
+
+    /**
+     * A pawn that EnPassant.hasPawnJustDoubleMoved accepts, its column only counting when an enemy pawn is beside it.
+     */
+    static long enPassantKey(SquareLookup lookup, int round) {
+        long key = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            int row = (color == ChessGame.TeamColor.WHITE) ? 3 : 4;
+
+            for (int column = 0; column < 8; column++) {
+                ChessPiece pawn = lookup.pieceAt(row, column);
+                if (pawn == null || pawn.getTeamColor() != color
+                        || !EnPassant.hasPawnJustDoubleMoved(pawn, row + 1, round)) continue;
+
+                if (isEnemyPawn(lookup, row, column - 1, color) || isEnemyPawn(lookup, row, column + 1, color)) {
+                    key ^= EN_PASSANT[column];
+                }
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Hash a board from scratch. Boards keep their key up to date as they change, this is for checking them.
+     *
+     * @param board board to hash
+     * @return same value as board.getZobristKey()
+     */
+    public static long compute(ChessBoard board) {
+        ChessPiece[] squares = new ChessPiece[64];
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            board.pieceLocationIterator(color).forEach((position) -> squares[BitboardChessBoardImpl.squareOf(position)]
+                    = board.getPiece(position));
+        }
+
+        SquareLookup lookup = (row, column) -> squares[row * 8 + column];
+        long key = castlingKey(lookup) ^ enPassantKey(lookup, board.getRound());
+        for (int square = 0; square < 64; square++) key ^= pieceKey(squares[square], square);
+        return key;
+    }
+
+    private static boolean isUnmoved(ChessPiece piece, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return piece != null && piece.getTeamColor() == color && piece.getPieceType() == type
+                && piece.numMovesTaken() == 0;
+    }
+
+    private static boolean isEnemyPawn(SquareLookup lookup, int row, int column, ChessGame.TeamColor color) {
+        if (column < 0 || column > 7) return false;
+        ChessPiece piece = lookup.pieceAt(row, column);
+        return piece != null && piece.getTeamColor() != color && piece.getPieceType() == ChessPiece.PieceType.PAWN;
+    }
+}
@@ -0,0 +1,288 @@
+package edu.blaylock.chess.notation;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.impl.ChessPieceImpl;
+import edu.blaylock.chess.impl.ChessPositionImpl;
+import edu.blaylock.chess.rules.special.EnPassant;
+
+/**
+ * Forsyth-Edwards Notation, like "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1": pieces from row 8
+ * down with uppercase for white, team to move, castles still possible, square behind a pawn that just moved two
+ * squares, halfmove clock and move number.<br>
+ * Boards don't store castling rights or en passant, they follow from the moves taken of each piece like in
+ * PerftPosition: kings and rooks that may still castle haven't moved, other kings and rooks have moved once, pawns off
+ * their starting row have moved twice, and the pawn that can be taken en passant moved once on the previous round.
+ * The round is 2 * (move number - 1), plus one when black is to move.<br>
+ * Text is read in one pass straight from the CharSequence, without splitting or copying it.
+ */
+public final class Fen {
+
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_LETTERS = "kqbnrp";
+
+    private final CharSequence text;
+    private int index;
+
+    private Fen(CharSequence text) {
+        this.text = text;
+    }
+
+    /**
+     * Build a game of the factory's selected board implementation
+     *
+     * @param fen position, the two counters may be left out
+     * @return game in that position
+     * @throws IllegalArgumentException if the text isn't a valid position
+     */
+    public static ChessGame read(CharSequence fen) {
+        return read(fen, ChessBoardFactory.getImplementation());
+    }
+
+    /**
+     * Same as read, building a board of the given implementation
+     */
+    public static ChessGame read(CharSequence fen, ChessBoardFactory.Implementation implementation) {
+        return new Fen(fen).parse(implementation);
+    }
+
+    private ChessGame parse(ChessBoardFactory.Implementation implementation) {
+        // Piece type ordinal + 1, plus 8 for black, per square
+        byte[] squares = new byte[64];
+        readPlacement(squares);
+        expect(' ');
+
+        ChessGame.TeamColor turn = switch (next()) {
+            case 'w' -> ChessGame.TeamColor.WHITE;
+            case 'b' -> ChessGame.TeamColor.BLACK;
+            default -> throw error("Expected w or b");
+        };
+        expect(' ');
+
+        int castling = readCastling();
+        expect(' ');
+        int enPassant = readEnPassant();
+
+        int halfmoveClock = 0;
+        int fullmove = 1;
+        if (index < text.length()) {
+            expect(' ');
+            halfmoveClock = readNumber();
+            expect(' ');
+            fullmove = readNumber();
+            if (fullmove < 1) throw error("Move number starts at 1");
+        }
+        while (index < text.length() && Character.isWhitespace(text.charAt(index))) index++;
+        if (index < text.length()) throw error("Unexpected text");
+
+        int round = 2 * (fullmove - 1) + turn.ordinal();
+        ChessBoard board = implementation.create();
+        board.updateRound(round);
+
+        int passedPawn = -1;
+        if (enPassant >= 0) {
+            passedPawn = enPassant + ((turn == ChessGame.TeamColor.BLACK) ? 8 : -8);
+            int pawn = ChessPiece.PieceType.PAWN.ordinal() + 1 + ((turn == ChessGame.TeamColor.BLACK) ? 0 : 8);
+            if (enPassant / 8 != ((turn == ChessGame.TeamColor.BLACK) ? 2 : 5) || squares[passedPawn] != pawn) {
+                throw error("No pawn can be taken en passant on " + ChessPositionImpl.ofSquare(enPassant));
+            }
+        }
+
+        for (int square = 0; square < 64; square++) {
+            if (squares[square] == 0) continue;
+            ChessGame.TeamColor color = (squares[square] > 8) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            ChessPiece.PieceType type = ChessPiece.PieceType.values()[(squares[square] & 7) - 1];
+
+            ChessPieceImpl piece = new ChessPieceImpl(type, color, movesTaken(type, color, square, castling));
+            if (square == passedPawn) {
+                piece.setMovesTaken(1);
+                piece.updateTimeOfLastMove(round - 1);
+            }
+            board.addPiece(ChessPositionImpl.ofSquare(square), piece);
+        }
+
+        return new ChessGameImpl(board, turn, halfmoveClock);
+    }
+
+    private void readPlacement(byte[] squares) {
+        for (int row = 7; row >= 0; row--) {
+            int column = 0;
+            while (column < 8) {
+                char c = next();
+                if (c >= '1' && c <= '8') {
+                    column += c - '0';
+                    continue;
+                }
+
+                int type = PIECE_LETTERS.indexOf(Character.toLowerCase(c));
+                if (type < 0) throw error("Unexpected '" + c + "' in row " + (row + 1));
+                squares[row * 8 + column] = (byte) (type + 1 + (Character.isUpperCase(c) ? 0 : 8));
+                column++;
+            }
+            if (column > 8) throw error("Row " + (row + 1) + " is too long");
+            if (row > 0) expect('/');
+        }
+    }
+
+    /**
+     * @return bits 0 and 1 for white's K and Q, 2 and 3 for black's k and q
+     */
+    private int readCastling() {
+        if (peek() == '-') {
+            index++;
+            return 0;
+        }
+
+        int castling = 0;
+        while (index < text.length() && text.charAt(index) != ' ') {
+            int bit = "KQkq".indexOf(next());
+            if (bit < 0) throw error("Expected K, Q, k, q or -");
+            castling |= 1 << bit;
+        }
+        if (castling == 0) throw error("Expected K, Q, k, q or -");
+        return castling;
+    }
+
+    /**
+     * @return square behind the pawn that can be taken, -1 for none
+     */
+    private int readEnPassant() {
+        char file = next();
+        if (file == '-') return -1;
+
+        char rank = next();
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') throw error("Expected a square or -");
+        return (rank - '1') * 8 + (file - 'a');
+    }
+
+    private int readNumber() {
+        int start = index;
+        int value = 0;
+        while (index < text.length() && Character.isDigit(text.charAt(index))) {
+            value = value * 10 + (text.charAt(index++) - '0');
+            if (index - start > 6) throw error("Number too large");
+        }
+        if (index == start) throw error("Expected a number");
+        return value;
+    }
+
+    private static int movesTaken(ChessPiece.PieceType type, ChessGame.TeamColor color, int square, int castling) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        int home = white ? 0 : 56;
+        int kingside = (castling >> (white ? 0 : 2)) & 1;
+        int queenside = (castling >> (white ? 1 : 3)) & 1;
+
+        return switch (type) {
+            case PAWN -> (square / 8 == (white ? 1 : 6)) ? 0 : 2;
+            case KING -> (square == home + 4 && (kingside | queenside) != 0) ? 0 : 1;
+            case ROOK -> (square == home + 7 && kingside != 0 || square == home && queenside != 0) ? 0 : 1;
+            default -> 0;
+        };
+    }
+
+    private char next() {
+        if (index >= text.length()) throw error("Unexpected end");
+        return text.charAt(index++);
+    }
+
+    private char peek() {
+        if (index >= text.length()) throw error("Unexpected end");
+        return text.charAt(index);
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            index--;
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at " + index + " in FEN \"" + text + "\"");
+    }
+
+    /**
+     * @param game game to write
+     * @return FEN of the game's position
+     */
+    public static String write(ChessGame game) {
+        StringBuilder builder = new StringBuilder(90);
+        write(game, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Append the FEN of a game's position to a builder
+     *
+     * @param game    game to write
+     * @param builder builder appended to
+     */
+    public static void write(ChessGame game, StringBuilder builder) {
+        ChessBoard board = game.getBoard();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int column = 1; column <= 8; column++) {
+                ChessPiece piece = board.getPiece(ChessPositionImpl.of(row, column));
+                if (piece == null || piece.getPieceType() == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) builder.append((char) ('0' + empty));
+                empty = 0;
+
+                char letter = PIECE_LETTERS.charAt(piece.getPieceType().ordinal());
+                builder.append((piece.getTeamColor() == ChessGame.TeamColor.WHITE)
+                        ? Character.toUpperCase(letter) : letter);
+            }
+            if (empty > 0) builder.append((char) ('0' + empty));
+            if (row > 1) builder.append('/');
+        }
+
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        builder.append(' ').append((turn == ChessGame.TeamColor.WHITE) ? 'w' : 'b').append(' ');
+
+        int length = builder.length();
+        if (canCastle(board, ChessGame.TeamColor.WHITE, 8)) builder.append('K');
+        if (canCastle(board, ChessGame.TeamColor.WHITE, 1)) builder.append('Q');
+        if (canCastle(board, ChessGame.TeamColor.BLACK, 8)) builder.append('k');
+        if (canCastle(board, ChessGame.TeamColor.BLACK, 1)) builder.append('q');
+        if (builder.length() == length) builder.append('-');
+
+        builder.append(' ');
+        appendEnPassant(board, turn.next(), builder);
+        builder.append(' ').append(game.getHalfmoveClock()).append(' ').append(board.getRound() / 2 + 1);
+    }
+
+    private static boolean canCastle(ChessBoard board, ChessGame.TeamColor color, int rookColumn) {
+        int row = (color == ChessGame.TeamColor.WHITE) ? 1 : 8;
+        return isUnmoved(board.getPiece(ChessPositionImpl.of(row, 5)), color, ChessPiece.PieceType.KING)
+                && isUnmoved(board.getPiece(ChessPositionImpl.of(row, rookColumn)), color, ChessPiece.PieceType.ROOK);
+    }
+
+    private static boolean isUnmoved(ChessPiece piece, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return piece != null && piece.getTeamColor() == color && piece.getPieceType() == type
+                && piece.numMovesTaken() == 0;
+    }
+
+    /**
+     * Append the square behind a pawn of the team that just moved if its only move was two squares on the previous
+     * round, whether or not an enemy pawn can take it
+     */
+    private static void appendEnPassant(ChessBoard board, ChessGame.TeamColor moved, StringBuilder builder) {
+        int row = (moved == ChessGame.TeamColor.WHITE) ? 4 : 5;
+        for (int column = 1; column <= 8; column++) {
+            ChessPiece pawn = board.getPiece(ChessPositionImpl.of(row, column));
+            if (pawn != null && pawn.getTeamColor() == moved
+                    && EnPassant.hasPawnJustDoubleMoved(pawn, row, board.getRound())) {
+                builder.append((char) ('a' + column - 1))
+                        .append((moved == ChessGame.TeamColor.WHITE) ? '3' : '6');
+                return;
+            }
+        }
+        builder.append('-');
+    }
+}
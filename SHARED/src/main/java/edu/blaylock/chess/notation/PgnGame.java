@@ -0,0 +1,48 @@
+package edu.blaylock.chess.notation;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.impl.ChessGameImpl;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One game of a PGN file
+ *
+ * @param tags   tag pairs in the order read or to write, like "White" -> "diego"
+ * @param moves  moves played from the starting position
+ * @param result "1-0", "0-1", "1/2-1/2" or "*" for a game still going
+ * @param start  position before the first move, the FEN tag's or the usual one
+ */
+public record PgnGame(Map<String, String> tags, List<ChessMove> moves, String result, ChessGame start) {
+
+    public static final String WHITE_WINS = "1-0";
+    public static final String BLACK_WINS = "0-1";
+    public static final String DRAW = "1/2-1/2";
+    public static final String UNFINISHED = "*";
+
+    /**
+     * @param result text to check
+     * @return whether the text is one of the four results
+     */
+    public static boolean isResult(CharSequence result) {
+        String text = result.toString();
+        return text.equals(WHITE_WINS) || text.equals(BLACK_WINS) || text.equals(DRAW) || text.equals(UNFINISHED);
+    }
+
+    /**
+     * Play every move from the starting position
+     *
+     * @return new game at the end of the moves, the starting position is left as is
+     * @throws InvalidMoveException if a move isn't legal
+     */
+    public ChessGame play() throws InvalidMoveException {
+        ChessGame game = new ChessGameImpl(start.getBoard().copy(), start.getTeamTurn());
+        for (ChessMove move : moves) {
+            game.makeMove(move);
+        }
+        return game;
+    }
+}
@@ -0,0 +1,238 @@
+package edu.blaylock.chess.notation;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Reads the games of a PGN file one at a time, so an archive of any size takes the memory of its largest game.<br>
+ * Text is pulled from the Reader through a fixed buffer and cut into tokens in place: tag pairs, moves in SAN, move
+ * numbers and the result. Comments, annotation glyphs ("$1", "!?") and variations are skipped without being kept.
+ * Moves are played as they are read, each SAN resolved against the legal moves of the position by San.decode.<br>
+ * A game with an illegal move or broken text is read to its end before next throws, so the caller can report it and
+ * go on with the following game.
+ */
+public class PgnReader implements Closeable {
+
+    /**
+     * Longest token the PGN standard allows
+     */
+    public static final int MAX_TOKEN = 255;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean lineStart = true;
+
+    private final StringBuilder token = new StringBuilder(MAX_TOKEN);
+    private int gamesRead;
+
+    /**
+     * @param reader text to read, closed with this reader
+     */
+    public PgnReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the next game
+     *
+     * @return next game, null once the text is over
+     * @throws IOException              if the Reader fails
+     * @throws InvalidMoveException     if the game has an illegal or ambiguous move, the reader is past the game
+     * @throws IllegalArgumentException if the game's text is broken, the reader is past the game
+     */
+    public PgnGame next() throws IOException, InvalidMoveException {
+        if (skipFiller() == -1) return null;
+        gamesRead++;
+
+        String problem = null;
+        Map<String, String> tags = new LinkedHashMap<>();
+        while (skipFiller() == '[') {
+            read();
+            if (problem == null) problem = readTag(tags);
+            else readTag(tags);
+        }
+
+        ChessGame start = null;
+        ChessGame game = null;
+        try {
+            String fen = tags.getOrDefault("FEN", Fen.STARTING_POSITION);
+            start = Fen.read(fen);
+            game = Fen.read(fen);
+        } catch (IllegalArgumentException e) {
+            if (problem == null) problem = e.getMessage();
+        }
+
+        boolean illegal = false;
+        List<ChessMove> moves = new ArrayList<>();
+        String result = null;
+        int depth = 0;
+        while (result == null) {
+            int c = skipFiller();
+            if (c == -1 || c == '[' && depth == 0) break;
+            read();
+
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                if (depth > 0) depth--;
+                else if (problem == null) problem = "Unmatched ')'";
+            } else if (c == '*') {
+                if (depth == 0) result = PgnGame.UNFINISHED;
+            } else if (isSymbolCharacter(c) && c != '+' && c != '#' && c != '=') {
+                readSymbol((char) c);
+                if (depth > 0 || isMoveNumber(token)) continue;
+                if (PgnGame.isResult(token)) {
+                    result = token.toString();
+                } else if (problem == null && game != null) {
+                    try {
+                        ChessMove move = San.decode(game, token);
+                        game.makeMove(move);
+                        moves.add(move);
+                    } catch (InvalidMoveException e) {
+                        problem = e.getMessage() + " after " + moves.size() + " moves";
+                        illegal = true;
+                    }
+                }
+            } else if (c == '$') {
+                skipWhile(Character::isDigit);
+            } else if (c != '.' && c != '!' && c != '?' && problem == null) {
+                problem = "Unexpected '" + (char) c + "'";
+            }
+        }
+
+        if (problem != null) {
+            String message = problem + " in game " + gamesRead;
+            if (illegal) throw new InvalidMoveException(message);
+            throw new IllegalArgumentException(message);
+        }
+        if (result == null) result = tags.getOrDefault("Result", PgnGame.UNFINISHED);
+        return new PgnGame(tags, moves, result, start);
+    }
+
+    /**
+     * Read a tag pair after its '[', up to its ']'
+     *
+     * @return problem found, null for none
+     */
+    private String readTag(Map<String, String> tags) throws IOException {
+        skipFiller();
+        int c = read();
+        if (c == -1 || !isSymbolCharacter(c)) return skipTag("Expected a tag name");
+        readSymbol((char) c);
+        String name = token.toString();
+
+        if (skipFiller() != '"') return skipTag("Expected a tag value");
+        read();
+        token.setLength(0);
+        while ((c = read()) != '"') {
+            if (c == -1 || c == '\n') return "Unterminated tag value";
+            if (c == '\\') c = read();
+            if (token.length() == MAX_TOKEN) return skipTag("Tag value too long");
+            token.append((char) c);
+        }
+        tags.put(name, token.toString());
+
+        if (skipFiller() != ']') return skipTag("Expected ']'");
+        read();
+        return null;
+    }
+
+    private String skipTag(String problem) throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != -1 && c != ']' && c != '\n');
+        return problem;
+    }
+
+    /**
+     * Read a symbol starting with first into token, stopping past MAX_TOKEN characters
+     */
+    private void readSymbol(char first) throws IOException {
+        token.setLength(0);
+        token.append(first);
+        int c;
+        while ((c = peek()) != -1 && isSymbolCharacter(c)) {
+            read();
+            if (token.length() < MAX_TOKEN) token.append((char) c);
+        }
+    }
+
+    private static boolean isSymbolCharacter(int c) {
+        return c < 128 && (Character.isLetterOrDigit(c) || "_+#=:-/".indexOf(c) >= 0);
+    }
+
+    private static boolean isMoveNumber(CharSequence symbol) {
+        for (int i = 0; i < symbol.length(); i++) {
+            if (!Character.isDigit(symbol.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Skip whitespace, comments and escaped lines
+     *
+     * @return next character after them, not yet read, or -1 at the end
+     */
+    private int skipFiller() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c == -1) return -1;
+            if (Character.isWhitespace(c)) {
+                read();
+            } else if (c == '{') {
+                skipWhile((character) -> character != '}');
+                read();
+            } else if (c == ';' || c == '%' && lineStart) {
+                skipWhile((character) -> character != '\n');
+            } else {
+                return c;
+            }
+        }
+    }
+
+    /**
+     * Read characters while they pass the test, leaving the first one that doesn't
+     */
+    private void skipWhile(IntPredicate test) throws IOException {
+        int c;
+        while ((c = peek()) != -1 && test.test(c)) {
+            read();
+        }
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+            position = 0;
+            if (limit == 0) return -1;
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+            lineStart = c == '\n';
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,121 @@
+package edu.blaylock.chess.notation;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.impl.ChessGameImpl;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Writes games as PGN one after the other, each straight to the Writer as its moves are turned into SAN.<br>
+ * Every game starts with the Seven Tag Roster, "?" standing in for what isn't known, then its other tags, then SetUp
+ * and FEN when it doesn't start from the usual position. Movetext lines are kept under LINE_LENGTH characters.
+ */
+public class PgnWriter implements Closeable, Flushable {
+
+    public static final int LINE_LENGTH = 80;
+
+    private static final String[] ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(LINE_LENGTH);
+
+    /**
+     * @param writer where to write, closed with this writer
+     */
+    public PgnWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Write a game followed by a blank line
+     *
+     * @param game game to write, its result replaces any Result tag
+     * @throws IOException          if the Writer fails
+     * @throws InvalidMoveException if one of its moves isn't legal, part of the game may have been written
+     */
+    public void write(PgnGame game) throws IOException, InvalidMoveException {
+        Map<String, String> tags = game.tags();
+        for (String name : ROSTER) {
+            String value = name.equals("Result") ? game.result() : tags.get(name);
+            if (value == null) value = name.equals("Date") ? "????.??.??" : "?";
+            writeTag(name, value);
+        }
+
+        String fen = Fen.write(game.start());
+        boolean setUp = !fen.equals(Fen.STARTING_POSITION);
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            String name = tag.getKey();
+            if (isRoster(name) || setUp && (name.equals("SetUp") || name.equals("FEN"))) continue;
+            writeTag(name, tag.getValue());
+        }
+        if (setUp) {
+            writeTag("SetUp", "1");
+            writeTag("FEN", fen);
+        }
+        writer.write('\n');
+
+        ChessGame replay = new ChessGameImpl(game.start().getBoard().copy(), game.start().getTeamTurn());
+        boolean first = true;
+        for (ChessMove move : game.moves()) {
+            int number = replay.getBoard().getRound() / 2 + 1;
+            if (replay.getTeamTurn() == ChessGame.TeamColor.WHITE) {
+                word(number + ".");
+            } else if (first) {
+                word(number + "...");
+            }
+            first = false;
+
+            word(San.play(replay, move));
+        }
+        word(game.result());
+        writer.append(line).write("\n\n");
+        line.setLength(0);
+    }
+
+    private static boolean isRoster(String name) {
+        for (String rosterName : ROSTER) {
+            if (rosterName.equals(name)) return true;
+        }
+        return false;
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        writer.write('[');
+        writer.write(name);
+        writer.write(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') writer.write('\\');
+            writer.write(c);
+        }
+        writer.write("\"]\n");
+    }
+
+    /**
+     * Add a word to the movetext, writing out the line first if it would get too long
+     */
+    private void word(String word) throws IOException {
+        if (line.length() + 1 + word.length() >= LINE_LENGTH) {
+            writer.append(line).write('\n');
+            line.setLength(0);
+        }
+        if (!line.isEmpty()) line.append(' ');
+        line.append(word);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
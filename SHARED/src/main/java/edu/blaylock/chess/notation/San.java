@@ -0,0 +1,253 @@
+package edu.blaylock.chess.notation;
+
+import chess.*;
+import edu.blaylock.chess.MoveUndo;
+import edu.blaylock.chess.impl.BitboardChessBoardImpl;
+import edu.blaylock.chess.impl.ChessMoveImpl;
+import edu.blaylock.chess.impl.ChessPositionImpl;
+import edu.blaylock.chess.rules.PackedMove;
+import edu.blaylock.chess.rules.PositionCache;
+
+/**
+ * Standard Algebraic Notation, like "Nbd7", "exd5", "e8=Q+" or "O-O-O#": the piece letter (none for pawns), as much
+ * of the start square as needed to tell apart pieces of the same type reaching the same square, 'x' for captures, the
+ * end square, the promotion piece and '+' or '#' when the move checks or mates.<br>
+ * Both directions work from the legal moves of the position kept by PositionCache, looked through once per move:
+ * encoding tells the piece apart in the same pass that finds the move, and decoding reads the text before matching it
+ * against them. The check suffix comes from the position after the move, which encode makes on a copy of the board.
+ * When that position is at hand anyway, as it is for a move just made or about to be made, the overload taking it and
+ * play save the copy.
+ */
+public final class San {
+
+    private static final String PIECE_LETTERS = "KQBNRP";
+
+    private San() {
+    }
+
+    /**
+     * Write a move in SAN
+     *
+     * @param game game about to make the move, left unchanged
+     * @param move legal move
+     * @return move in SAN, with its check or mate suffix
+     * @throws InvalidMoveException if the move isn't legal
+     */
+    public static String encode(ChessGame game, ChessMove move) throws InvalidMoveException {
+        StringBuilder builder = encodeMove(game, move);
+        ChessBoard after = game.getBoard().copy();
+        after.makeMove(move, new MoveUndo());
+        appendSuffix(after, game.getTeamTurn().next(), builder);
+        return builder.toString();
+    }
+
+    /**
+     * Write a move in SAN, given the game it leads to
+     *
+     * @param game  game before the move, left unchanged
+     * @param move  legal move
+     * @param after game after the move
+     * @return move in SAN, with its check or mate suffix
+     * @throws InvalidMoveException if the move isn't legal
+     */
+    public static String encode(ChessGame game, ChessMove move, ChessGame after) throws InvalidMoveException {
+        StringBuilder builder = encodeMove(game, move);
+        appendSuffix(after.getBoard(), after.getTeamTurn(), builder);
+        return builder.toString();
+    }
+
+    /**
+     * Make a move and write it in SAN
+     *
+     * @param game game to make the move in
+     * @param move legal move
+     * @return move in SAN, with its check or mate suffix
+     * @throws InvalidMoveException if the move isn't legal, the game is then unchanged
+     */
+    public static String play(ChessGame game, ChessMove move) throws InvalidMoveException {
+        StringBuilder builder = encodeMove(game, move);
+        game.makeMove(move);
+        appendSuffix(game.getBoard(), game.getTeamTurn(), builder);
+        return builder.toString();
+    }
+
+    /**
+     * @return move in SAN without its suffix
+     */
+    private static StringBuilder encodeMove(ChessGame game, ChessMove move) throws InvalidMoveException {
+        ChessBoard board = game.getBoard();
+        PositionCache.Entry entry = PositionCache.shared().lookup(board, game.getTeamTurn());
+        ChessPiece piece = board.getPiece(move.getStartPosition());
+        if (piece == null) throw new InvalidMoveException("Illegal move " + move);
+        ChessPiece.PieceType type = piece.getPieceType();
+
+        // One pass over the legal moves finds the move and the other pieces of its type reaching the same square
+        int from = BitboardChessBoardImpl.squareOf(move.getStartPosition());
+        int to = BitboardChessBoardImpl.squareOf(move.getEndPosition());
+        int packed = -1;
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < entry.size(); i++) {
+            int candidate = entry.move(i);
+            if (PackedMove.to(candidate) != to) continue;
+            int other = PackedMove.from(candidate);
+            if (other == from) {
+                packed = candidate;
+            } else if (type != ChessPiece.PieceType.PAWN
+                    && board.getPiece(ChessPositionImpl.ofSquare(other)).getPieceType() == type) {
+                ambiguous = true;
+                sameFile |= other % 8 == from % 8;
+                sameRank |= other / 8 == from / 8;
+            }
+        }
+        if (packed == -1) throw new InvalidMoveException("Illegal move " + move);
+
+        StringBuilder builder = new StringBuilder(8);
+        boolean capture = PackedMove.hasFlag(packed, PackedMove.CAPTURE);
+        if (PackedMove.hasFlag(packed, PackedMove.CASTLE)) {
+            builder.append((to > from) ? "O-O" : "O-O-O");
+        } else if (type == ChessPiece.PieceType.PAWN) {
+            if (capture) builder.append(file(from)).append('x');
+            appendSquare(to, builder);
+            if (PackedMove.hasFlag(packed, PackedMove.PROMOTION)) {
+                ChessPiece.PieceType promotion = (move.getPromotionPiece() != null)
+                        ? move.getPromotionPiece() : ChessPiece.PieceType.QUEEN;
+                builder.append('=').append(letter(promotion));
+            }
+        } else {
+            builder.append(letter(type));
+            // File when it tells the piece apart from the others, else rank, else both
+            if (ambiguous && !sameFile) {
+                builder.append(file(from));
+            } else if (ambiguous && !sameRank) {
+                builder.append(rank(from));
+            } else if (ambiguous) {
+                builder.append(file(from)).append(rank(from));
+            }
+            if (capture) builder.append('x');
+            appendSquare(to, builder);
+        }
+        return builder;
+    }
+
+    /**
+     * @param after board after the move
+     * @param turn  team to move after the move
+     */
+    private static void appendSuffix(ChessBoard after, ChessGame.TeamColor turn, StringBuilder builder) {
+        PositionCache.Entry reply = PositionCache.shared().lookup(after, turn);
+        if (reply.isInCheckmate()) builder.append('#');
+        else if (reply.isInCheck()) builder.append('+');
+    }
+
+    /**
+     * Read a move in SAN. Check, mate and annotation suffixes ("+", "#", "!", "?") are ignored, and castles may be
+     * written with zeros.
+     *
+     * @param game game to move in
+     * @param san  move in SAN
+     * @return the legal move it names, with its promotion piece
+     * @throws InvalidMoveException if the text can't be read or names no legal move, or more than one
+     */
+    public static ChessMove decode(ChessGame game, CharSequence san) throws InvalidMoveException {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) end--;
+        if (end < 2) throw new InvalidMoveException("Can't read move " + san);
+
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        PositionCache.Entry entry = PositionCache.shared().lookup(game.getBoard(), turn);
+
+        if (isCastle(san, end)) {
+            int king = (turn == ChessGame.TeamColor.WHITE) ? 4 : 60;
+            int to = king + ((end == 3) ? 2 : -2);
+            int packed = entry.find(king, to);
+            if (packed == -1 || !PackedMove.hasFlag(packed, PackedMove.CASTLE)) {
+                throw new InvalidMoveException("Illegal castle " + san);
+            }
+            return PackedMove.toChessMove(packed);
+        }
+
+        ChessPiece.PieceType promotion = null;
+        char last = san.charAt(end - 1);
+        // Only a queen, bishop, knight or rook can be promoted to, a trailing K or P is left to fail as a square
+        if (PIECE_LETTERS.indexOf(last) > 0 && last != 'P') {
+            promotion = type(last);
+            end -= (end > 2 && san.charAt(end - 2) == '=') ? 2 : 1;
+        }
+        if (end < 2 || !isSquare(san.charAt(end - 2), san.charAt(end - 1))) {
+            throw new InvalidMoveException("Can't read move " + san);
+        }
+        int to = (san.charAt(end - 1) - '1') * 8 + (san.charAt(end - 2) - 'a');
+
+        int start = 0;
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        if (PIECE_LETTERS.indexOf(san.charAt(0)) >= 0) {
+            type = type(san.charAt(0));
+            start = 1;
+        }
+
+        // What is left between the piece and the end square: file, rank, both or nothing, then maybe 'x'
+        int file = -1;
+        int rank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') file = c - 'a';
+            else if (c >= '1' && c <= '8') rank = c - '1';
+            else if (c != 'x' && c != ':' && c != '-') throw new InvalidMoveException("Can't read move " + san);
+        }
+
+        ChessBoard board = game.getBoard();
+        int found = -1;
+        for (int i = 0; i < entry.size(); i++) {
+            int packed = entry.move(i);
+            int from = PackedMove.from(packed);
+            if (PackedMove.to(packed) != to || (file >= 0 && from % 8 != file) || (rank >= 0 && from / 8 != rank)
+                    || board.getPiece(ChessPositionImpl.ofSquare(from)).getPieceType() != type
+                    || PackedMove.hasFlag(packed, PackedMove.CASTLE)) continue;
+
+            if (found != -1) throw new InvalidMoveException("Ambiguous move " + san);
+            found = packed;
+        }
+        if (found == -1) throw new InvalidMoveException("Illegal move " + san);
+
+        if (PackedMove.hasFlag(found, PackedMove.PROMOTION) != (promotion != null)) {
+            throw new InvalidMoveException("Wrong promotion in " + san);
+        }
+        return new ChessMoveImpl(ChessPositionImpl.ofSquare(PackedMove.from(found)), ChessPositionImpl.ofSquare(to),
+                promotion);
+    }
+
+    private static boolean isCastle(CharSequence san, int end) {
+        if (end != 3 && end != 5) return false;
+        for (int i = 0; i < end; i++) {
+            char c = san.charAt(i);
+            if ((i % 2 == 0) ? (c != 'O' && c != '0') : c != '-') return false;
+        }
+        return true;
+    }
+
+    private static boolean isSquare(char file, char rank) {
+        return file >= 'a' && file <= 'h' && rank >= '1' && rank <= '8';
+    }
+
+    private static ChessPiece.PieceType type(char letter) {
+        return ChessPiece.PieceType.values()[PIECE_LETTERS.indexOf(letter)];
+    }
+
+    private static char letter(ChessPiece.PieceType type) {
+        return PIECE_LETTERS.charAt(type.ordinal());
+    }
+
+    private static char file(int square) {
+        return (char) ('a' + square % 8);
+    }
+
+    private static char rank(int square) {
+        return (char) ('1' + square / 8);
+    }
+
+    private static void appendSquare(int square, StringBuilder builder) {
+        builder.append(file(square)).append(rank(square));
+    }
+}
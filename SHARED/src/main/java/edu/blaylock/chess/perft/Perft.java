@@ -0,0 +1,185 @@
+package edu.blaylock.chess.perft;
+
+import chess.*;
+import edu.blaylock.chess.MoveUndo;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.impl.ChessMoveImpl;
+import edu.blaylock.chess.rules.PositionCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts the positions reachable in exactly a given number of moves (perft). Comparing the counts with published ones
+ * checks the move generator, and timing them measures it.<br>
+ * Moves come from ChessGame.validMoves and are made and taken back on the game's board with ChessBoard.makeMove and
+ * unmakeMove, switching the team to move by hand. A pawn reaching the last row counts once for each promotion piece.
+ * At the last depth the moves are only counted, not made.<br>
+ * A ChessGameImpl is given a PositionCache of its own with a single slot, enough for the validMoves calls of one
+ * position to share their generation, so the positions perft runs through don't fill the shared cache.
+ */
+public class Perft {
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+
+    private final ChessGame game;
+
+    /**
+     * Reused for every node, indexed by distance from the root
+     */
+    private final List<List<ChessMove>> moveLists = new ArrayList<>();
+    private final List<MoveUndo> undos = new ArrayList<>();
+
+    public Perft(ChessGame game) {
+        this.game = game;
+        if (game instanceof ChessGameImpl impl) impl.setPositionCache(new PositionCache(0));
+    }
+
+    /**
+     * @param depth number of moves to look ahead
+     * @return number of positions at that depth
+     */
+    public long perft(int depth) {
+        if (depth <= 0) return 1;
+        return count(depth, 0);
+    }
+
+    /**
+     * Perft split by the first move, useful to find which move a wrong count comes from
+     *
+     * @param depth number of moves to look ahead, including the first one
+     * @return positions at that depth after each first move, keyed by the move in coordinates ("e2e4")
+     */
+    public Map<String, Long> divide(int depth) {
+        Map<String, Long> result = new TreeMap<>();
+        if (depth <= 0) return result;
+
+        MoveUndo undo = undo(0);
+        for (ChessMove move : legalMoves(0)) {
+            long nodes = 1;
+            if (depth > 1) {
+                play(move, undo);
+                nodes = count(depth - 1, 1);
+                takeBack(undo);
+            }
+            result.put(toCoordinates(move), nodes);
+        }
+        return result;
+    }
+
+    private long count(int depth, int ply) {
+        List<ChessMove> moves = legalMoves(ply);
+        if (depth == 1) return moves.size();
+
+        MoveUndo undo = undo(ply);
+        long nodes = 0;
+        for (ChessMove move : moves) {
+            play(move, undo);
+            nodes += count(depth - 1, ply + 1);
+            takeBack(undo);
+        }
+        return nodes;
+    }
+
+    private List<ChessMove> legalMoves(int ply) {
+        while (moveLists.size() <= ply) moveLists.add(new ArrayList<>());
+        List<ChessMove> moves = moveLists.get(ply);
+        moves.clear();
+
+        // Copy the locations, as boards may hand out a live view
+        List<ChessPosition> positions = new ArrayList<>(16);
+        game.getBoard().pieceLocationIterator(game.getTeamTurn()).forEach(positions::add);
+
+        for (ChessPosition position : positions) {
+            for (ChessMove move : game.validMoves(position)) {
+                if (!game.shouldPromotionOccur(move)) {
+                    moves.add(move);
+                    continue;
+                }
+
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    moves.add(new ChessMoveImpl(move.getStartPosition(), move.getEndPosition(), promotion));
+                }
+            }
+        }
+        return moves;
+    }
+
+    private MoveUndo undo(int ply) {
+        while (undos.size() <= ply) undos.add(new MoveUndo());
+        return undos.get(ply);
+    }
+
+    private void play(ChessMove move, MoveUndo undo) {
+        game.getBoard().makeMove(move, undo);
+        game.setTeamTurn(game.getTeamTurn().next());
+    }
+
+    private void takeBack(MoveUndo undo) {
+        game.getBoard().unmakeMove(undo);
+        game.setTeamTurn(game.getTeamTurn().next());
+    }
+
+    /**
+     * @param move move to write
+     * @return start and end square as column letter and row number, followed by the promotion piece if any
+     */
+    public static String toCoordinates(ChessMove move) {
+        StringBuilder builder = new StringBuilder(5);
+        for (ChessPosition position : new ChessPosition[]{move.getStartPosition(), move.getEndPosition()}) {
+            builder.append((char) ('a' + position.getColumn() - 1)).append(position.getRow());
+        }
+
+        if (move.getPromotionPiece() != null) {
+            builder.append(switch (move.getPromotionPiece()) {
+                case QUEEN -> 'q';
+                case ROOK -> 'r';
+                case BISHOP -> 'b';
+                case KNIGHT -> 'n';
+                default -> '?';
+            });
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Runs every PerftPosition up to a depth and prints the node counts, whether they match and nodes per second.
+     * Exits with status 1 if any count is wrong.<br>
+     * Arguments: [max depth, default 4] [board implementation: object or bitboard, default chosen by the factory]
+     *
+     * @param args see above
+     */
+    public static void main(String[] args) {
+        int maxDepth = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+        ChessBoardFactory.Implementation implementation = (args.length > 1)
+                ? ChessBoardFactory.Implementation.valueOf(args[1].toUpperCase())
+                : ChessBoardFactory.getImplementation();
+
+        System.out.printf("Board: %s%n", implementation);
+        System.out.printf("%-12s %5s %12s %12s %6s %10s %12s%n",
+                "Position", "Depth", "Nodes", "Expected", "Match", "Millis", "Nodes/s");
+
+        boolean allMatch = true;
+        for (PerftPosition position : PerftPosition.values()) {
+            for (int depth = 1; depth <= Math.min(maxDepth, position.maxDepth()); depth++) {
+                Perft perft = new Perft(position.newGame(implementation));
+
+                long start = System.nanoTime();
+                long nodes = perft.perft(depth);
+                long elapsed = System.nanoTime() - start;
+
+                boolean match = nodes == position.expectedNodes(depth);
+                allMatch &= match;
+                System.out.printf("%-12s %5d %12d %12d %6s %10d %12d%n", position, depth, nodes,
+                        position.expectedNodes(depth), match ? "yes" : "NO", elapsed / 1_000_000,
+                        nodes * 1_000_000_000L / Math.max(elapsed, 1));
+            }
+        }
+
+        if (!allMatch) System.exit(1);
+    }
+}
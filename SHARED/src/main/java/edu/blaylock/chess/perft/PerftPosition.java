@@ -0,0 +1,65 @@
+package edu.blaylock.chess.perft;
+
+import chess.ChessGame;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.notation.Fen;
+
+/**
+ * Well known perft positions along with their published node counts, starting at depth 1, given in FEN. White is to
+ * move in all of them.
+ */
+public enum PerftPosition {
+    START("Starting position", Fen.STARTING_POSITION,
+            new long[]{20, 400, 8902, 197281, 4865609, 119060324}),
+    KIWIPETE("Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            new long[]{48, 2039, 97862, 4085603, 193690690}),
+    POSITION_3("Rook and pawn endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            new long[]{14, 191, 2812, 43238, 674624, 11030083}),
+    POSITION_4("Promotions and checks", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            new long[]{6, 264, 9467, 422333, 15833292}),
+    POSITION_5("Promotion by capture", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            new long[]{44, 1486, 62379, 2103487, 89941194}),
+    POSITION_6("Middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            new long[]{46, 2079, 89890, 3894594, 164075551});
+
+    private final String description;
+    private final String fen;
+    private final long[] expected;
+
+    PerftPosition(String description, String fen, long[] expected) {
+        this.description = description;
+        this.fen = fen;
+        this.expected = expected;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return deepest depth with a known node count
+     */
+    public int maxDepth() {
+        return expected.length;
+    }
+
+    /**
+     * @param depth depth starting at 1
+     * @return published node count
+     */
+    public long expectedNodes(int depth) {
+        return expected[depth - 1];
+    }
+
+    public String getFen() {
+        return fen;
+    }
+
+    /**
+     * @param implementation board implementation to use
+     * @return new game in this position, white to move
+     */
+    public ChessGame newGame(ChessBoardFactory.Implementation implementation) {
+        return Fen.read(fen, implementation);
+    }
+}
@@ -0,0 +1,178 @@
+package edu.blaylock.chess.rules;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Precomputed attack tables over bitboards, using the square index of BitboardChessBoardImpl
+ * ((row - 1) * 8 + column - 1). Sliding pieces are handled with rays: the ray from a square is cut off past the first
+ * occupied square in its direction.<br>
+ * Piece bitboard arrays given to this class are indexed by color ordinal * 6 + piece type ordinal.
+ */
+public class Attacks {
+
+    private static final int[] ROW_CHANGE = {1, 1, 0, 1, -1, -1, 0, -1};
+    private static final int[] COLUMN_CHANGE = {0, 1, 1, -1, 0, -1, -1, 1};
+
+    /**
+     * Directions 0 to 3 increase the square index, 4 to 7 decrease it
+     */
+    private static final int NORTH = 0, NORTH_EAST = 1, EAST = 2, NORTH_WEST = 3,
+            SOUTH = 4, SOUTH_WEST = 5, WEST = 6, SOUTH_EAST = 7;
+
+    private static final long[][] RAYS = new long[8][64];
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightSteps = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+
+        for (int square = 0; square < 64; square++) {
+            int row = square / 8;
+            int column = square % 8;
+
+            for (int[] step : knightSteps) {
+                KNIGHT[square] |= bit(row + step[0], column + step[1]);
+            }
+
+            for (int direction = 0; direction < 8; direction++) {
+                KING[square] |= bit(row + ROW_CHANGE[direction], column + COLUMN_CHANGE[direction]);
+
+                for (int distance = 1; distance < 8; distance++) {
+                    RAYS[direction][square] |= bit(row + ROW_CHANGE[direction] * distance,
+                            column + COLUMN_CHANGE[direction] * distance);
+                }
+            }
+
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = bit(row + 1, column - 1) | bit(row + 1, column + 1);
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = bit(row - 1, column - 1) | bit(row - 1, column + 1);
+        }
+
+        for (int from = 0; from < 64; from++) {
+            for (int direction = 0; direction < 8; direction++) {
+                long ray = RAYS[direction][from];
+                long remaining = ray;
+                while (remaining != 0) {
+                    int to = Long.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+
+                    BETWEEN[from][to] = ray & ~RAYS[direction][to] & ~(1L << to);
+                    LINE[from][to] = ray | RAYS[(direction + 4) % 8][from] | (1L << from);
+                }
+            }
+        }
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @param color  color of the pawn
+     * @param square square of the pawn
+     * @return squares the pawn attacks diagonally
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return ray(NORTH_EAST, square, occupied) | ray(NORTH_WEST, square, occupied)
+                | ray(SOUTH_EAST, square, occupied) | ray(SOUTH_WEST, square, occupied);
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return ray(NORTH, square, occupied) | ray(EAST, square, occupied)
+                | ray(SOUTH, square, occupied) | ray(WEST, square, occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return bishopAttacks(square, occupied) | rookAttacks(square, occupied);
+    }
+
+    /**
+     * @return squares strictly between two squares on a shared row, column or diagonal, otherwise 0
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return the whole row, column or diagonal going through both squares, otherwise 0
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * Find every piece of a color attacking a square
+     *
+     * @param square   square attacked
+     * @param occupied occupancy used to block sliding pieces
+     * @param pieces   piece bitboards
+     * @param byColor  color of the attackers
+     * @return bitboard of the attackers
+     */
+    public static long attackersTo(int square, long occupied, long[] pieces, ChessGame.TeamColor byColor) {
+        int base = byColor.ordinal() * 6;
+        long queens = pieces[base + ChessPiece.PieceType.QUEEN.ordinal()];
+
+        return (PAWN[byColor.next().ordinal()][square] & pieces[base + ChessPiece.PieceType.PAWN.ordinal()])
+                | (KNIGHT[square] & pieces[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (KING[square] & pieces[base + ChessPiece.PieceType.KING.ordinal()])
+                | (bishopAttacks(square, occupied) & (pieces[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens))
+                | (rookAttacks(square, occupied) & (pieces[base + ChessPiece.PieceType.ROOK.ordinal()] | queens));
+    }
+
+    /**
+     * Find every square attacked by a color
+     *
+     * @param pieces   piece bitboards
+     * @param occupied occupancy used to block sliding pieces
+     * @param color    color of the attackers
+     * @return bitboard of attacked squares
+     */
+    public static long attackMap(long[] pieces, long occupied, ChessGame.TeamColor color) {
+        int base = color.ordinal() * 6;
+        long attacks = 0;
+
+        for (int type = 0; type < 6; type++) {
+            long remaining = pieces[base + type];
+            while (remaining != 0) {
+                int square = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+
+                attacks |= switch (ChessPiece.PieceType.values()[type]) {
+                    case KING -> KING[square];
+                    case QUEEN -> queenAttacks(square, occupied);
+                    case BISHOP -> bishopAttacks(square, occupied);
+                    case KNIGHT -> KNIGHT[square];
+                    case ROOK -> rookAttacks(square, occupied);
+                    case PAWN -> PAWN[color.ordinal()][square];
+                };
+            }
+        }
+        return attacks;
+    }
+
+    private static long ray(int direction, int square, long occupied) {
+        long attacks = RAYS[direction][square];
+        long blockers = attacks & occupied;
+        if (blockers == 0) return attacks;
+
+        int blocker = (direction < 4) ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+        return attacks ^ RAYS[direction][blocker];
+    }
+
+    private static long bit(int row, int column) {
+        if (row < 0 || row > 7 || column < 0 || column > 7) return 0;
+        return 1L << (row * 8 + column);
+    }
+}
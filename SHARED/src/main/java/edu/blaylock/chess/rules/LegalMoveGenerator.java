@@ -0,0 +1,312 @@
+package edu.blaylock.chess.rules;
+
+import chess.*;
+import edu.blaylock.chess.impl.BitboardChessBoardImpl;
+import edu.blaylock.chess.impl.ChessMoveImpl;
+import edu.blaylock.chess.rules.special.EnPassant;
+
+import java.util.Collection;
+
+import static edu.blaylock.chess.impl.BitboardChessBoardImpl.positionOf;
+import static edu.blaylock.chess.impl.BitboardChessBoardImpl.squareOf;
+
+/**
+ * Generates only legal moves for one color of a position. The pieces checking the king, the pieces pinned to the king
+ * and the squares a piece may move to in order to answer a check are worked out once on construction, so moves never
+ * have to be tried on the board to see whether they leave the king in check.<br>
+ * Follows the same rules as MoveValidator and the special rules: pawns double move when they have not moved yet from
+ * their starting row, castling needs an unmoved king on its starting column and an unmoved rook in the corner, and en
+ * passant takes a pawn whose only move was made the previous round. A color without a king is never in check.<br>
+ * The generator is only valid until the board changes.
+ */
+public class LegalMoveGenerator {
+
+    private final ChessBoard board;
+    private final ChessGame.TeamColor color;
+    private final ChessGame.TeamColor enemyColor;
+
+    /**
+     * Indexed by color ordinal * 6 + piece type ordinal
+     */
+    private final long[] pieces = new long[12];
+    private final long own;
+    private final long enemy;
+    private final long occupied;
+
+    private final int king;
+    private final long checkers;
+    private final long pinned;
+
+    /**
+     * Squares a piece other than the king must move to, either capturing the checker or blocking it
+     */
+    private final long evasions;
+
+    public LegalMoveGenerator(ChessBoard board, ChessGame.TeamColor color) {
+        this.board = board;
+        this.color = color;
+        this.enemyColor = color.next();
+
+        loadPieces(board, pieces);
+
+        long white = 0;
+        long black = 0;
+        for (int type = 0; type < 6; type++) {
+            white |= pieces[type];
+            black |= pieces[6 + type];
+        }
+        own = (color == ChessGame.TeamColor.WHITE) ? white : black;
+        enemy = (color == ChessGame.TeamColor.WHITE) ? black : white;
+        occupied = white | black;
+
+        long kings = pieces(color, ChessPiece.PieceType.KING);
+        if (kings == 0) {
+            king = -1;
+            checkers = 0;
+            pinned = 0;
+            evasions = ~0L;
+            return;
+        }
+
+        king = Long.numberOfTrailingZeros(kings);
+        checkers = Attacks.attackersTo(king, occupied, pieces, enemyColor);
+
+        long queens = pieces(enemyColor, ChessPiece.PieceType.QUEEN);
+        long snipers = (Attacks.rookAttacks(king, 0) & (pieces(enemyColor, ChessPiece.PieceType.ROOK) | queens))
+                | (Attacks.bishopAttacks(king, 0) & (pieces(enemyColor, ChessPiece.PieceType.BISHOP) | queens));
+
+        long pins = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+
+            long blockers = Attacks.between(king, sniper) & occupied;
+            if (Long.bitCount(blockers) == 1) pins |= blockers & own;
+        }
+        pinned = pins;
+
+        if (checkers == 0) {
+            evasions = ~0L;
+        } else if (Long.bitCount(checkers) == 1) {
+            evasions = checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+        } else {
+            evasions = 0;
+        }
+    }
+
+    /**
+     * @return whether the king of the color is attacked
+     */
+    public boolean isInCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * @return whether the color has any legal move at all
+     */
+    public boolean hasLegalMove() {
+        long remaining = own;
+        while (remaining != 0) {
+            if (targets(Long.numberOfTrailingZeros(remaining)) != 0) return true;
+            remaining &= remaining - 1;
+        }
+        return false;
+    }
+
+    /**
+     * Add the legal moves of the piece at a position. Nothing is added if the position doesn't hold a piece of the
+     * color. Pawn moves onto the last row are added once, without a promotion piece, like MoveValidator does.
+     *
+     * @param position position of the piece moving
+     * @param moves    collection to add moves to
+     */
+    public void addMoves(ChessPosition position, Collection<ChessMove> moves) {
+        long targets = targets(squareOf(position));
+
+        while (targets != 0) {
+            moves.add(new ChessMoveImpl(position, positionOf(Long.numberOfTrailingZeros(targets)), null));
+            targets &= targets - 1;
+        }
+    }
+
+    /**
+     * Add the legal moves of the piece on a square as PackedMoves, with every flag set. Like addMoves with a
+     * ChessPosition, moves onto the last row are added once without a promotion piece.
+     *
+     * @param square square of the piece moving
+     * @param moves  list to add moves to
+     */
+    public void addMoves(int square, MoveList moves) {
+        long targets = targets(square);
+        boolean pawn = (pieces(color, ChessPiece.PieceType.PAWN) & (1L << square)) != 0;
+
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+
+            int flags = ((enemy & (1L << to)) != 0) ? PackedMove.CAPTURE : 0;
+            if (pawn) {
+                if (Math.abs(to - square) == 16) flags |= PackedMove.DOUBLE_PUSH;
+                if (to % 8 != square % 8 && flags == 0) flags |= PackedMove.CAPTURE | PackedMove.EN_PASSANT;
+                if (to < 8 || to > 55) flags |= PackedMove.PROMOTION;
+            } else if (square == king && Math.abs(to - square) == 2) {
+                flags |= PackedMove.CASTLE;
+            }
+            moves.add(PackedMove.of(square, to, null, flags));
+        }
+    }
+
+    /**
+     * Add the legal moves of every piece of the color as PackedMoves, see addMoves
+     *
+     * @param moves list to add moves to
+     */
+    public void addAllMoves(MoveList moves) {
+        for (long remaining = own; remaining != 0; remaining &= remaining - 1) {
+            addMoves(Long.numberOfTrailingZeros(remaining), moves);
+        }
+    }
+
+    /**
+     * @param square square of the piece moving
+     * @return bitboard of every square the piece can legally move to
+     */
+    public long targets(int square) {
+        long bit = 1L << square;
+        if ((own & bit) == 0) return 0;
+
+        if (square == king) return kingTargets();
+        if (Long.bitCount(checkers) > 1) return 0;
+
+        long targets;
+        if ((pieces(color, ChessPiece.PieceType.PAWN) & bit) != 0) {
+            targets = pawnTargets(square) & evasions;
+            if (king >= 0 && (pinned & bit) != 0) targets &= Attacks.line(king, square);
+            return targets | enPassantTargets(square);
+        } else if ((pieces(color, ChessPiece.PieceType.KNIGHT) & bit) != 0) {
+            targets = Attacks.knightAttacks(square);
+        } else if ((pieces(color, ChessPiece.PieceType.BISHOP) & bit) != 0) {
+            targets = Attacks.bishopAttacks(square, occupied);
+        } else if ((pieces(color, ChessPiece.PieceType.ROOK) & bit) != 0) {
+            targets = Attacks.rookAttacks(square, occupied);
+        } else if ((pieces(color, ChessPiece.PieceType.QUEEN) & bit) != 0) {
+            targets = Attacks.queenAttacks(square, occupied);
+        } else {
+            // A second king of the same color, moves like one but isn't the one being protected
+            targets = Attacks.kingAttacks(square);
+        }
+
+        targets &= ~own & evasions;
+        if (king >= 0 && (pinned & bit) != 0) targets &= Attacks.line(king, square);
+        return targets;
+    }
+
+    private long kingTargets() {
+        long withoutKing = occupied & ~(1L << king);
+        long attacked = Attacks.attackMap(pieces, withoutKing, enemyColor);
+
+        return (Attacks.kingAttacks(king) & ~own & ~attacked) | castlingTargets();
+    }
+
+    private long castlingTargets() {
+        if (checkers != 0 || king % 8 != 4) return 0;
+
+        ChessPiece kingPiece = board.getPiece(positionOf(king));
+        if (kingPiece.numMovesTaken() > 0) return 0;
+
+        long targets = 0;
+        if (canCastle(king + 3, king + 1, king + 2)) targets |= 1L << (king + 2);
+        if (canCastle(king - 4, king - 1, king - 2)) targets |= 1L << (king - 2);
+        return targets;
+    }
+
+    private boolean canCastle(int rook, int passed, int destination) {
+        if ((pieces(color, ChessPiece.PieceType.ROOK) & (1L << rook)) == 0) return false;
+        if (board.getPiece(positionOf(rook)).numMovesTaken() > 0) return false;
+        if ((Attacks.between(king, rook) & occupied) != 0) return false;
+
+        return !isAttacked(passed, occupied) && !isAttacked(destination, occupied);
+    }
+
+    private long pawnTargets(int square) {
+        ChessPosition position = positionOf(square);
+        int forward = (color == ChessGame.TeamColor.WHITE) ? 8 : -8;
+        long targets = Attacks.pawnAttacks(color, square) & enemy;
+
+        int to = square + forward;
+        if (to < 0 || to > 63 || (occupied & (1L << to)) != 0) return targets;
+        targets |= 1L << to;
+
+        int startRow = (color == ChessGame.TeamColor.WHITE) ? 2 : 7;
+        to += forward;
+        if (position.getRow() == startRow && (occupied & (1L << to)) == 0
+                && board.getPiece(position).numMovesTaken() == 0) {
+            targets |= 1L << to;
+        }
+
+        return targets;
+    }
+
+    /**
+     * En passant captures are checked by looking at the king after removing both pawns, which covers the capture
+     * answering a check as well as the capture uncovering an attack along the row.
+     */
+    private long enPassantTargets(int square) {
+        long enemyPawns = pieces(enemyColor, ChessPiece.PieceType.PAWN);
+        int forward = (color == ChessGame.TeamColor.WHITE) ? 8 : -8;
+        int column = square % 8;
+
+        long targets = 0;
+        for (int side = -1; side <= 1; side += 2) {
+            if (column + side < 0 || column + side > 7) continue;
+
+            int captured = square + side;
+            int to = captured + forward;
+            if ((enemyPawns & (1L << captured)) == 0 || to < 0 || to > 63) continue;
+            if (!EnPassant.hasPawnJustDoubleMoved(board.getPiece(positionOf(captured)), captured / 8 + 1,
+                    board.getRound())) continue;
+
+            if (king >= 0) {
+                long after = (occupied & ~(1L << square) & ~(1L << captured)) | (1L << to);
+                long attackers = Attacks.attackersTo(king, after, pieces, enemyColor) & ~(1L << captured);
+                if (attackers != 0) continue;
+            }
+            targets |= 1L << to;
+        }
+        return targets;
+    }
+
+    private boolean isAttacked(int square, long occupancy) {
+        return Attacks.attackersTo(square, occupancy, pieces, enemyColor) != 0;
+    }
+
+    private long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * Fill piece bitboards from any board. Bitboard boards are copied directly, others are scanned.
+     *
+     * @param board  board to read
+     * @param pieces cleared array of 12, filled at color ordinal * 6 + piece type ordinal
+     */
+    public static void loadPieces(ChessBoard board, long[] pieces) {
+        if (board instanceof BitboardChessBoardImpl bitboardBoard) {
+            for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                    pieces[color.ordinal() * 6 + type.ordinal()] = bitboardBoard.getBitboard(color, type);
+                }
+            }
+            return;
+        }
+
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPosition position : board.pieceLocationIterator(color)) {
+                ChessPiece piece = board.getPiece(position);
+                if (piece == null || piece.getPieceType() == null) continue;
+
+                pieces[color.ordinal() * 6 + piece.getPieceType().ordinal()] |= 1L << squareOf(position);
+            }
+        }
+    }
+}
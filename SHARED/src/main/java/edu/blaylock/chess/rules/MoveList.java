@@ -0,0 +1,111 @@
+package edu.blaylock.chess.rules;
+
+import chess.ChessMove;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Growable list of PackedMove ints. Meant to be cleared and refilled rather than recreated, so generating moves
+ * doesn't allocate once the array is large enough.
+ */
+public class MoveList {
+
+    /**
+     * No position has more legal moves than this, so lists of this size never grow for a single position
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[Math.max(capacity, 1)];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) moves = Arrays.copyOf(moves, size * 2);
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException(index);
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        if (index >= size) throw new IndexOutOfBoundsException(index);
+        moves[index] = move;
+    }
+
+    /**
+     * Exchange two moves, for sorting in place
+     */
+    public void swap(int first, int second) {
+        int move = get(first);
+        moves[first] = get(second);
+        moves[second] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @param move packed move
+     * @return whether a move with the same start and end square is in the list
+     */
+    public boolean contains(int move) {
+        return find(PackedMove.from(move), PackedMove.to(move)) != -1;
+    }
+
+    /**
+     * @param from start square
+     * @param to   end square
+     * @return first move in the list between the squares, or -1 if there is none
+     */
+    public int find(int from, int to) {
+        for (int i = 0; i < size; i++) {
+            if (PackedMove.from(moves[i]) == from && PackedMove.to(moves[i]) == to) return moves[i];
+        }
+        return -1;
+    }
+
+    /**
+     * @return copy of the moves in the list
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    /**
+     * Convert every move in the list to a ChessMove
+     *
+     * @param collection collection to add moves to
+     */
+    public void addTo(Collection<ChessMove> collection) {
+        for (int i = 0; i < size; i++) collection.add(PackedMove.toChessMove(moves[i]));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(PackedMove.toString(moves[i]));
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -19,8 +19,31 @@ public class MoveValidator {
         jumpTable.put(ChessPiece.PieceType.KNIGHT, MoveValidator::addValidKnightMoves);
     }
 
+    /**
+     * Add the moves of the piece at a position as ChessMoves, ignoring check and special rules
+     *
+     * @param color      color of the piece
+     * @param chessBoard board
+     * @param position   position of the piece
+     * @param moves      collection to add moves to
+     */
     public static void addValidMoves(ChessGame.TeamColor color, ChessBoard chessBoard, ChessPosition position,
                                      Collection<ChessMove> moves) {
+        MoveList moveList = new MoveList(32);
+        addValidMoves(color, chessBoard, position, moveList);
+        moveList.addTo(moves);
+    }
+
+    /**
+     * Add the moves of the piece at a position as PackedMoves, ignoring check and special rules
+     *
+     * @param color      color of the piece
+     * @param chessBoard board
+     * @param position   position of the piece
+     * @param moves      list to add moves to
+     */
+    public static void addValidMoves(ChessGame.TeamColor color, ChessBoard chessBoard, ChessPosition position,
+                                     MoveList moves) {
         ChessPiece start = chessBoard.getPiece(position);
         if (start == null) return;
 
@@ -28,7 +51,7 @@ public class MoveValidator {
     }
 
     private static void addValidKingMoves(ChessGame.TeamColor color, ChessBoard chessBoard, ChessPosition position,
-                                          Collection<ChessMove> moves) {
+                                          MoveList moves) {
         RuleUtils.addValidLine(moves, chessBoard, position, 0, 1, 1);
         RuleUtils.addValidLine(moves, chessBoard, position, 1, 1, 1);
         RuleUtils.addValidLine(moves, chessBoard, position, 1, 0, 1);
@@ -40,7 +63,7 @@ public class MoveValidator {
     }
 
     private static void addValidQueenMoves(ChessGame.TeamColor color, ChessBoard chessBoard, ChessPosition position,
-                                           Collection<ChessMove> moves) {
+                                           MoveList moves) {
         RuleUtils.addValidLine(moves, chessBoard, position, 0, 1);
         RuleUtils.addValidLine(moves, chessBoard, position, 1, 1);
         RuleUtils.addValidLine(moves, chessBoard, position, 1, 0);
@@ -52,7 +75,7 @@ public class MoveValidator {
     }
 
     private static void addValidBishopMoves(ChessGame.TeamColor color, ChessBoard chessBoard, ChessPosition position,
-                                            Collection<ChessMove> moves) {
+                                            MoveList moves) {
         RuleUtils.addValidLine(moves, chessBoard, position, 1, 1);
         RuleUtils.addValidLine(moves, chessBoard, position, -1, -1);
         RuleUtils.addValidLine(moves, chessBoard, position, 1, -1);
@@ -60,7 +83,7 @@ public class MoveValidator {
     }
 
     private static void addValidPawnMoves(ChessGame.TeamColor color, ChessBoard chessBoard, ChessPosition position,
-                                          Collection<ChessMove> moves) {
+                                          MoveList moves) {
         ChessPiece start = chessBoard.getPiece(position);
 
         int changeY;
@@ -79,7 +102,7 @@ public class MoveValidator {
     }
 
     private static void addValidRookMoves(ChessGame.TeamColor color, ChessBoard chessBoard, ChessPosition position,
-                                          Collection<ChessMove> moves) {
+                                          MoveList moves) {
         RuleUtils.addValidLine(moves, chessBoard, position, 0, 1);
         RuleUtils.addValidLine(moves, chessBoard, position, 0, -1);
         RuleUtils.addValidLine(moves, chessBoard, position, 1, 0);
@@ -87,7 +110,7 @@ public class MoveValidator {
     }
 
     private static void addValidKnightMoves(ChessGame.TeamColor color, ChessBoard chessBoard, ChessPosition position,
-                                            Collection<ChessMove> moves) {
+                                            MoveList moves) {
         RuleUtils.addValidLine(moves, chessBoard, position, 1, 2, 1);
         RuleUtils.addValidLine(moves, chessBoard, position, -1, 2, 1);
         RuleUtils.addValidLine(moves, chessBoard, position, 1, -2, 1);
@@ -99,7 +122,6 @@ public class MoveValidator {
     }
 
     private interface PieceValidator {
-        void consume(ChessGame.TeamColor color, ChessBoard chessBoard, ChessPosition position,
-                     Collection<ChessMove> moves);
+        void consume(ChessGame.TeamColor color, ChessBoard chessBoard, ChessPosition position, MoveList moves);
     }
 }
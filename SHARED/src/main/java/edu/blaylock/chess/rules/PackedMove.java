@@ -0,0 +1,124 @@
+package edu.blaylock.chess.rules;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import edu.blaylock.chess.impl.ChessMoveImpl;
+
+import static edu.blaylock.chess.impl.BitboardChessBoardImpl.positionOf;
+import static edu.blaylock.chess.impl.BitboardChessBoardImpl.squareOf;
+
+/**
+ * Moves packed into an int, so move generation can fill arrays instead of creating a ChessMove with two positions for
+ * every move. ChessMove objects are only made when moves leave the rules through ChessPiece or ChessGame.<br>
+ * Layout, lowest bit first: start square (6 bits), end square (6 bits), promotion piece (3 bits, type ordinal + 1 or 0
+ * for none) and flags. Squares are indexed (row - 1) * 8 + column - 1. Flags describe the move but aren't part of its
+ * identity, in the same way ChessMoveImpl.equals only looks at the positions.<br>
+ * MoveValidator only knows about captures and double pushes. LegalMoveGenerator sets every flag, which lets a move be
+ * made without working out again which special rule it comes from.
+ */
+public final class PackedMove {
+
+    /**
+     * The move takes a piece standing on its end square
+     */
+    public static final int CAPTURE = 1;
+
+    /**
+     * A pawn moves two squares forward
+     */
+    public static final int DOUBLE_PUSH = 1 << 1;
+
+    /**
+     * A pawn takes a pawn beside it that just moved two squares. Also flagged as a capture
+     */
+    public static final int EN_PASSANT = 1 << 2;
+
+    /**
+     * A king moves two squares towards a rook, which jumps over it
+     */
+    public static final int CASTLE = 1 << 3;
+
+    /**
+     * A pawn reaches the last row
+     */
+    public static final int PROMOTION = 1 << 4;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PROMOTION_MASK = 0x7;
+    private static final int FLAGS_SHIFT = 15;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * @param from start square
+     * @param to   end square
+     * @return move without promotion or flags
+     */
+    public static int of(int from, int to) {
+        return from | (to << TO_SHIFT);
+    }
+
+    /**
+     * @param from      start square
+     * @param to        end square
+     * @param promotion promotion piece, may be null
+     * @param flags     combination of CAPTURE, DOUBLE_PUSH, EN_PASSANT, CASTLE and PROMOTION
+     * @return packed move
+     */
+    public static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionBits = (promotion == null) ? 0 : promotion.ordinal() + 1;
+        return from | (to << TO_SHIFT) | (promotionBits << PROMOTION_SHIFT) | (flags << FLAGS_SHIFT);
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    /**
+     * @return promotion piece, or null
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int bits = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+        return (bits == 0) ? null : TYPES[bits - 1];
+    }
+
+    public static int flags(int move) {
+        return move >>> FLAGS_SHIFT;
+    }
+
+    public static boolean hasFlag(int move, int flag) {
+        return (flags(move) & flag) != 0;
+    }
+
+    /**
+     * @param move packed move
+     * @return same move as a ChessMove
+     */
+    public static ChessMove toChessMove(int move) {
+        return new ChessMoveImpl(positionOf(from(move)), positionOf(to(move)), promotion(move));
+    }
+
+    /**
+     * @param move move to pack
+     * @return packed move, without flags
+     */
+    public static int fromChessMove(ChessMove move) {
+        return of(squareOf(move.getStartPosition()), squareOf(move.getEndPosition()), move.getPromotionPiece(), 0);
+    }
+
+    /**
+     * @return move in the same form as ChessMoveImpl.toString
+     */
+    public static String toString(int move) {
+        return positionOf(from(move)) + "->" + positionOf(to(move)) + ":" + promotion(move);
+    }
+}
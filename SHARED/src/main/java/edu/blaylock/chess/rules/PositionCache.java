@@ -0,0 +1,203 @@
+package edu.blaylock.chess.rules;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import edu.blaylock.chess.impl.ChessMoveImpl;
+import edu.blaylock.chess.impl.Zobrist;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static edu.blaylock.chess.impl.BitboardChessBoardImpl.positionOf;
+import static edu.blaylock.chess.impl.BitboardChessBoardImpl.squareOf;
+
+/**
+ * Bounded cache of the legal moves and check status of positions, so the questions asked about a position after every
+ * move (valid moves, check, checkmate, stalemate) share one run of LegalMoveGenerator.<br>
+ * Positions are keyed by ChessBoard.getZobristKey, which the boards keep up to date so reading it is free, with the
+ * side to move's key added for the color asked about. The key covers the pieces, the castles still possible and en
+ * passant, which is all the legal moves depend on. Entries also hold the squares of both kings, checked on every hit
+ * so a key shared by another position isn't answered with its moves.<br>
+ * The cache is an array of slots indexed by the key. Lookups are a single volatile read and never lock, and a new
+ * entry simply replaces whatever shared its slot, which keeps the size fixed.
+ */
+public final class PositionCache {
+
+    /**
+     * log2 of the number of slots of the shared cache
+     */
+    public static final int DEFAULT_CAPACITY_BITS = 12;
+
+    private static final PositionCache SHARED = new PositionCache(DEFAULT_CAPACITY_BITS);
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacityBits log2 of the number of positions held
+     */
+    public PositionCache(int capacityBits) {
+        slots = new AtomicReferenceArray<>(1 << capacityBits);
+        mask = (1 << capacityBits) - 1;
+    }
+
+    /**
+     * @return cache used by ChessGameImpl
+     */
+    public static PositionCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Get the entry of a position, generating its moves if it isn't cached
+     *
+     * @param board board of the position
+     * @param color color whose moves are wanted
+     * @return entry for the board as it is now, still valid after the board changes
+     */
+    public Entry lookup(ChessBoard board, ChessGame.TeamColor color) {
+        long key = board.getZobristKey() ^ ((color == ChessGame.TeamColor.BLACK) ? Zobrist.SIDE_TO_MOVE : 0);
+        int kings = kingSquares(board);
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+
+        Entry entry = slots.get(slot);
+        if (entry != null && entry.key == key && entry.kings == kings) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, color);
+        MoveList moves = new MoveList();
+        generator.addAllMoves(moves);
+
+        Entry created = new Entry(key, kings, moves.toArray(), generator.isInCheck());
+        if (slots.getAndSet(slot, created) != null) evictions.increment();
+        return created;
+    }
+
+    /**
+     * @return squares of the white and black kings, 64 for a missing king, packed in one int
+     */
+    private static int kingSquares(ChessBoard board) {
+        int kings = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            ChessPosition king = board.getKingLocation(color);
+            kings = (kings << 7) | ((king == null) ? 64 : squareOf(king));
+        }
+        return kings;
+    }
+
+    /**
+     * @return number of lookups answered from the cache
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups that generated moves
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of entries replaced by another position
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Empty every slot and reset the counters
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) slots.set(i, null);
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Legal moves and check status of one color in one position. Immutable
+     */
+    public static final class Entry {
+        private final long key;
+        private final int kings;
+        private final int[] moves;
+        private final boolean inCheck;
+
+        private Entry(long key, int kings, int[] moves, boolean inCheck) {
+            this.key = key;
+            this.kings = kings;
+            this.moves = moves;
+            this.inCheck = inCheck;
+        }
+
+        public boolean isInCheck() {
+            return inCheck;
+        }
+
+        public boolean hasLegalMove() {
+            return moves.length > 0;
+        }
+
+        public boolean isInCheckmate() {
+            return inCheck && moves.length == 0;
+        }
+
+        public boolean isInStalemate() {
+            return moves.length == 0;
+        }
+
+        /**
+         * @return number of legal moves
+         */
+        public int size() {
+            return moves.length;
+        }
+
+        /**
+         * @param index index below size()
+         * @return PackedMove with every flag set, moves onto the last row without a promotion piece
+         */
+        public int move(int index) {
+            return moves[index];
+        }
+
+        /**
+         * @param from start square
+         * @param to   end square
+         * @return PackedMove with every flag set, or -1 if the move isn't legal
+         */
+        public int find(int from, int to) {
+            for (int move : moves) {
+                if (PackedMove.from(move) == from && PackedMove.to(move) == to) return move;
+            }
+            return -1;
+        }
+
+        /**
+         * Add the legal moves starting at a position, without promotion pieces like LegalMoveGenerator.addMoves
+         *
+         * @param position start position
+         * @param result   collection to add moves to
+         */
+        public void addMoves(ChessPosition position, Collection<ChessMove> result) {
+            int from = squareOf(position);
+            for (int move : moves) {
+                if (PackedMove.from(move) == from) {
+                    result.add(new ChessMoveImpl(position, positionOf(PackedMove.to(move)), null));
+                }
+            }
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package edu.blaylock.chess.rules;
 
 import chess.ChessBoard;
-import chess.ChessMove;
 import chess.ChessPiece;
 import chess.ChessPosition;
-import edu.blaylock.chess.impl.ChessMoveImpl;
 
-import java.util.Collection;
+import static edu.blaylock.chess.impl.BitboardChessBoardImpl.squareOf;
 
 public class RuleUtils {
 
@@ -19,17 +17,17 @@ public class RuleUtils {
     public static final PiecePredicate PAWN_MOVE = (ChessPiece originator, ChessPiece destination)
             -> destination == null;
 
-    public static void addValidLine(Collection<ChessMove> position, ChessBoard chessBoard, ChessPosition start,
+    public static void addValidLine(MoveList moves, ChessBoard chessBoard, ChessPosition start,
                                     int changeX, int changeY) {
-        addValidLine(position, chessBoard, start, changeX, changeY, -1, STANDARD);
+        addValidLine(moves, chessBoard, start, changeX, changeY, -1, STANDARD);
     }
 
-    public static void addValidLine(Collection<ChessMove> position, ChessBoard chessBoard, ChessPosition start,
+    public static void addValidLine(MoveList moves, ChessBoard chessBoard, ChessPosition start,
                                     int changeX, int changeY, int dist) {
-        addValidLine(position, chessBoard, start, changeX, changeY, dist, STANDARD);
+        addValidLine(moves, chessBoard, start, changeX, changeY, dist, STANDARD);
     }
 
-    public static void addValidLine(Collection<ChessMove> position, ChessBoard chessBoard, ChessPosition start,
+    public static void addValidLine(MoveList moves, ChessBoard chessBoard, ChessPosition start,
                                     int changeX, int changeY, int max_steps, PiecePredicate valid) {
         if (changeX == 0 && changeY == 0) return;
 
@@ -37,6 +35,7 @@ public class RuleUtils {
         int numStepsTaken = 0;
 
         ChessPiece original = chessBoard.getPiece(start);
+        int from = squareOf(start);
         ChessPosition destination = start;
         while (!shouldStop) {
             destination = destination.offset(changeY, changeX);
@@ -45,8 +44,9 @@ public class RuleUtils {
             ChessPiece test = chessBoard.getPiece(destination);
 
             if (valid.consume(original, test)) {
-                ChessMove move = new ChessMoveImpl(start, destination, null);
-                position.add(move);
+                int flags = (test != null) ? PackedMove.CAPTURE : 0;
+                if (valid == PAWN_MOVE && numStepsTaken == 2) flags |= PackedMove.DOUBLE_PUSH;
+                moves.add(PackedMove.of(from, squareOf(destination), null, flags));
             }
             if (test != null || (max_steps == numStepsTaken)) {
                 shouldStop = true;
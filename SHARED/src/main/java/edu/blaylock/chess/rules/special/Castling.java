@@ -1,9 +1,9 @@
 package edu.blaylock.chess.rules.special;
 
 import chess.*;
-import edu.blaylock.chess.impl.ChessGameImpl;
 import edu.blaylock.chess.impl.ChessMoveImpl;
 import edu.blaylock.chess.impl.ChessPositionImpl;
+import edu.blaylock.chess.rules.PackedMove;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -18,22 +18,24 @@ public class Castling implements ISpecialRule {
         ChessPiece piece = board.getPiece(position);
 
         if (piece == null || piece.getPieceType() != ChessPiece.PieceType.KING
-                || piece.numMovesTaken() > 0 || ChessGameImpl.isInCheck(piece.getTeamColor(), board)) return result;
+                || piece.numMovesTaken() > 0 || board.isSquareAttacked(position, piece.getTeamColor().next())) {
+            return result;
+        }
 
-        ChessPosition right = new ChessPositionImpl(position.getRow(), 8);
-        ChessPosition left = new ChessPositionImpl(position.getRow(), 1);
+        ChessPosition right = ChessPositionImpl.of(position.getRow(), 8);
+        ChessPosition left = ChessPositionImpl.of(position.getRow(), 1);
         ChessPiece rookRight = board.getPiece(right);
         ChessPiece rookLeft = board.getPiece(left);
 
         if (rookRight != null && rookRight.getPieceType() == ChessPiece.PieceType.ROOK && rookRight.numMovesTaken() == 0) {
             if (areNoPiecesInBetween(board, position, right)) {
-                result.add(new ChessMoveImpl(position, new ChessPositionImpl(position.getRow(), 7), null));
+                result.add(new ChessMoveImpl(position, ChessPositionImpl.of(position.getRow(), 7), null));
             }
         }
 
         if (rookLeft != null && rookLeft.getPieceType() == ChessPiece.PieceType.ROOK && rookLeft.numMovesTaken() == 0) {
             if (areNoPiecesInBetween(board, left, position)) {
-                result.add(new ChessMoveImpl(position, new ChessPositionImpl(position.getRow(), 3), null));
+                result.add(new ChessMoveImpl(position, ChessPositionImpl.of(position.getRow(), 3), null));
             }
         }
 
@@ -41,14 +43,19 @@ public class Castling implements ISpecialRule {
         return result;
     }
 
+    @Override
+    public int getFlag() {
+        return PackedMove.CASTLE;
+    }
+
     @Override
     public ChessPiece updateBoard(ChessBoard board, ChessPosition position) {
         int oldColumn = (position.getColumn() == 7) ? 8 : 1;
         int newColumn = (position.getColumn() == 7) ? 6 : 4;
 
         return board.movePiece(new ChessMoveImpl(
-                new ChessPositionImpl(position.getRow(), oldColumn),
-                new ChessPositionImpl(position.getRow(), newColumn),
+                ChessPositionImpl.of(position.getRow(), oldColumn),
+                ChessPositionImpl.of(position.getRow(), newColumn),
                 null));
     }
 
@@ -65,21 +72,18 @@ public class Castling implements ISpecialRule {
         return true;
     }
 
+    /**
+     * Removes castles where the king would pass over an attacked square
+     */
     private static void filterMoves(Collection<ChessMove> moves, ChessBoard chessBoard, ChessGame.TeamColor color) {
-
-        Collection<ChessPosition> positionsInDanger = new HashSet<ChessPosition>();
-        chessBoard.pieceLocationIterator(color.next()).forEach((chessPosition) -> {
-            chessBoard.getPiece(chessPosition).pieceMoves(chessBoard, chessPosition).forEach(
-                    (chessMove) -> positionsInDanger.add(chessMove.getEndPosition()));
-        });
-
         Iterator<ChessMove> iter = moves.iterator();
 
         while (iter.hasNext()) {
             ChessMove move = iter.next();
             int shift = (move.getStartPosition().getColumn() < move.getEndPosition().getColumn()) ? 1 : -1;
             for (int i = move.getStartPosition().getColumn() + shift; i != move.getEndPosition().getColumn(); i += shift) {
-                if (positionsInDanger.contains(new ChessPositionImpl(move.getStartPosition().getRow(), i))) {
+                ChessPosition passed = ChessPositionImpl.of(move.getStartPosition().getRow(), i);
+                if (chessBoard.isSquareAttacked(passed, color.next())) {
                     iter.remove();
                     break;
                 }
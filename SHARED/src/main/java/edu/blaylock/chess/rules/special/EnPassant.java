@@ -2,6 +2,7 @@ package edu.blaylock.chess.rules.special;
 
 import chess.*;
 import edu.blaylock.chess.impl.ChessMoveImpl;
+import edu.blaylock.chess.rules.PackedMove;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -24,13 +25,13 @@ public class EnPassant implements ISpecialRule {
         ChessPiece test;
         if (right != null) {
             if ((test = board.getPiece(right)) != null && test.getTeamColor() != start.getTeamColor()
-                    && test.getPieceType() == ChessPiece.PieceType.PAWN && hasPawnJustDoubleMoved(board, right)) {
+                    && hasPawnJustDoubleMoved(test, right.getRow(), board.getRound())) {
                 moves.add(new ChessMoveImpl(position, right.offset(row_change, 0), null));
             }
         }
         if (left != null) {
             if ((test = board.getPiece(left)) != null && test.getTeamColor() != start.getTeamColor()
-                    && test.getPieceType() == ChessPiece.PieceType.PAWN && hasPawnJustDoubleMoved(board, left)) {
+                    && hasPawnJustDoubleMoved(test, left.getRow(), board.getRound())) {
                 moves.add(new ChessMoveImpl(position, left.offset(row_change, 0), null));
             }
         }
@@ -38,6 +39,11 @@ public class EnPassant implements ISpecialRule {
         return moves;
     }
 
+    @Override
+    public int getFlag() {
+        return PackedMove.EN_PASSANT;
+    }
+
     @Override
     public ChessPiece updateBoard(ChessBoard board, ChessPosition position) {
         ChessPiece start = board.getPiece(position);
@@ -48,11 +54,20 @@ public class EnPassant implements ISpecialRule {
         return piece;
     }
 
-    private static boolean hasPawnJustDoubleMoved(ChessBoard board, ChessPosition position) {
-        ChessPiece piece = board.getPiece(position);
-        if (board.getRound() - 1 != piece.getTimeOfLastMove() || piece.numMovesTaken() != 1) return false;
+    /**
+     * Whether a piece can be taken en passant: it is a pawn whose only move was two squares forward, made during the
+     * previous round
+     *
+     * @param piece piece to check, may be null
+     * @param row   row the piece stands on, from 1 to 8
+     * @param round round of the board
+     * @return True if an enemy pawn beside it may take it en passant
+     */
+    public static boolean hasPawnJustDoubleMoved(ChessPiece piece, int row, int round) {
+        if (piece == null || piece.getPieceType() != ChessPiece.PieceType.PAWN) return false;
+        if (round - 1 != piece.getTimeOfLastMove() || piece.numMovesTaken() != 1) return false;
 
         int row_check = (piece.getTeamColor() == ChessGame.TeamColor.WHITE) ? 4 : 5;
-        return position.getRow() == row_check;
+        return row == row_check;
     }
 }
@@ -12,4 +12,9 @@ public interface ISpecialRule {
     Collection<ChessMove> getValidMoves(ChessBoard board, ChessPosition position);
 
     ChessPiece updateBoard(ChessBoard board, ChessPosition position);
+
+    /**
+     * @return PackedMove flag marking the moves this rule produces
+     */
+    int getFlag();
 }
@@ -3,6 +3,7 @@ package edu.blaylock.chess.rules.special;
 import chess.ChessBoard;
 import chess.ChessMove;
 import chess.ChessPosition;
+import edu.blaylock.chess.rules.PackedMove;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -22,6 +23,22 @@ public class SpecialRulesManager {
         }
     }
 
+    /**
+     * Find the rule of a move from its flags, without generating any moves
+     *
+     * @param move PackedMove with its flags set, as LegalMoveGenerator makes them
+     * @return rule to apply after moving the piece, or null for an ordinary move
+     */
+    public static ISpecialRule getRule(int move) {
+        for (ISpecialRule rule : rules) {
+            if (PackedMove.hasFlag(move, rule.getFlag())) return rule;
+        }
+        return null;
+    }
+
+    /**
+     * Find the rule of a move by generating the moves of every rule. Prefer getRule when the move's flags are known
+     */
     public static ISpecialRule getPertinentRule(ChessBoard chessBoard, ChessMove chessMove) {
         for (ISpecialRule rule : rules) {
             Collection<ChessMove> validMoves = rule.getValidMoves(chessBoard, chessMove.getStartPosition());
@@ -0,0 +1,296 @@
+package edu.blaylock.chess.tablebase;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import edu.blaylock.chess.rules.Attacks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Distance to mate of every position with two kings and one other piece, solved by retrograde analysis: checkmates
+ * are found first, then positions mating in one ply, two plies and so on until a ply adds nothing. Each ply only reads
+ * positions of the other side to move, so a ply is solved in parallel.<br>
+ * The side with the extra piece is called strong. Tables are built with white as the strong side and boards with a
+ * black strong side are looked up upside down. The bare king can never win, so every position is either a win for the
+ * strong side or a draw.<br>
+ * The table holds one byte per position, indexed by side to move, strong king, weak king and piece square. It is
+ * plies to mate plus one, with 0 for draws and impossible positions. Castling isn't considered.
+ */
+public final class Tablebase {
+
+    /**
+     * Piece sets that can be solved. A pawn table needs the tables of the pieces it promotes to
+     */
+    public enum Material {
+        KQK(ChessPiece.PieceType.QUEEN),
+        KRK(ChessPiece.PieceType.ROOK),
+        KPK(ChessPiece.PieceType.PAWN);
+
+        private final ChessPiece.PieceType piece;
+
+        Material(ChessPiece.PieceType piece) {
+            this.piece = piece;
+        }
+
+        public ChessPiece.PieceType piece() {
+            return piece;
+        }
+
+        /**
+         * @param piece piece beside the two kings
+         * @return material with that piece, null if there is no table for it
+         */
+        public static Material of(ChessPiece.PieceType piece) {
+            for (Material material : values()) {
+                if (material.piece == piece) return material;
+            }
+            return null;
+        }
+    }
+
+    static final int STRONG_TO_MOVE = 0;
+    static final int WEAK_TO_MOVE = 1;
+
+    private static final int POSITIONS_PER_SIDE = 64 * 64 * 64;
+    static final int SIZE = 2 * POSITIONS_PER_SIDE;
+
+    private final Material material;
+    private final byte[] table;
+
+    /**
+     * Tables promoted into, only set while a pawn table is generated
+     */
+    private final Tablebase queens;
+    private final Tablebase rooks;
+
+    private Tablebase(Material material, byte[] table, Tablebase queens, Tablebase rooks) {
+        this.material = material;
+        this.table = table;
+        this.queens = queens;
+        this.rooks = rooks;
+    }
+
+    public Material material() {
+        return material;
+    }
+
+    /**
+     * Solve every position of a material
+     *
+     * @param material material to solve
+     * @param solved   tables already solved, must hold KQK and KRK for KPK
+     * @return solved table
+     */
+    public static Tablebase generate(Material material, Map<Material, Tablebase> solved) {
+        Tablebase queens = null;
+        Tablebase rooks = null;
+        if (material == Material.KPK) {
+            queens = solved.get(Material.KQK);
+            rooks = solved.get(Material.KRK);
+            if (queens == null || rooks == null) throw new IllegalArgumentException("KPK needs KQK and KRK");
+        }
+
+        Tablebase tablebase = new Tablebase(material, new byte[SIZE], queens, rooks);
+        tablebase.solve();
+        return new Tablebase(material, tablebase.table, null, null);
+    }
+
+    private void solve() {
+        IntStream.range(0, POSITIONS_PER_SIDE).parallel().forEach((position) -> {
+            int index = WEAK_TO_MOVE * POSITIONS_PER_SIDE + position;
+            if (isLegal(index) && isCheckmate(index)) table[index] = 1;
+        });
+
+        for (int ply = 1; ; ply++) {
+            int side = (ply % 2 == 1) ? STRONG_TO_MOVE : WEAK_TO_MOVE;
+            int solving = ply;
+            long solvedCount = IntStream.range(0, POSITIONS_PER_SIDE).parallel()
+                    .filter((position) -> solve(side * POSITIONS_PER_SIDE + position, solving))
+                    .count();
+            if (solvedCount == 0) return;
+        }
+    }
+
+    /**
+     * Strong positions win in ply plies if a move reaches a weak position lost in ply - 1. Weak positions are lost in
+     * ply plies once every move reaches a strong position already won, the slowest of them found on the last ply.
+     */
+    private boolean solve(int index, int ply) {
+        if (table[index] != 0 || !isLegal(index)) return false;
+
+        int strongKing = strongKing(index);
+        int weakKing = weakKing(index);
+        int piece = piece(index);
+        long occupied = (1L << strongKing) | (1L << weakKing) | (1L << piece);
+
+        if (toMove(index) == STRONG_TO_MOVE) {
+            long kingTargets = Attacks.kingAttacks(strongKing) & ~Attacks.kingAttacks(weakKing) & ~(1L << piece);
+            for (long targets = kingTargets; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                if (value(index(WEAK_TO_MOVE, to, weakKing, piece)) == ply) return mark(index, ply);
+            }
+
+            if (material == Material.KPK) {
+                return solvePawnMoves(index, strongKing, weakKing, piece, occupied, ply);
+            }
+
+            long pieceTargets = attacks(piece, occupied) & ~occupied;
+            for (long targets = pieceTargets; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                if (value(index(WEAK_TO_MOVE, strongKing, weakKing, to)) == ply) return mark(index, ply);
+            }
+            return false;
+        }
+
+        long attacked = Attacks.kingAttacks(strongKing) | attacks(piece, occupied & ~(1L << weakKing));
+        long targets = Attacks.kingAttacks(weakKing) & ~attacked & ~(1L << strongKing);
+        if (targets == 0) return false;
+
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            // Taking the piece leaves two kings, a draw
+            if (to == piece || value(index(STRONG_TO_MOVE, strongKing, to, piece)) == 0) return false;
+        }
+        return mark(index, ply);
+    }
+
+    private boolean solvePawnMoves(int index, int strongKing, int weakKing, int pawn, long occupied, int ply) {
+        int to = pawn + 8;
+        if ((occupied & (1L << to)) != 0) return false;
+
+        if (to >= 56) {
+            int promoted = index(WEAK_TO_MOVE, strongKing, weakKing, to);
+            return (queens.value(promoted) == ply || rooks.value(promoted) == ply) && mark(index, ply);
+        }
+        if (value(index(WEAK_TO_MOVE, strongKing, weakKing, to)) == ply) return mark(index, ply);
+
+        to += 8;
+        return pawn < 16 && (occupied & (1L << to)) == 0
+                && value(index(WEAK_TO_MOVE, strongKing, weakKing, to)) == ply && mark(index, ply);
+    }
+
+    private boolean isCheckmate(int index) {
+        int strongKing = strongKing(index);
+        int weakKing = weakKing(index);
+        int piece = piece(index);
+        long occupied = (1L << strongKing) | (1L << weakKing) | (1L << piece);
+        if ((attacks(piece, occupied) & (1L << weakKing)) == 0) return false;
+
+        long attacked = Attacks.kingAttacks(strongKing) | attacks(piece, occupied & ~(1L << weakKing));
+        return (Attacks.kingAttacks(weakKing) & ~attacked & ~(1L << strongKing)) == 0;
+    }
+
+    private boolean isLegal(int index) {
+        int strongKing = strongKing(index);
+        int weakKing = weakKing(index);
+        int piece = piece(index);
+        if (strongKing == weakKing || strongKing == piece || weakKing == piece) return false;
+        if ((Attacks.kingAttacks(strongKing) & (1L << weakKing)) != 0) return false;
+        if (material == Material.KPK && (piece < 8 || piece >= 56)) return false;
+
+        // The weak king can't be in check when it isn't its turn
+        long occupied = (1L << strongKing) | (1L << weakKing) | (1L << piece);
+        return toMove(index) == WEAK_TO_MOVE || (attacks(piece, occupied) & (1L << weakKing)) == 0;
+    }
+
+    private long attacks(int square, long occupied) {
+        return switch (material) {
+            case KQK -> Attacks.queenAttacks(square, occupied);
+            case KRK -> Attacks.rookAttacks(square, occupied);
+            case KPK -> Attacks.pawnAttacks(ChessGame.TeamColor.WHITE, square);
+        };
+    }
+
+    private boolean mark(int index, int ply) {
+        table[index] = (byte) (ply + 1);
+        return true;
+    }
+
+    /**
+     * @return plies to mate plus one, 0 for a draw
+     */
+    int value(int index) {
+        return table[index] & 0xFF;
+    }
+
+    /**
+     * Look up a position, squares given with white as the strong side
+     *
+     * @param strongToMove whether the side with the piece is to move
+     * @param strongKing   square of the strong king
+     * @param weakKing     square of the weak king
+     * @param piece        square of the piece
+     * @return value for the side to move, a draw for impossible positions
+     */
+    public TablebaseResult probe(boolean strongToMove, int strongKing, int weakKing, int piece) {
+        int value = value(index(strongToMove ? STRONG_TO_MOVE : WEAK_TO_MOVE, strongKing, weakKing, piece));
+        if (value == 0) return TablebaseResult.DRAW;
+
+        TablebaseResult.Outcome outcome = strongToMove ? TablebaseResult.Outcome.WIN : TablebaseResult.Outcome.LOSS;
+        return new TablebaseResult(outcome, value - 1);
+    }
+
+    /**
+     * @return number of positions the strong side wins
+     */
+    public int wins() {
+        int wins = 0;
+        for (byte value : table) {
+            if (value != 0) wins++;
+        }
+        return wins;
+    }
+
+    /**
+     * @return longest distance to mate in plies
+     */
+    public int longestMate() {
+        int longest = 0;
+        for (int index = 0; index < SIZE; index++) longest = Math.max(longest, value(index) - 1);
+        return longest;
+    }
+
+    /**
+     * @param path file to write, replaced if it exists
+     * @throws IOException if the file can't be written
+     */
+    public void write(Path path) throws IOException {
+        Files.write(path, table);
+    }
+
+    /**
+     * @param material material held by the file
+     * @param path     file written by write
+     * @return table read
+     * @throws IOException if the file can't be read or has the wrong size
+     */
+    public static Tablebase read(Material material, Path path) throws IOException {
+        byte[] table = Files.readAllBytes(path);
+        if (table.length != SIZE) throw new IOException("Wrong size for a " + material + " table: " + path);
+        return new Tablebase(material, table, null, null);
+    }
+
+    static int index(int toMove, int strongKing, int weakKing, int piece) {
+        return ((toMove * 64 + strongKing) * 64 + weakKing) * 64 + piece;
+    }
+
+    private static int toMove(int index) {
+        return index / POSITIONS_PER_SIDE;
+    }
+
+    private static int strongKing(int index) {
+        return (index >> 12) & 63;
+    }
+
+    private static int weakKing(int index) {
+        return (index >> 6) & 63;
+    }
+
+    private static int piece(int index) {
+        return index & 63;
+    }
+}
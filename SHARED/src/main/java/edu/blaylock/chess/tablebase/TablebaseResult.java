@@ -0,0 +1,19 @@
+package edu.blaylock.chess.tablebase;
+
+/**
+ * Value of a position found in a Tablebase, for the side to move
+ *
+ * @param outcome     result with best play from both sides
+ * @param pliesToMate number of moves, counting both colors, until the losing side is checkmated. 0 for a draw or when
+ *                    the side to move is already checkmated
+ */
+public record TablebaseResult(Outcome outcome, int pliesToMate) {
+
+    public enum Outcome {
+        WIN,
+        DRAW,
+        LOSS
+    }
+
+    public static final TablebaseResult DRAW = new TablebaseResult(Outcome.DRAW, 0);
+}
@@ -0,0 +1,136 @@
+package edu.blaylock.chess.tablebase;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import edu.blaylock.chess.rules.LegalMoveGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Set of solved tables answering for any game down to two kings and one queen, rook or pawn. Files are named after
+ * their material, like "KQK.tb".
+ */
+public final class Tablebases {
+
+    public static final String EXTENSION = ".tb";
+
+    private final Map<Tablebase.Material, Tablebase> tables;
+
+    private Tablebases(Map<Tablebase.Material, Tablebase> tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * Solve every material, in order so pawns can look up the pieces they promote to
+     *
+     * @return every table
+     */
+    public static Tablebases generate() {
+        Map<Tablebase.Material, Tablebase> tables = new EnumMap<>(Tablebase.Material.class);
+        for (Tablebase.Material material : Tablebase.Material.values()) {
+            tables.put(material, Tablebase.generate(material, tables));
+        }
+        return new Tablebases(tables);
+    }
+
+    /**
+     * Read every table file found in a directory. Missing materials are simply not answered.
+     *
+     * @param directory directory of files written by write
+     * @return tables read
+     * @throws IOException if a file can't be read
+     */
+    public static Tablebases read(Path directory) throws IOException {
+        Map<Tablebase.Material, Tablebase> tables = new EnumMap<>(Tablebase.Material.class);
+        for (Tablebase.Material material : Tablebase.Material.values()) {
+            Path path = directory.resolve(material + EXTENSION);
+            if (Files.isRegularFile(path)) tables.put(material, Tablebase.read(material, path));
+        }
+        return new Tablebases(tables);
+    }
+
+    /**
+     * @param directory directory to write a file per table into, created if missing
+     * @throws IOException if a file can't be written
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Tablebase tablebase : tables.values()) {
+            tablebase.write(directory.resolve(tablebase.material() + EXTENSION));
+        }
+    }
+
+    public Tablebase get(Tablebase.Material material) {
+        return tables.get(material);
+    }
+
+    /**
+     * Look up the position of a game
+     *
+     * @param game game to look up, for the team whose turn it is
+     * @return value of the position, null if no table holds its material
+     */
+    public TablebaseResult probe(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        long[] pieces = new long[12];
+        LegalMoveGenerator.loadPieces(board, pieces);
+
+        int king = ChessPiece.PieceType.KING.ordinal();
+        long white = 0;
+        long black = 0;
+        for (int type = 0; type < 6; type++) {
+            white |= pieces[type];
+            black |= pieces[6 + type];
+        }
+        if (Long.bitCount(white | black) != 3 || Long.bitCount(pieces[king]) != 1
+                || Long.bitCount(pieces[6 + king]) != 1) {
+            return null;
+        }
+
+        ChessGame.TeamColor strong = (Long.bitCount(white) == 2) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        int base = strong.ordinal() * 6;
+        long extra = (strong == ChessGame.TeamColor.WHITE ? white : black) & ~pieces[base + king];
+
+        ChessPiece.PieceType type = null;
+        for (ChessPiece.PieceType candidate : ChessPiece.PieceType.values()) {
+            if ((pieces[base + candidate.ordinal()] & extra) != 0) type = candidate;
+        }
+        Tablebase tablebase = tables.get(Tablebase.Material.of(type));
+        if (tablebase == null) return null;
+
+        // Tables have white as the strong side, black is looked up with rows flipped
+        int flip = (strong == ChessGame.TeamColor.WHITE) ? 0 : 56;
+        int strongKing = Long.numberOfTrailingZeros(pieces[base + king]) ^ flip;
+        int weakKing = Long.numberOfTrailingZeros(pieces[(6 - base) + king]) ^ flip;
+        int piece = Long.numberOfTrailingZeros(extra) ^ flip;
+
+        return tablebase.probe(game.getTeamTurn() == strong, strongKing, weakKing, piece);
+    }
+
+    /**
+     * Solve every table, print how many positions each wins and write them.<br>
+     * Arguments: [directory, default "tablebases"]
+     *
+     * @param args see above
+     * @throws IOException if a file can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of((args.length > 0) ? args[0] : "tablebases");
+
+        long start = System.currentTimeMillis();
+        Tablebases tablebases = generate();
+        long millis = System.currentTimeMillis() - start;
+
+        for (Tablebase tablebase : tablebases.tables.values()) {
+            System.out.printf("%s: %d winning positions, longest mate %d plies%n", tablebase.material(),
+                    tablebase.wins(), tablebase.longestMate());
+        }
+        tablebases.write(directory);
+        System.out.printf("Solved in %d ms, written to %s%n", millis, directory.toAbsolutePath());
+    }
+}
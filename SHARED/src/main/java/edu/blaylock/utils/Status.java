@@ -9,6 +9,11 @@ public final class Status {
      */
     public static final int SUCCESS = 200;
 
+    /**
+     * Request accepted, result not ready yet
+     */
+    public static final int ACCEPTED = 202;
+
     /**
      * Already taken exception
      */
@@ -24,6 +29,11 @@ public final class Status {
      */
     public static final int UNAUTHORIZED = 401;
 
+    /**
+     * Too many requests exception
+     */
+    public static final int TOO_MANY_REQUESTS = 429;
+
     /**
      * Server error
      */
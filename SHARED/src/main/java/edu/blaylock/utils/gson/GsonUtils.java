@@ -6,6 +6,7 @@ import chess.ChessMove;
 import chess.ChessPosition;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import edu.blaylock.chess.MoveHistory;
 import edu.blaylock.utils.gson.adapters.*;
 import webSocketMessages.serverMessages.ServerMessage;
 import webSocketMessages.userCommands.UserGameCommand;
@@ -30,6 +31,7 @@ public class GsonUtils {
                 .registerTypeAdapter(ChessGame.class, new ChessGameAdapter())
                 .registerTypeAdapter(ChessMove.class, new ChessMoveAdapter())
                 .registerTypeAdapter(ChessPosition.class, new ChessPositionAdapter())
+                .registerTypeAdapter(MoveHistory.class, new MoveHistoryAdapter())
                 .registerTypeAdapter(ServerMessage.class, new ServerMessageAdapter())
                 .registerTypeAdapter(UserGameCommand.class, new UserCommandAdapter())
                 .addSerializationExclusionStrategy(new TransientAnnotationStrategy());
@@ -12,7 +12,9 @@ import java.lang.reflect.Type;
 public class ChessPositionAdapter implements JsonDeserializer<ChessPosition> {
     @Override
     public ChessPosition deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext context) throws JsonParseException {
-        return context.deserialize(jsonElement, ChessPositionImpl.class);
+        ChessPosition position = context.deserialize(jsonElement, ChessPositionImpl.class);
+        if (position == null) return null;
+        return ChessPositionImpl.of(position.getRow(), position.getColumn());
     }
 
 }
@@ -0,0 +1,27 @@
+package edu.blaylock.utils.gson.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import edu.blaylock.chess.MoveHistory;
+
+import java.io.IOException;
+
+/**
+ * Stores a MoveHistory as one Base64 string of its recorded moves rather than its arrays, which have room to spare
+ */
+public class MoveHistoryAdapter extends TypeAdapter<MoveHistory> {
+
+    @Override
+    public void write(JsonWriter jsonWriter, MoveHistory history) throws IOException {
+        if (history == null) jsonWriter.nullValue();
+        else jsonWriter.value(history.serialize());
+    }
+
+    @Override
+    public MoveHistory read(JsonReader jsonReader) throws IOException {
+        if (jsonReader.peek() == JsonToken.NULL) return null;
+        return MoveHistory.deserialize(jsonReader.nextString());
+    }
+}
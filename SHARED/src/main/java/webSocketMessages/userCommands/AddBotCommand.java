@@ -0,0 +1,19 @@
+package webSocketMessages.userCommands;
+
+import chess.ChessGame;
+
+/**
+ * Sent from a player to seat the computer in an empty color of their game
+ */
+public class AddBotCommand extends UserGameCommand {
+    private final ChessGame.TeamColor botColor;
+
+    public AddBotCommand(String authToken, int gameID, ChessGame.TeamColor botColor) {
+        super(authToken, CommandType.ADD_BOT, gameID);
+        this.botColor = botColor;
+    }
+
+    public ChessGame.TeamColor botColor() {
+        return botColor;
+    }
+}
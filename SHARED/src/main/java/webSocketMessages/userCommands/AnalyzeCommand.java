@@ -0,0 +1,11 @@
+package webSocketMessages.userCommands;
+
+/**
+ * Sent from a player or observer to have the server search the current position of their game. The answer comes back
+ * to them alone as a notification once the search is done.
+ */
+public class AnalyzeCommand extends UserGameCommand {
+    public AnalyzeCommand(String authToken, int gameID) {
+        super(authToken, CommandType.ANALYZE, gameID);
+    }
+}
@@ -22,7 +22,9 @@ public class UserGameCommand {
         MAKE_MOVE(MakeMoveCommand.class),
         LEAVE(LeaveCommand.class),
         RESIGN(ResignCommand.class),
-        VERBOSE(VerboseCommand.class);
+        VERBOSE(VerboseCommand.class),
+        ADD_BOT(AddBotCommand.class),
+        ANALYZE(AnalyzeCommand.class);
 
         private final Class<? extends UserGameCommand> clazz;
 
@@ -0,0 +1,412 @@
+package myTests.chessTests;
+
+import chess.*;
+import edu.blaylock.chess.MoveUndo;
+import edu.blaylock.chess.impl.BitboardChessBoardImpl;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.impl.ChessMoveImpl;
+import edu.blaylock.chess.impl.ChessPieceImpl;
+import edu.blaylock.chess.impl.ChessPositionImpl;
+import edu.blaylock.chess.impl.PieceSquareTables;
+import edu.blaylock.chess.impl.Zobrist;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.*;
+
+public class ChessBoardTests {
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testAddGetAndDeletePiece(ChessBoardFactory.Implementation implementation) {
+        ChessBoard board = implementation.create();
+        ChessPosition position = new ChessPositionImpl(4, 5);
+        ChessPiece piece = new ChessPieceImpl(ChessPiece.PieceType.KNIGHT, ChessGame.TeamColor.BLACK);
+
+        Assertions.assertNull(board.getPiece(position));
+        board.addPiece(position, piece);
+        Assertions.assertEquals(piece, board.getPiece(position));
+        Assertions.assertTrue(contains(board.pieceLocationIterator(ChessGame.TeamColor.BLACK), position));
+
+        board.deletePieceAt(position);
+        Assertions.assertNull(board.getPiece(position));
+        Assertions.assertFalse(contains(board.pieceLocationIterator(ChessGame.TeamColor.BLACK), position));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testDefaultBoardMatchesConfig(ChessBoardFactory.Implementation implementation) {
+        ChessBoard board = implementation.create();
+        board.resetBoard();
+
+        Assertions.assertEquals(new ChessPositionImpl(1, 5), board.getKingLocation(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(new ChessPositionImpl(8, 5), board.getKingLocation(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(16, count(board.pieceLocationIterator(ChessGame.TeamColor.WHITE)));
+        Assertions.assertEquals(16, count(board.pieceLocationIterator(ChessGame.TeamColor.BLACK)));
+        Assertions.assertEquals(ChessPiece.PieceType.QUEEN, board.getPiece(new ChessPositionImpl(1, 4)).getPieceType());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, board.getPiece(new ChessPositionImpl(7, 1)).getTeamColor());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testMovePieceReturnsCaptured(ChessBoardFactory.Implementation implementation) {
+        ChessBoard board = implementation.create();
+        ChessPosition start = new ChessPositionImpl(1, 1);
+        ChessPosition end = new ChessPositionImpl(7, 1);
+        ChessPiece rook = new ChessPieceImpl(ChessPiece.PieceType.ROOK, ChessGame.TeamColor.WHITE);
+        ChessPiece pawn = new ChessPieceImpl(ChessPiece.PieceType.PAWN, ChessGame.TeamColor.BLACK);
+        board.addPiece(start, rook);
+        board.addPiece(end, pawn);
+
+        Assertions.assertEquals(pawn, board.movePiece(new ChessMoveImpl(start, end, null)));
+        Assertions.assertNull(board.getPiece(start));
+        Assertions.assertEquals(rook, board.getPiece(end));
+        Assertions.assertEquals(1, board.getPiece(end).numMovesTaken());
+        Assertions.assertEquals(0, count(board.pieceLocationIterator(ChessGame.TeamColor.BLACK)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testMovePiecePromotes(ChessBoardFactory.Implementation implementation) {
+        ChessBoard board = implementation.create();
+        ChessPosition start = new ChessPositionImpl(7, 3);
+        ChessPosition end = new ChessPositionImpl(8, 3);
+        board.addPiece(start, new ChessPieceImpl(ChessPiece.PieceType.PAWN, ChessGame.TeamColor.WHITE));
+
+        board.movePiece(new ChessMoveImpl(start, end, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, board.getPiece(end).getPieceType());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testCopyIsIndependent(ChessBoardFactory.Implementation implementation) {
+        ChessBoard board = implementation.create();
+        board.resetBoard();
+        ChessBoard copy = board.copy();
+
+        Assertions.assertEquals(board, copy);
+        copy.movePiece(new ChessMoveImpl(new ChessPositionImpl(2, 5), new ChessPositionImpl(4, 5), null));
+        Assertions.assertNotEquals(board, copy);
+        Assertions.assertNotNull(board.getPiece(new ChessPositionImpl(2, 5)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testMakeMoveCastlesAndUnmakeRestores(ChessBoardFactory.Implementation implementation) {
+        ChessBoard board = ChessBoardFactory.buildFromString("R   K  R\n\n\n\n\n\n\nr   k  r");
+        board = copyInto(board, implementation);
+        String before = board.serialize();
+        MoveUndo undo = new MoveUndo();
+
+        board.makeMove(new ChessMoveImpl(new ChessPositionImpl(1, 5), new ChessPositionImpl(1, 3), null), undo);
+        Assertions.assertEquals(ChessPiece.PieceType.KING, board.getPiece(new ChessPositionImpl(1, 3)).getPieceType());
+        Assertions.assertEquals(ChessPiece.PieceType.ROOK, board.getPiece(new ChessPositionImpl(1, 4)).getPieceType());
+        Assertions.assertNull(board.getPiece(new ChessPositionImpl(1, 1)));
+        Assertions.assertEquals(1, board.getRound());
+
+        board.unmakeMove(undo);
+        Assertions.assertEquals(before, board.serialize());
+        Assertions.assertEquals(new ChessPositionImpl(1, 5), board.getKingLocation(ChessGame.TeamColor.WHITE));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testMakeMoveEnPassantAndUnmakeRestores(ChessBoardFactory.Implementation implementation) {
+        ChessBoard board = implementation.create();
+        ChessPosition white = new ChessPositionImpl(5, 5);
+        ChessPosition black = new ChessPositionImpl(5, 4);
+        board.addPiece(white, new ChessPieceImpl(ChessPiece.PieceType.PAWN, ChessGame.TeamColor.WHITE, 2));
+        board.addPiece(black, new ChessPieceImpl(ChessPiece.PieceType.PAWN, ChessGame.TeamColor.BLACK, 1));
+        String before = board.serialize();
+        MoveUndo undo = new MoveUndo();
+
+        board.makeMove(new ChessMoveImpl(white, new ChessPositionImpl(6, 4), null), undo);
+        Assertions.assertNull(board.getPiece(black));
+        Assertions.assertEquals(0, count(board.pieceLocationIterator(ChessGame.TeamColor.BLACK)));
+
+        board.unmakeMove(undo);
+        Assertions.assertEquals(before, board.serialize());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testUnmakeRestoresEveryMoveOfRandomGames(ChessBoardFactory.Implementation implementation)
+            throws InvalidMoveException {
+        Random random = new Random(42);
+        MoveUndo undo = new MoveUndo();
+
+        for (int game = 0; game < 5; game++) {
+            ChessGame chessGame = newGame(implementation);
+
+            for (int ply = 0; ply < 80; ply++) {
+                List<ChessMove> moves = allMoves(chessGame);
+                if (moves.isEmpty()) break;
+
+                ChessBoard board = chessGame.getBoard();
+                String before = board.serialize();
+                for (ChessMove move : moves) {
+                    board.makeMove(move, undo);
+                    board.unmakeMove(undo);
+                    Assertions.assertEquals(before, board.serialize(), "Unmake failed for " + move);
+                }
+
+                ChessMove move = moves.get(random.nextInt(moves.size()));
+                if (chessGame.shouldPromotionOccur(move)) {
+                    move = new ChessMoveImpl(move.getStartPosition(), move.getEndPosition(), ChessPiece.PieceType.QUEEN);
+                }
+                chessGame.makeMove(move);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testIsSquareAttacked(ChessBoardFactory.Implementation implementation) {
+        ChessBoard board = implementation.create();
+        board.addPiece(new ChessPositionImpl(4, 4),
+                new ChessPieceImpl(ChessPiece.PieceType.PAWN, ChessGame.TeamColor.WHITE));
+        board.addPiece(new ChessPositionImpl(1, 1),
+                new ChessPieceImpl(ChessPiece.PieceType.ROOK, ChessGame.TeamColor.BLACK));
+        board.addPiece(new ChessPositionImpl(1, 4),
+                new ChessPieceImpl(ChessPiece.PieceType.KNIGHT, ChessGame.TeamColor.WHITE));
+
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPositionImpl(5, 3), ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPositionImpl(5, 5), ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPositionImpl(5, 4), ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPositionImpl(3, 5), ChessGame.TeamColor.WHITE));
+
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPositionImpl(1, 4), ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPositionImpl(1, 5), ChessGame.TeamColor.BLACK));
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPositionImpl(8, 1), ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPositionImpl(2, 2), ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    void testSquareAttacksAgreeOverRandomGames() throws InvalidMoveException {
+        Random random = new Random(99);
+
+        for (int game = 0; game < 10; game++) {
+            ChessGame object = newGame(ChessBoardFactory.Implementation.OBJECT);
+            ChessGame bitboard = newGame(ChessBoardFactory.Implementation.BITBOARD);
+
+            for (int ply = 0; ply < 100; ply++) {
+                BitboardChessBoardImpl bitboardBoard = (BitboardChessBoardImpl) bitboard.getBoard();
+                for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                    long attackMap = bitboardBoard.getAttackMap(color);
+                    for (int square = 0; square < 64; square++) {
+                        ChessPosition position = BitboardChessBoardImpl.positionOf(square);
+                        boolean attacked = object.getBoard().isSquareAttacked(position, color);
+                        Assertions.assertEquals(attacked, bitboardBoard.isSquareAttacked(position, color));
+                        Assertions.assertEquals(attacked, (attackMap & (1L << square)) != 0);
+                    }
+                }
+
+                List<ChessMove> moves = allMoves(object);
+                if (moves.isEmpty()) break;
+
+                ChessMove move = moves.get(random.nextInt(moves.size()));
+                if (object.shouldPromotionOccur(move)) {
+                    move = new ChessMoveImpl(move.getStartPosition(), move.getEndPosition(), ChessPiece.PieceType.QUEEN);
+                }
+                object.makeMove(move);
+                bitboard.makeMove(move);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testZobristKeyFollowsPositionNotHistory(ChessBoardFactory.Implementation implementation)
+            throws InvalidMoveException {
+        ChessGame start = newGame(implementation);
+        ChessGame knights = newGame(implementation);
+        for (String move : new String[]{"1G3F", "8G6F", "3F1G", "6F8G"}) {
+            knights.makeMove(parse(move));
+        }
+        Assertions.assertEquals(start.getZobristKey(), knights.getZobristKey());
+
+        knights.makeMove(parse("2E4E"));
+        Assertions.assertNotEquals(start.getZobristKey(), knights.getZobristKey());
+        Assertions.assertEquals(knights.getBoard().getZobristKey() ^ Zobrist.SIDE_TO_MOVE, knights.getZobristKey());
+
+        ChessGame rooks = newGame(implementation);
+        for (String move : new String[]{"1G3F", "8G6F", "1H1G", "8H8G", "1G1H", "8G8H", "3F1G", "6F8G"}) {
+            rooks.makeMove(parse(move));
+        }
+        Assertions.assertNotEquals(start.getZobristKey(), rooks.getZobristKey(), "Castling rights are part of the key");
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testZobristKeyMatchesRecomputationOverRandomGames(ChessBoardFactory.Implementation implementation)
+            throws InvalidMoveException {
+        Random random = new Random(5);
+        MoveUndo undo = new MoveUndo();
+
+        for (int game = 0; game < 10; game++) {
+            ChessGame chessGame = newGame(implementation);
+            ChessBoard board = chessGame.getBoard();
+
+            for (int ply = 0; ply < 100; ply++) {
+                Assertions.assertEquals(Zobrist.compute(board), board.getZobristKey());
+
+                List<ChessMove> moves = allMoves(chessGame);
+                if (moves.isEmpty()) break;
+
+                long before = board.getZobristKey();
+                for (ChessMove move : moves) {
+                    board.makeMove(move, undo);
+                    Assertions.assertEquals(Zobrist.compute(board), board.getZobristKey(), "After " + move);
+                    board.unmakeMove(undo);
+                    Assertions.assertEquals(before, board.getZobristKey(), "Unmake of " + move);
+                }
+
+                ChessMove move = moves.get(random.nextInt(moves.size()));
+                if (chessGame.shouldPromotionOccur(move)) {
+                    move = new ChessMoveImpl(move.getStartPosition(), move.getEndPosition(), ChessPiece.PieceType.QUEEN);
+                }
+                chessGame.makeMove(move);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testScoreMatchesRecomputationOverRandomGames(ChessBoardFactory.Implementation implementation)
+            throws InvalidMoveException {
+        Random random = new Random(11);
+        MoveUndo undo = new MoveUndo();
+        Assertions.assertEquals(0, newGame(implementation).getBoard().getScore(), "The start is even");
+
+        for (int game = 0; game < 10; game++) {
+            ChessGame chessGame = newGame(implementation);
+            ChessBoard board = chessGame.getBoard();
+
+            for (int ply = 0; ply < 100; ply++) {
+                Assertions.assertEquals(PieceSquareTables.score(board), board.getScore());
+                Assertions.assertEquals(board.getScore(), board.copy().getScore());
+
+                List<ChessMove> moves = allMoves(chessGame);
+                if (moves.isEmpty()) break;
+
+                int before = board.getScore();
+                for (ChessMove move : moves) {
+                    board.makeMove(move, undo);
+                    Assertions.assertEquals(PieceSquareTables.score(board), board.getScore(), "After " + move);
+                    board.unmakeMove(undo);
+                    Assertions.assertEquals(before, board.getScore(), "Unmake of " + move);
+                }
+
+                ChessMove move = moves.get(random.nextInt(moves.size()));
+                if (chessGame.shouldPromotionOccur(move)) {
+                    move = new ChessMoveImpl(move.getStartPosition(), move.getEndPosition(), ChessPiece.PieceType.QUEEN);
+                }
+                chessGame.makeMove(move);
+            }
+        }
+    }
+
+    @Test
+    void testSerializedFormatSharedBetweenImplementations() {
+        ChessBoard object = ChessBoardFactory.Implementation.OBJECT.create();
+        ChessBoard bitboard = ChessBoardFactory.Implementation.BITBOARD.create();
+        object.resetBoard();
+        bitboard.resetBoard();
+        object.updateRound(5);
+        bitboard.updateRound(5);
+
+        Assertions.assertEquals(object.serialize(), bitboard.serialize());
+    }
+
+    @Test
+    void testPositionsAreShared() {
+        ChessPosition position = ChessPositionImpl.of(4, 5);
+        Assertions.assertSame(position, ChessPositionImpl.of(4, 5));
+        Assertions.assertSame(position, ChessPositionImpl.of(3, 4).offset(1, 1));
+        Assertions.assertSame(position, BitboardChessBoardImpl.positionOf(28));
+        Assertions.assertEquals(new ChessPositionImpl(4, 5), position);
+        Assertions.assertNull(position.offset(5, 0));
+
+        ChessPosition border = ChessPositionImpl.of(0, 9);
+        Assertions.assertEquals(0, border.getRow());
+        Assertions.assertEquals(9, border.getColumn());
+    }
+
+    @Test
+    void testImplementationsAgreeOverRandomGames() throws InvalidMoveException {
+        Random random = new Random(240);
+
+        for (int game = 0; game < 20; game++) {
+            ChessGame object = newGame(ChessBoardFactory.Implementation.OBJECT);
+            ChessGame bitboard = newGame(ChessBoardFactory.Implementation.BITBOARD);
+
+            for (int ply = 0; ply < 120; ply++) {
+                List<ChessMove> objectMoves = allMoves(object);
+                List<ChessMove> bitboardMoves = allMoves(bitboard);
+                Assertions.assertEquals(objectMoves, bitboardMoves, "Move generation differs");
+                if (objectMoves.isEmpty()) break;
+
+                ChessMove move = objectMoves.get(random.nextInt(objectMoves.size()));
+                if (object.shouldPromotionOccur(move)) {
+                    move = new ChessMoveImpl(move.getStartPosition(), move.getEndPosition(), ChessPiece.PieceType.QUEEN);
+                }
+
+                object.makeMove(move);
+                bitboard.makeMove(move);
+                Assertions.assertEquals(object.getBoard().serialize(), bitboard.getBoard().serialize());
+            }
+        }
+    }
+
+    private static ChessGame newGame(ChessBoardFactory.Implementation implementation) {
+        ChessGame game = new ChessGameImpl();
+        ChessBoard board = implementation.create();
+        board.resetBoard();
+        game.setBoard(board);
+        return game;
+    }
+
+    /**
+     * @param move start and end as row and column letter, like ChessPosition.toString: "2E4E"
+     */
+    private static ChessMove parse(String move) {
+        return new ChessMoveImpl(new ChessPositionImpl(move.charAt(0) - '0', move.charAt(1) - 'A' + 1),
+                new ChessPositionImpl(move.charAt(2) - '0', move.charAt(3) - 'A' + 1), null);
+    }
+
+    private static ChessBoard copyInto(ChessBoard board, ChessBoardFactory.Implementation implementation) {
+        ChessBoard result = implementation.create();
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPosition position : board.pieceLocationIterator(color)) {
+                result.addPiece(position, board.getPiece(position).copy());
+            }
+        }
+        return result;
+    }
+
+    private static List<ChessMove> allMoves(ChessGame game) {
+        List<ChessMove> moves = new ArrayList<>();
+        for (ChessPosition position : new ArrayList<>(toList(game.getBoard().pieceLocationIterator(game.getTeamTurn())))) {
+            moves.addAll(game.validMoves(position));
+        }
+        moves.sort(Comparator.comparing(Object::toString));
+        return moves;
+    }
+
+    private static List<ChessPosition> toList(Iterable<ChessPosition> positions) {
+        List<ChessPosition> result = new ArrayList<>();
+        positions.forEach(result::add);
+        return result;
+    }
+
+    private static boolean contains(Iterable<ChessPosition> positions, ChessPosition position) {
+        return toList(positions).contains(position);
+    }
+
+    private static int count(Iterable<ChessPosition> positions) {
+        return toList(positions).size();
+    }
+}
@@ -0,0 +1,77 @@
+package myTests.chessTests;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.notation.Fen;
+import edu.blaylock.utils.gson.GsonUtils;
+import myTests.resources.GameFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class DrawTests {
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testThreefoldRepetition(ChessBoardFactory.Implementation implementation) throws InvalidMoveException {
+        ChessGame game = Fen.read(Fen.STARTING_POSITION, implementation);
+        GameFactory.play(game, "g1f3", "g8f6", "f3g1", "f6g8");
+        Assertions.assertFalse(game.isDrawByRepetition());
+        Assertions.assertEquals(4, game.getHalfmoveClock());
+
+        // Survives being stored and loaded again like the server does between moves
+        ChessGame stored = GsonUtils.standard().fromJson(GsonUtils.standard().toJson(game), ChessGame.class);
+        GameFactory.play(stored, "g1f3", "g8f6", "f3g1");
+        Assertions.assertFalse(stored.isDrawByRepetition());
+        GameFactory.play(stored, "f6g8");
+        Assertions.assertTrue(stored.isDrawByRepetition());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testPawnMoveStartsHistoryOver(ChessBoardFactory.Implementation implementation) throws InvalidMoveException {
+        ChessGame game = Fen.read(Fen.STARTING_POSITION, implementation);
+        GameFactory.play(game, "g1f3", "g8f6", "f3g1", "f6g8", "e2e3");
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+
+        GameFactory.play(game, "g8f6", "g1f3", "f6g8", "f3g1", "g8f6", "g1f3", "f6g8", "f3g1");
+        Assertions.assertTrue(game.isDrawByRepetition());
+        Assertions.assertEquals(8, game.getHalfmoveClock());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testFiftyMoveRule(ChessBoardFactory.Implementation implementation) throws InvalidMoveException {
+        ChessGame game = Fen.read("4k3/8/8/8/8/8/4P3/R3K3 w - - 98 70", implementation);
+        GameFactory.play(game, "a1a2");
+        Assertions.assertFalse(game.isDrawByFiftyMoves());
+        GameFactory.play(game, "e8d8");
+        Assertions.assertTrue(game.isDrawByFiftyMoves());
+        Assertions.assertEquals("3k4/8/8/8/8/8/R3P3/4K3 w - - 100 71", Fen.write(game));
+
+        ChessGame reset = Fen.read("4k3/8/8/8/8/8/4P3/R3K3 w - - 99 70", implementation);
+        GameFactory.play(reset, "e2e4");
+        Assertions.assertFalse(reset.isDrawByFiftyMoves());
+        Assertions.assertEquals(0, reset.getHalfmoveClock());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testCopyMovesIndependently(ChessBoardFactory.Implementation implementation) throws InvalidMoveException {
+        ChessGame game = Fen.read(Fen.STARTING_POSITION, implementation);
+        GameFactory.play(game, "g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1");
+        String fen = Fen.write(game);
+
+        ChessGame copy = game.copy();
+        GameFactory.play(copy, "f6g8");
+        Assertions.assertTrue(copy.isDrawByRepetition());
+        Assertions.assertFalse(game.isDrawByRepetition());
+        Assertions.assertEquals(fen, Fen.write(game));
+
+        GameFactory.play(game, "e7e5");
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(8, copy.getHalfmoveClock());
+        Assertions.assertTrue(copy.isDrawByRepetition());
+    }
+}
@@ -0,0 +1,143 @@
+package myTests.chessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import edu.blaylock.chess.engine.Engine;
+import edu.blaylock.chess.engine.ParallelSearch;
+import edu.blaylock.chess.engine.PieceSquareEvaluator;
+import edu.blaylock.chess.engine.SearchResult;
+import edu.blaylock.chess.engine.TranspositionTable;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.perft.PerftPosition;
+import myTests.resources.GameFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class EngineTests {
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testFindsMateInOne(ChessBoardFactory.Implementation implementation) {
+        ChessGame game = GameFactory.gameFromString("""
+                      K\s
+                     PPP
+                \s
+                \s
+                \s
+                \s
+                \s
+                r     k\s""", implementation);
+
+        SearchResult result = new Engine().search(game);
+        Assertions.assertEquals(GameFactory.move(1, 1, 8, 1), result.move());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(Engine.MATE - 1, result.score());
+    }
+
+    @Test
+    void testTakesHangingQueen() {
+        ChessGame game = GameFactory.gameFromString("""
+                K      \s
+                \s
+                \s
+                    Q  \s
+                \s
+                \s
+                \s
+                    r  k""", ChessBoardFactory.Implementation.OBJECT);
+
+        Assertions.assertEquals(GameFactory.move(1, 5, 5, 5), new Engine().search(game).move());
+    }
+
+    @Test
+    void testPromotesToQueen() {
+        ChessGame game = GameFactory.gameFromString("""
+                \s
+                p      \s
+                \s
+                \s
+                       K
+                \s
+                \s
+                       k""", ChessBoardFactory.Implementation.BITBOARD);
+
+        ChessMove move = new Engine().search(game).move();
+        Assertions.assertEquals(GameFactory.move(7, 1, 8, 1), move);
+        Assertions.assertEquals(ChessPiece.PieceType.QUEEN, move.getPromotionPiece());
+    }
+
+    @Test
+    void testNoMoveWhenCheckmated() {
+        ChessGame game = GameFactory.gameFromString("""
+                    K  \s
+                \s
+                \s
+                \s
+                \s
+                \s
+                     ppp
+                R     k\s""", ChessBoardFactory.Implementation.OBJECT);
+
+        SearchResult result = new Engine().search(game);
+        Assertions.assertNull(result.move());
+        Assertions.assertEquals(-Engine.MATE, result.score());
+    }
+
+    @Test
+    void testSearchStaysWithinBudgetAndLeavesGameUnchanged() {
+        ChessGame game = PerftPosition.START.newGame(ChessBoardFactory.Implementation.OBJECT);
+        String before = game.getBoard().serialize();
+
+        SearchResult result = new Engine(new PieceSquareEvaluator(), 100, Engine.MAX_PLY).search(game);
+        Assertions.assertNotNull(result.move());
+        Assertions.assertTrue(game.validMoves(result.move().getStartPosition()).contains(result.move()));
+        Assertions.assertTrue(result.depth() >= 2, "depth " + result.depth());
+        Assertions.assertTrue(result.millis() < 1000, result.millis() + " ms");
+        Assertions.assertEquals(before, game.getBoard().serialize());
+    }
+
+    @Test
+    void testTranspositionTableStoresAndReplaces() {
+        TranspositionTable table = new TranspositionTable(4);
+        long key = 0x123456789ABCDEFL;
+        Assertions.assertEquals(0, table.probe(key));
+
+        table.store(key, 0xABCDE, -Engine.MATE + 3, 5, TranspositionTable.EXACT);
+        long entry = table.probe(key);
+        Assertions.assertEquals(0xABCDE, TranspositionTable.move(entry));
+        Assertions.assertEquals(-Engine.MATE + 3, TranspositionTable.score(entry));
+        Assertions.assertEquals(5, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.EXACT, TranspositionTable.bound(entry));
+
+        // A key sharing the slot must not read the other key's entry
+        Assertions.assertEquals(0, table.probe(key ^ (1L << 40)));
+
+        table.clear();
+        Assertions.assertEquals(0, table.probe(key));
+    }
+
+    @Test
+    void testParallelSearchFindsMateInOne() {
+        ChessGame game = GameFactory.gameFromString("""
+                      K\s
+                     PPP
+                \s
+                \s
+                \s
+                \s
+                \s
+                r     k\s""", ChessBoardFactory.Implementation.OBJECT);
+
+        try (ParallelSearch search = new ParallelSearch(4, 100, 16)) {
+            SearchResult result = search.search(game);
+            Assertions.assertEquals(GameFactory.move(1, 1, 8, 1), result.move());
+            Assertions.assertEquals(Engine.MATE - 1, result.score());
+
+            // Helpers are reused between searches
+            Assertions.assertEquals(GameFactory.move(1, 1, 8, 1), search.search(game).move());
+        }
+    }
+}
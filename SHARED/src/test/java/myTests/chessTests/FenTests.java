@@ -0,0 +1,82 @@
+package myTests.chessTests;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.book.OpeningBookBuilder;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessPositionImpl;
+import edu.blaylock.chess.notation.Fen;
+import edu.blaylock.chess.perft.PerftPosition;
+import myTests.resources.GameFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class FenTests {
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testPerftPositionsRoundTrip(ChessBoardFactory.Implementation implementation) {
+        for (PerftPosition position : PerftPosition.values()) {
+            Assertions.assertEquals(position.getFen(), Fen.write(Fen.read(position.getFen(), implementation)));
+        }
+    }
+
+    @Test
+    void testPlayedGameMatchesFen() throws InvalidMoveException {
+        ChessGame game = Fen.read(Fen.STARTING_POSITION, ChessBoardFactory.Implementation.BITBOARD);
+        GameFactory.play(game, "e2e4", "c7c5", "g1f3");
+
+        String fen = "rnbqkbnr/pp1ppppp/8/2p5/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2";
+        Assertions.assertEquals(fen, Fen.write(game));
+        Assertions.assertEquals(game.getZobristKey(),
+                Fen.read(fen, ChessBoardFactory.Implementation.OBJECT).getZobristKey());
+    }
+
+    @Test
+    void testEnPassant() throws InvalidMoveException {
+        ChessGame game = Fen.read("4k3/8/8/8/3p4/8/4P3/4K3 w - - 0 1", ChessBoardFactory.Implementation.OBJECT);
+        GameFactory.play(game, "e2e4");
+
+        String fen = "4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1";
+        Assertions.assertEquals(fen, Fen.write(game));
+
+        ChessGame read = Fen.read(fen, ChessBoardFactory.Implementation.BITBOARD);
+        Assertions.assertEquals(game.getZobristKey(), read.getZobristKey());
+        Assertions.assertTrue(read.validMoves(ChessPositionImpl.of(4, 4))
+                .contains(OpeningBookBuilder.parseMove("d4e3")));
+
+        // One move later the pawn can't be taken anymore
+        GameFactory.play(read, "e8d8", "e1d1");
+        Assertions.assertEquals("3k4/8/8/8/3pP3/8/8/3K4 b - - 2 2", Fen.write(read));
+    }
+
+    @Test
+    void testCastlingRights() throws InvalidMoveException {
+        ChessGame game = Fen.read("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        GameFactory.play(game, "h1h2", "e8d8");
+        Assertions.assertEquals("r2k3r/8/8/8/8/8/7R/R3K3 w Q - 2 2", Fen.write(game));
+
+        ChessGame read = Fen.read("r3k2r/8/8/8/8/8/8/R3K2R w Qk - 0 1");
+        Assertions.assertTrue(read.validMoves(ChessPositionImpl.of(1, 5)).contains(OpeningBookBuilder.parseMove("e1c1")));
+        Assertions.assertFalse(read.validMoves(ChessPositionImpl.of(1, 5)).contains(OpeningBookBuilder.parseMove("e1g1")));
+    }
+
+    @Test
+    void testCountersAreOptional() {
+        ChessGame game = Fen.read("8/8/8/8/8/8/8/K6k b - -");
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(1, game.getBoard().getRound());
+    }
+
+    @Test
+    void testInvalidFenThrows() {
+        String[] invalid = {"", "8/8/8/8/8/8/8 w - - 0 1", "9/8/8/8/8/8/8/8 w - - 0 1", "8/8/8/8/8/8/8/8 x - - 0 1",
+                "8/8/8/8/8/8/8/8 w X - 0 1", "8/8/8/8/8/8/8/8 w - e3 0 1", "8/8/8/8/8/8/8/8 w - - 0 0",
+                Fen.STARTING_POSITION + " extra"};
+        for (String fen : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.read(fen), fen);
+        }
+    }
+}
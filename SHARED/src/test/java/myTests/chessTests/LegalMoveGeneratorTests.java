@@ -0,0 +1,217 @@
+package myTests.chessTests;
+
+import chess.*;
+import edu.blaylock.chess.MoveUndo;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.impl.ChessMoveImpl;
+import edu.blaylock.chess.impl.ChessPositionImpl;
+import edu.blaylock.chess.rules.PositionCache;
+import edu.blaylock.chess.rules.special.SpecialRulesManager;
+import myTests.resources.GameFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+public class LegalMoveGeneratorTests {
+
+    @Test
+    void testPinnedPieceStaysOnPin() {
+        ChessGame game = GameFactory.gameFromString("""
+                    R  \s
+                \s
+                \s
+                \s
+                \s
+                \s
+                    r  \s
+                    k  \s""");
+
+        Collection<ChessMove> moves = game.validMoves(new ChessPositionImpl(2, 5));
+        Assertions.assertEquals(6, moves.size());
+        for (ChessMove move : moves) {
+            Assertions.assertEquals(5, move.getEndPosition().getColumn());
+        }
+    }
+
+    @Test
+    void testOnlyKingMovesInDoubleCheck() {
+        ChessGame game = GameFactory.gameFromString("""
+                    R  \s
+                \s
+                \s
+                \s
+                q      \s
+                   N   \s
+                \s
+                    k  \s""");
+
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(game.validMoves(new ChessPositionImpl(4, 1)).isEmpty());
+        Assertions.assertFalse(game.validMoves(new ChessPositionImpl(1, 5)).isEmpty());
+    }
+
+    @Test
+    void testEnPassantCannotUncoverCheck() {
+        ChessGame game = enPassantGame("k  pP  R");
+        Assertions.assertEquals(Set.of(GameFactory.move(5, 4, 6, 4)), game.validMoves(new ChessPositionImpl(5, 4)));
+
+        game = enPassantGame("k  pP   ");
+        Assertions.assertEquals(Set.of(GameFactory.move(5, 4, 6, 4), GameFactory.move(5, 4, 6, 5)),
+                game.validMoves(new ChessPositionImpl(5, 4)));
+    }
+
+    @Test
+    void testCastlingAvoidsAttackedSquares() {
+        ChessGame game = GameFactory.gameFromString("""
+                 R   R \s
+                \s
+                \s
+                \s
+                \s
+                \s
+                \s
+                r   k  r""");
+
+        Collection<ChessMove> moves = game.validMoves(new ChessPositionImpl(1, 5));
+        Assertions.assertTrue(moves.contains(GameFactory.move(1, 5, 1, 3)));
+        Assertions.assertFalse(moves.contains(GameFactory.move(1, 5, 1, 7)));
+    }
+
+    @Test
+    void testCheckmateAndStalemate() {
+        ChessGame mate = GameFactory.gameFromString("""
+                    K  \s
+                \s
+                \s
+                \s
+                \s
+                \s
+                     ppp
+                R     k\s""");
+        Assertions.assertTrue(mate.isInCheckmate(ChessGame.TeamColor.WHITE));
+
+        ChessGame stalemate = GameFactory.gameFromString("""
+                \s
+                \s
+                \s
+                \s
+                \s
+                      Q\s
+                \s
+                       k""");
+        Assertions.assertFalse(stalemate.isInCheck(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(stalemate.isInStalemate(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(stalemate.isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void testPositionCacheSharesOneGeneration() {
+        PositionCache cache = new PositionCache(4);
+        ChessGame game = GameFactory.gameFromString("""
+                    K  \s
+                \s
+                \s
+                \s
+                \s
+                \s
+                     ppp
+                R     k\s""");
+
+        PositionCache.Entry entry = cache.lookup(game.getBoard(), ChessGame.TeamColor.WHITE);
+        Assertions.assertTrue(entry.isInCheckmate());
+        Assertions.assertSame(entry, cache.lookup(game.getBoard(), ChessGame.TeamColor.WHITE));
+
+        // Same pieces, but a copy of the board and the other color
+        ChessBoard copy = ChessBoardFactory.buildFromBytes(game.getBoard().serialize());
+        Assertions.assertSame(entry, cache.lookup(copy, ChessGame.TeamColor.WHITE));
+        Assertions.assertNotSame(entry, cache.lookup(copy, ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(2, cache.hits());
+        Assertions.assertEquals(2, cache.misses());
+
+        // Moving a piece changes the key, so the old entry is never returned for the new position
+        copy.addPiece(new ChessPositionImpl(2, 1), copy.getPiece(new ChessPositionImpl(1, 1)));
+        copy.addPiece(new ChessPositionImpl(1, 1), null);
+        Assertions.assertFalse(cache.lookup(copy, ChessGame.TeamColor.WHITE).isInCheckmate());
+        Assertions.assertEquals(3, cache.misses());
+    }
+
+    @Test
+    void testMatchesTryingEveryMoveOverRandomGames() throws InvalidMoveException {
+        Random random = new Random(7);
+
+        for (int game = 0; game < 30; game++) {
+            ChessGame chessGame = new ChessGameImpl();
+            ChessBoard board = ChessBoardFactory.emptyChessBoard();
+            board.resetBoard();
+            chessGame.setBoard(board);
+
+            for (int ply = 0; ply < 150; ply++) {
+                ChessGame.TeamColor color = chessGame.getTeamTurn();
+                List<ChessPosition> positions = new ArrayList<>();
+                board.pieceLocationIterator(color).forEach(positions::add);
+
+                List<ChessMove> moves = new ArrayList<>();
+                for (ChessPosition position : positions) {
+                    Collection<ChessMove> legal = chessGame.validMoves(position);
+                    Assertions.assertEquals(referenceMoves(board, position), legal, board.toString());
+                    moves.addAll(legal);
+                }
+
+                Assertions.assertEquals(referenceInCheck(board, color), chessGame.isInCheck(color));
+                Assertions.assertEquals(moves.isEmpty(), chessGame.isInStalemate(color));
+                if (moves.isEmpty()) break;
+
+                moves.sort(Comparator.comparing(Object::toString));
+                ChessMove move = moves.get(random.nextInt(moves.size()));
+                if (chessGame.shouldPromotionOccur(move)) {
+                    move = new ChessMoveImpl(move.getStartPosition(), move.getEndPosition(), ChessPiece.PieceType.QUEEN);
+                }
+                chessGame.makeMove(move);
+            }
+        }
+    }
+
+    /**
+     * Legal moves found the slow way: every pseudo legal move is made on the board and the king checked afterward
+     */
+    private static Set<ChessMove> referenceMoves(ChessBoard board, ChessPosition position) {
+        ChessPiece piece = board.getPiece(position);
+        Collection<ChessMove> candidates = piece.pieceMoves(board, position);
+        SpecialRulesManager.addValidRules(board, position, candidates);
+
+        MoveUndo undo = new MoveUndo();
+        Set<ChessMove> result = new HashSet<>();
+        for (ChessMove move : candidates) {
+            board.makeMove(move, undo);
+            if (!referenceInCheck(board, piece.getTeamColor())) result.add(move);
+            board.unmakeMove(undo);
+        }
+        return result;
+    }
+
+    private static boolean referenceInCheck(ChessBoard board, ChessGame.TeamColor color) {
+        ChessPosition king = board.getKingLocation(color);
+        for (ChessPosition location : board.pieceLocationIterator(color.next())) {
+            for (ChessMove move : board.getPiece(location).pieceMoves(board, location)) {
+                if (move.getEndPosition().equals(king)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A white pawn on d5 next to a black pawn on e5 that just moved two squares, with the rest of row 5 given
+     */
+    private static ChessGame enPassantGame(String fifthRow) {
+        ChessGame game = GameFactory.gameFromString("\n\n\n" + fifthRow);
+        ChessBoard board = game.getBoard();
+        ChessPiece blackPawn = board.getPiece(new ChessPositionImpl(5, 5));
+        blackPawn.incrementMovesTaken();
+        blackPawn.updateTimeOfLastMove(0);
+        board.getPiece(new ChessPositionImpl(5, 4)).incrementMovesTaken();
+        board.updateRound(1);
+        return game;
+    }
+}
@@ -0,0 +1,61 @@
+package myTests.chessTests;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.book.OpeningBookBuilder;
+import edu.blaylock.chess.engine.MateSolution;
+import edu.blaylock.chess.engine.MateSolver;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.notation.Fen;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class MateSolverTests {
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testMateInOne(ChessBoardFactory.Implementation implementation) throws InvalidMoveException {
+        MateSolver solver = new MateSolver();
+
+        MateSolution solution = solver.solve(Fen.read("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", implementation), 3);
+        Assertions.assertEquals(OpeningBookBuilder.parseMove("a1a8"), solution.key());
+        Assertions.assertEquals(1, solution.moves());
+        Assertions.assertTrue(solution.unique());
+
+        // Either rook mates
+        MateSolution twoKeys = solver.solve(Fen.read("6k1/5ppp/8/8/8/8/8/RR4K1 w - - 0 1", implementation), 3);
+        Assertions.assertEquals(1, twoKeys.moves());
+        Assertions.assertFalse(twoKeys.unique());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testMateInTwo(ChessBoardFactory.Implementation implementation) throws InvalidMoveException {
+        String fen = "3rr1k1/5ppp/8/8/8/8/4R3/4R1K1 w - - 0 1";
+        ChessGame game = Fen.read(fen, implementation);
+        MateSolver solver = new MateSolver();
+
+        Assertions.assertNull(solver.solve(game, 1));
+        MateSolution solution = solver.solve(game, 3);
+        Assertions.assertEquals(OpeningBookBuilder.parseMove("e2e8"), solution.key());
+        Assertions.assertEquals(2, solution.moves());
+        Assertions.assertTrue(solution.unique());
+        Assertions.assertEquals(fen, Fen.write(game));
+    }
+
+    @Test
+    void testNoMate() {
+        MateSolver solver = new MateSolver();
+        Assertions.assertNull(solver.solve(Fen.read(Fen.STARTING_POSITION), 3));
+        // Checkmated already, nothing left to play
+        Assertions.assertNull(solver.solve(Fen.read("R5k1/5ppp/8/8/8/8/8/6K1 b - - 1 1"), 3));
+    }
+
+    @Test
+    void testGivesUpAtNodeLimit() {
+        ChessGame game = Fen.read("3rr1k1/5ppp/8/8/8/8/4R3/4R1K1 w - - 0 1");
+        Assertions.assertNull(new MateSolver(3).solve(game, 3));
+    }
+}
@@ -0,0 +1,156 @@
+package myTests.chessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessMoveImpl;
+import edu.blaylock.chess.impl.ChessPositionImpl;
+import edu.blaylock.chess.notation.Fen;
+import edu.blaylock.utils.gson.GsonUtils;
+import myTests.resources.GameFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class MoveHistoryTests {
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testUndoRedoRandomGames(ChessBoardFactory.Implementation implementation) throws InvalidMoveException {
+        Random random = new Random(23);
+        for (int i = 0; i < 10; i++) {
+            ChessGame game = Fen.read(Fen.STARTING_POSITION, implementation);
+            List<String> positions = new ArrayList<>();
+            positions.add(describe(game));
+            for (int ply = 0; ply < 150; ply++) {
+                List<ChessMove> moves = legalMoves(game);
+                if (moves.isEmpty()) break;
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+                positions.add(describe(game));
+            }
+
+            for (int ply = positions.size() - 2; ply >= 0; ply--) {
+                Assertions.assertTrue(game.undoMove());
+                Assertions.assertEquals(positions.get(ply), describe(game));
+            }
+            Assertions.assertFalse(game.undoMove());
+
+            for (int ply = 1; ply < positions.size(); ply++) {
+                Assertions.assertTrue(game.redoMove());
+                Assertions.assertEquals(positions.get(ply), describe(game));
+            }
+            Assertions.assertFalse(game.redoMove());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testUndoSpecialMoves(ChessBoardFactory.Implementation implementation) throws InvalidMoveException {
+        assertUndoes("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 3 1", "e1c1", implementation);
+        assertUndoes("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 3 1", "e8g8", implementation);
+        assertUndoes("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2", "e5d6", implementation);
+        assertUndoes("1r2k3/P7/8/8/8/8/8/4K3 w - - 7 30", "a7b8n", implementation);
+        assertUndoes("1r2k3/P7/8/8/8/8/8/4K3 w - - 7 30", "a7a8q", implementation);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testNewMoveDropsTakenBackMoves(ChessBoardFactory.Implementation implementation) throws InvalidMoveException {
+        ChessGame game = Fen.read(Fen.STARTING_POSITION, implementation);
+        GameFactory.play(game, "e2e4", "e7e5", "g1f3");
+        game.undoMove();
+        game.undoMove();
+        Assertions.assertEquals(3, game.getMoveHistory().size());
+
+        // The move that comes next keeps the rest of the history
+        GameFactory.play(game, "e7e5");
+        Assertions.assertEquals(3, game.getMoveHistory().size());
+        game.undoMove();
+
+        GameFactory.play(game, "c7c5");
+        Assertions.assertEquals(2, game.getMoveHistory().size());
+        Assertions.assertFalse(game.redoMove());
+        Assertions.assertEquals("rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq c6 0 2", Fen.write(game));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testHistoryStoredAndCopied(ChessBoardFactory.Implementation implementation) throws InvalidMoveException {
+        ChessGame game = Fen.read(Fen.STARTING_POSITION, implementation);
+        GameFactory.play(game, "g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1", "f6g8");
+        Assertions.assertTrue(game.isDrawByRepetition());
+        game.undoMove();
+        game.setResignedTeam(ChessGame.TeamColor.BLACK);
+
+        ChessGame stored = GsonUtils.standard().fromJson(GsonUtils.standard().toJson(game), ChessGame.class);
+        ChessGame copy = game.copy();
+        for (ChessGame other : List.of(stored, copy)) {
+            Assertions.assertEquals(ChessGame.TeamColor.BLACK, other.getResignedTeam());
+            Assertions.assertEquals(8, other.getMoveHistory().size());
+            Assertions.assertEquals(7, other.getMoveHistory().cursor());
+            Assertions.assertFalse(other.isDrawByRepetition());
+            Assertions.assertTrue(other.redoMove());
+            Assertions.assertTrue(other.isDrawByRepetition());
+            while (other.undoMove()) {
+                Assertions.assertFalse(other.isDrawByRepetition());
+            }
+            Assertions.assertEquals(Fen.STARTING_POSITION, Fen.write(other));
+        }
+        Assertions.assertEquals(7, game.getMoveHistory().cursor());
+    }
+
+    private static void assertUndoes(String fen, String move, ChessBoardFactory.Implementation implementation)
+            throws InvalidMoveException {
+        ChessGame game = Fen.read(fen, implementation);
+        String before = describe(game);
+        GameFactory.play(game, move);
+        String after = describe(game);
+
+        Assertions.assertTrue(game.undoMove());
+        Assertions.assertEquals(before, describe(game));
+        Assertions.assertEquals(fen, Fen.write(game));
+        Assertions.assertTrue(game.redoMove());
+        Assertions.assertEquals(after, describe(game));
+    }
+
+    /**
+     * Everything that has to come back when a move is taken back: pieces with their moves taken and round of last
+     * move, clocks, key and whether the position is a draw
+     */
+    private static String describe(ChessGame game) {
+        return game.getBoard().serialize() + " " + Fen.write(game) + " " + game.getZobristKey() + " "
+                + game.isDrawByRepetition();
+    }
+
+    private static List<ChessMove> legalMoves(ChessGame game) {
+        List<ChessMove> moves = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int column = 1; column <= 8; column++) {
+                ChessPosition position = ChessPositionImpl.of(row, column);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece == null || piece.getTeamColor() != game.getTeamTurn()) continue;
+                for (ChessMove move : game.validMoves(position)) {
+                    if (!game.shouldPromotionOccur(move)) {
+                        moves.add(move);
+                        continue;
+                    }
+                    moves.add(new ChessMoveImpl(move.getStartPosition(), move.getEndPosition(),
+                            ChessPiece.PieceType.QUEEN));
+                    moves.add(new ChessMoveImpl(move.getStartPosition(), move.getEndPosition(),
+                            ChessPiece.PieceType.KNIGHT));
+                }
+            }
+        }
+        // validMoves returns a set, sorted so the seeded games are the same every run
+        moves.sort(Comparator.comparing(ChessMove::toString));
+        return moves;
+    }
+}
@@ -0,0 +1,106 @@
+package myTests.chessTests;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.book.OpeningBook;
+import edu.blaylock.chess.book.OpeningBookBuilder;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.rules.MoveList;
+import edu.blaylock.chess.rules.PackedMove;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class OpeningBookTests {
+
+    private static final String LINES = """
+            # Three games
+            e2e4 e7e5 g1f3 b8c6
+            e2e4 c7c5
+
+            d2d4 d7d5 c2c4
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testBookMovesAreSortedByWeight() throws IOException, InvalidMoveException {
+        OpeningBook book = buildBook(20);
+        Assertions.assertEquals(8, book.size());
+
+        ChessGame game = startGame();
+        MoveList moves = new MoveList();
+        Assertions.assertEquals(3, book.addMoves(game, moves));
+        Assertions.assertEquals(2, moves.size());
+        Assertions.assertEquals(move("e2e4"), moves.get(0));
+        Assertions.assertEquals(move("d2d4"), moves.get(1));
+
+        int first = book.find(game);
+        Assertions.assertEquals(2, book.weight(first));
+        Assertions.assertEquals(1, book.weight(first + 1));
+
+        game.makeMove(OpeningBookBuilder.parseMove("e2e4"));
+        moves.clear();
+        Assertions.assertEquals(2, book.addMoves(game, moves));
+        Assertions.assertTrue(moves.contains(move("e7e5")));
+        Assertions.assertTrue(moves.contains(move("c7c5")));
+    }
+
+    @Test
+    void testPickMoveFollowsWeights() throws IOException, InvalidMoveException {
+        OpeningBook book = buildBook(20);
+        ChessGame game = startGame();
+
+        Assertions.assertEquals(move("e2e4"), book.pickMove(game, 0));
+        Assertions.assertEquals(move("e2e4"), book.pickMove(game, 0.6));
+        Assertions.assertEquals(move("d2d4"), book.pickMove(game, 0.7));
+        Assertions.assertEquals(move("d2d4"), book.pickMove(game, 0.999));
+
+        game.makeMove(OpeningBookBuilder.parseMove("a2a3"));
+        Assertions.assertEquals(-1, book.find(game));
+        Assertions.assertEquals(-1, book.pickMove(game, 0.5));
+    }
+
+    @Test
+    void testMaxPliesLimitsLines() throws IOException {
+        Assertions.assertEquals(2, buildBook(1).size());
+    }
+
+    @Test
+    void testRejectsBadInput() throws IOException {
+        Assertions.assertThrows(InvalidMoveException.class, () -> OpeningBookBuilder.parseMove("e2"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> OpeningBookBuilder.parseMove("e7e8k"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> new OpeningBookBuilder().addLine("e2e5"));
+
+        Path notABook = directory.resolve("not_a_book.bin");
+        Files.writeString(notABook, "not a book");
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(notABook));
+    }
+
+    private OpeningBook buildBook(int maxPlies) throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPlies);
+        Assertions.assertEquals(3, builder.addLines(new BufferedReader(new StringReader(LINES))));
+
+        Path path = directory.resolve("book.bin");
+        builder.write(path);
+        return OpeningBook.open(path);
+    }
+
+    private static ChessGame startGame() {
+        ChessGame game = new ChessGameImpl();
+        game.setBoard(ChessBoardFactory.defaultChessBoard().copy());
+        return game;
+    }
+
+    private static int move(String move) throws InvalidMoveException {
+        return PackedMove.fromChessMove(OpeningBookBuilder.parseMove(move));
+    }
+}
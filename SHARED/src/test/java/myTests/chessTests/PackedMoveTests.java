@@ -0,0 +1,138 @@
+package myTests.chessTests;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessMoveImpl;
+import edu.blaylock.chess.impl.ChessPositionImpl;
+import edu.blaylock.chess.perft.PerftPosition;
+import edu.blaylock.chess.rules.LegalMoveGenerator;
+import edu.blaylock.chess.rules.MoveList;
+import edu.blaylock.chess.rules.MoveValidator;
+import edu.blaylock.chess.rules.PackedMove;
+import edu.blaylock.chess.rules.special.Castling;
+import edu.blaylock.chess.rules.special.EnPassant;
+import edu.blaylock.chess.rules.special.SpecialRulesManager;
+import myTests.resources.GameFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static edu.blaylock.chess.impl.BitboardChessBoardImpl.squareOf;
+
+public class PackedMoveTests {
+
+    @Test
+    void testPackingKeepsEveryField() {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                int move = PackedMove.of(from, to, ChessPiece.PieceType.KNIGHT, PackedMove.CAPTURE);
+                Assertions.assertEquals(from, PackedMove.from(move));
+                Assertions.assertEquals(to, PackedMove.to(move));
+                Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, PackedMove.promotion(move));
+                Assertions.assertTrue(PackedMove.hasFlag(move, PackedMove.CAPTURE));
+                Assertions.assertFalse(PackedMove.hasFlag(move, PackedMove.DOUBLE_PUSH));
+            }
+        }
+
+        ChessMove move = new ChessMoveImpl(new ChessPositionImpl(7, 2), new ChessPositionImpl(8, 1),
+                ChessPiece.PieceType.QUEEN);
+        ChessMove converted = PackedMove.toChessMove(PackedMove.fromChessMove(move));
+        Assertions.assertEquals(move, converted);
+        Assertions.assertEquals(move.getPromotionPiece(), converted.getPromotionPiece());
+        Assertions.assertNull(PackedMove.promotion(PackedMove.of(8, 16)));
+    }
+
+    @Test
+    void testMoveListGrowsAndClears() {
+        MoveList moves = new MoveList(1);
+        for (int i = 0; i < 100; i++) moves.add(PackedMove.of(i % 64, (i + 1) % 64));
+
+        Assertions.assertEquals(100, moves.size());
+        Assertions.assertEquals(PackedMove.of(99 % 64, 100 % 64), moves.get(99));
+        Assertions.assertTrue(moves.contains(PackedMove.of(5, 6, null, PackedMove.CAPTURE)));
+
+        moves.clear();
+        Assertions.assertTrue(moves.isEmpty());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> moves.get(0));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChessBoardFactory.Implementation.class)
+    void testPackedMovesMatchPieceMoves(ChessBoardFactory.Implementation implementation) {
+        ChessBoard board = PerftPosition.KIWIPETE.newGame(implementation).getBoard();
+        MoveList moves = new MoveList();
+
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPosition position : board.pieceLocationIterator(color)) {
+                moves.clear();
+                MoveValidator.addValidMoves(color, board, position, moves);
+
+                Set<ChessMove> converted = new HashSet<>();
+                moves.addTo(converted);
+                Assertions.assertEquals(board.getPiece(position).pieceMoves(board, position), converted);
+
+                for (int i = 0; i < moves.size(); i++) {
+                    int move = moves.get(i);
+                    ChessPiece target = board.getPiece(PackedMove.toChessMove(move).getEndPosition());
+                    Assertions.assertEquals(target != null, PackedMove.hasFlag(move, PackedMove.CAPTURE));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testGeneratorFlagsDoublePushes() {
+        ChessBoard board = PerftPosition.START.newGame(ChessBoardFactory.Implementation.BITBOARD).getBoard();
+        LegalMoveGenerator generator = new LegalMoveGenerator(board, ChessGame.TeamColor.WHITE);
+
+        MoveList moves = new MoveList();
+        generator.addMoves(squareOf(new ChessPositionImpl(2, 5)), moves);
+
+        Assertions.assertEquals(2, moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            boolean doublePush = PackedMove.to(move) == squareOf(new ChessPositionImpl(4, 5));
+            Assertions.assertEquals(doublePush, PackedMove.hasFlag(move, PackedMove.DOUBLE_PUSH));
+        }
+    }
+
+    @Test
+    void testGeneratorFlagsSpecialMoves() throws InvalidMoveException {
+        ChessGame game = PerftPosition.KIWIPETE.newGame(ChessBoardFactory.Implementation.OBJECT);
+        MoveList moves = new MoveList();
+        new LegalMoveGenerator(game.getBoard(), ChessGame.TeamColor.WHITE).addMoves(square(1, 5), moves);
+
+        int castle = moves.find(square(1, 5), square(1, 7));
+        Assertions.assertTrue(PackedMove.hasFlag(castle, PackedMove.CASTLE));
+        Assertions.assertInstanceOf(Castling.class, SpecialRulesManager.getRule(castle));
+        Assertions.assertNull(SpecialRulesManager.getRule(moves.find(square(1, 5), square(1, 6))));
+
+        game = PerftPosition.START.newGame(ChessBoardFactory.Implementation.OBJECT);
+        game.makeMove(GameFactory.move(2, 5, 4, 5));
+        game.makeMove(GameFactory.move(7, 1, 6, 1));
+        game.makeMove(GameFactory.move(4, 5, 5, 5));
+        game.makeMove(GameFactory.move(7, 4, 5, 4));
+
+        moves.clear();
+        new LegalMoveGenerator(game.getBoard(), ChessGame.TeamColor.WHITE).addMoves(square(5, 5), moves);
+        int enPassant = moves.find(square(5, 5), square(6, 4));
+        Assertions.assertTrue(PackedMove.hasFlag(enPassant, PackedMove.EN_PASSANT | PackedMove.CAPTURE));
+        Assertions.assertInstanceOf(EnPassant.class, SpecialRulesManager.getRule(enPassant));
+
+        game.makeMove(GameFactory.move(5, 5, 6, 4));
+        Assertions.assertNull(game.getBoard().getPiece(new ChessPositionImpl(5, 4)));
+    }
+
+    private static int square(int row, int column) {
+        return squareOf(new ChessPositionImpl(row, column));
+    }
+}
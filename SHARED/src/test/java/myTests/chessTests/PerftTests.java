@@ -0,0 +1,68 @@
+package myTests.chessTests;
+
+import chess.ChessGame;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.perft.Perft;
+import edu.blaylock.chess.perft.PerftPosition;
+import edu.blaylock.chess.rules.PositionCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Map;
+
+public class PerftTests {
+
+    /**
+     * Deep enough to reach castling, en passant and promotions in every position while keeping the test quick
+     */
+    private static int testDepth(PerftPosition position) {
+        return switch (position) {
+            case POSITION_3 -> 4;
+            default -> 3;
+        };
+    }
+
+    @ParameterizedTest
+    @EnumSource(PerftPosition.class)
+    void testObjectBoardNodeCounts(PerftPosition position) {
+        int depth = testDepth(position);
+        Perft perft = new Perft(position.newGame(ChessBoardFactory.Implementation.OBJECT));
+        Assertions.assertEquals(position.expectedNodes(depth), perft.perft(depth));
+    }
+
+    @ParameterizedTest
+    @EnumSource(PerftPosition.class)
+    void testBitboardNodeCounts(PerftPosition position) {
+        int depth = testDepth(position);
+        Perft perft = new Perft(position.newGame(ChessBoardFactory.Implementation.BITBOARD));
+        Assertions.assertEquals(position.expectedNodes(depth), perft.perft(depth));
+    }
+
+    @Test
+    void testDivideAddsUpToPerft() {
+        Perft perft = new Perft(PerftPosition.KIWIPETE.newGame(ChessBoardFactory.Implementation.BITBOARD));
+        Map<String, Long> divide = perft.divide(2);
+
+        Assertions.assertEquals(48, divide.size());
+        Assertions.assertEquals(PerftPosition.KIWIPETE.expectedNodes(2),
+                divide.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertTrue(divide.containsKey("e1g1"));
+        Assertions.assertTrue(divide.containsKey("e1c1"));
+    }
+
+    @Test
+    void testPerftLeavesGameUnchanged() {
+        ChessGame game = PerftPosition.KIWIPETE.newGame(ChessBoardFactory.Implementation.OBJECT);
+        String before = game.getBoard().serialize();
+        long key = game.getZobristKey();
+        long sharedMisses = PositionCache.shared().misses();
+
+        new Perft(game).perft(3);
+        Assertions.assertEquals(before, game.getBoard().serialize());
+        Assertions.assertEquals(key, game.getZobristKey());
+        // Perft's positions went to a cache of its own
+        Assertions.assertEquals(sharedMisses, PositionCache.shared().misses());
+    }
+}
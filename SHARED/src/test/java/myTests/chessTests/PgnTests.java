@@ -0,0 +1,144 @@
+package myTests.chessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.book.OpeningBookBuilder;
+import edu.blaylock.chess.notation.Fen;
+import edu.blaylock.chess.notation.PgnGame;
+import edu.blaylock.chess.notation.PgnReader;
+import edu.blaylock.chess.notation.PgnWriter;
+import edu.blaylock.chess.notation.San;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PgnTests {
+
+    private static final String OPERA_GAME = """
+            [Event "Paris"]
+            [Site "Paris FRA"]
+            [Date "1858.??.??"]
+            [Round "?"]
+            [White "Morphy, Paul"]
+            [Black "Duke Karl / Count Isouard"]
+            [Result "1-0"]
+
+            1.e4 e5 2.Nf3 d6 3.d4 Bg4 {This is a weak move already.} 4.dxe5 Bxf3 5.Qxf3 dxe5
+            6.Bc4 Nf6 7.Qb3 Qe7 8.Nc3 c6 9.Bg5 b5?! (9...Qb4+ 10.Qxb4 Bxb4) 10.Nxb5 cxb5
+            11.Bxb5+ Nbd7 12.O-O-O Rd8 13.Rxd7 Rxd7 14.Rd1 Qe6 $6 15.Bxd7+ Nxd7 16.Qb8+ Nxb8
+            ; Mate follows
+            17.Rd8# 1-0
+            """;
+
+    @Test
+    void testReadWriteRoundTrip() throws IOException, InvalidMoveException {
+        PgnGame game = new PgnReader(new StringReader(OPERA_GAME)).next();
+
+        Assertions.assertEquals(33, game.moves().size());
+        Assertions.assertEquals(PgnGame.WHITE_WINS, game.result());
+        Assertions.assertEquals("Morphy, Paul", game.tags().get("White"));
+        Assertions.assertTrue(game.play().isInCheckmate(ChessGame.TeamColor.BLACK));
+
+        StringWriter text = new StringWriter();
+        new PgnWriter(text).write(game);
+        String written = text.toString();
+        Assertions.assertTrue(written.startsWith("[Event \"Paris\"]\n[Site \"Paris FRA\"]\n"));
+        Assertions.assertTrue(written.contains("1. e4 e5 2. Nf3 d6 3. d4 Bg4 4. dxe5 Bxf3"));
+        Assertions.assertTrue(written.contains("11. Bxb5+ Nbd7 12. O-O-O Rd8"));
+        Assertions.assertTrue(written.endsWith("17. Rd8# 1-0\n\n"));
+        for (String line : written.split("\n")) {
+            Assertions.assertTrue(line.length() < PgnWriter.LINE_LENGTH, line);
+        }
+
+        PgnGame again = new PgnReader(new StringReader(written)).next();
+        Assertions.assertEquals(game.moves(), again.moves());
+        Assertions.assertEquals(game.tags(), again.tags());
+    }
+
+    @Test
+    void testSanDisambiguationAndPromotion() throws InvalidMoveException {
+        ChessGame game = Fen.read("7k/4P3/8/8/8/R1N3N1/8/R3K3 w - - 0 1");
+
+        Assertions.assertEquals("R1a2", San.encode(game, OpeningBookBuilder.parseMove("a1a2")));
+        Assertions.assertEquals("R3a2", San.encode(game, OpeningBookBuilder.parseMove("a3a2")));
+        Assertions.assertEquals("Nce2", San.encode(game, OpeningBookBuilder.parseMove("c3e2")));
+        Assertions.assertEquals("Rb3", San.encode(game, OpeningBookBuilder.parseMove("a3b3")));
+        Assertions.assertEquals("e8=Q+", San.encode(game, OpeningBookBuilder.parseMove("e7e8q")));
+        Assertions.assertEquals("e8=N", San.encode(game, OpeningBookBuilder.parseMove("e7e8n")));
+
+        Assertions.assertEquals(OpeningBookBuilder.parseMove("a1a2"), San.decode(game, "R1a2"));
+        Assertions.assertEquals(OpeningBookBuilder.parseMove("g3e2"), San.decode(game, "Nge2"));
+        Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, San.decode(game, "e8N").getPromotionPiece());
+        Assertions.assertEquals(ChessPiece.PieceType.QUEEN, San.decode(game, "e8=Q+").getPromotionPiece());
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.decode(game, "Ra2"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.decode(game, "e8"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.decode(game, "O-O"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> San.decode(game, "Zz9"));
+    }
+
+    @Test
+    void testSanOfMovesMade() throws InvalidMoveException {
+        ChessGame game = Fen.read("r3k2r/8/8/8/3pP3/8/8/R3K2R b KQkq e3 0 1");
+        ChessMove enPassant = OpeningBookBuilder.parseMove("d4e3");
+        ChessGame after = game.copy();
+        after.makeMove(enPassant);
+        Assertions.assertEquals("dxe3", San.encode(game, enPassant, after));
+        Assertions.assertEquals(San.encode(game, enPassant), San.encode(game, enPassant, after));
+
+        List<String> played = List.of("dxe3", "O-O-O", "O-O", "Rd8", "Rfxd8");
+        ChessGame replay = Fen.read("r3k2r/8/8/8/3pP3/8/8/R3K2R b KQkq e3 0 1");
+        for (String san : played) {
+            Assertions.assertEquals(san, San.play(replay, San.decode(replay, san)));
+        }
+        Assertions.assertEquals("r2r2k1/8/8/8/8/4p3/8/2K4R w - - 0 4", Fen.write(replay));
+    }
+
+    @Test
+    void testSkipsBadGame() throws IOException, InvalidMoveException {
+        String text = """
+                [White "a"]
+                1. e4 e5 2. Ke3 Nc6 3. Nf3 0-1
+
+                [White "b"]
+                %escaped line 1. d4
+                1. d4 d5 2. c4 dxc4 *
+                """;
+        PgnReader reader = new PgnReader(new StringReader(text));
+
+        Assertions.assertThrows(InvalidMoveException.class, reader::next);
+        PgnGame game = reader.next();
+        Assertions.assertEquals("b", game.tags().get("White"));
+        Assertions.assertEquals(4, game.moves().size());
+        Assertions.assertEquals(PgnGame.UNFINISHED, game.result());
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    void testWritesSetUpForOtherStart() throws IOException, InvalidMoveException {
+        String fen = "r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 5";
+        ChessGame start = Fen.read(fen);
+        List<ChessMove> moves = List.of(OpeningBookBuilder.parseMove("e8c8"),
+                OpeningBookBuilder.parseMove("e1g1"));
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Annotator", "\"quoted\"");
+
+        StringWriter text = new StringWriter();
+        new PgnWriter(text).write(new PgnGame(tags, moves, PgnGame.DRAW, start));
+        String written = text.toString();
+        Assertions.assertTrue(written.contains("[Annotator \"\\\"quoted\\\"\"]\n[SetUp \"1\"]\n[FEN \"" + fen + "\"]"));
+        Assertions.assertTrue(written.endsWith("5... O-O-O 6. O-O 1/2-1/2\n\n"), written);
+
+        PgnGame read = new PgnReader(new StringReader(written)).next();
+        Assertions.assertEquals(moves, read.moves());
+        Assertions.assertEquals("\"quoted\"", read.tags().get("Annotator"));
+        Assertions.assertEquals("2kr3r/8/8/8/8/8/8/R4RK1 b - - 2 6", Fen.write(read.play()));
+    }
+}
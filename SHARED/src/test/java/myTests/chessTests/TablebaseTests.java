@@ -0,0 +1,139 @@
+package myTests.chessTests;
+
+import chess.ChessGame;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.tablebase.Tablebase;
+import edu.blaylock.chess.tablebase.TablebaseResult;
+import edu.blaylock.chess.tablebase.Tablebases;
+import myTests.resources.GameFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class TablebaseTests {
+
+    private static Tablebases tablebases;
+
+    @BeforeAll
+    static void solve() {
+        tablebases = Tablebases.generate();
+    }
+
+    @Test
+    void testLongestMatesMatchKnownValues() {
+        // 10, 16 and 28 moves for the strong side, one more ply when the bare king moves first
+        Assertions.assertEquals(20, tablebases.get(Tablebase.Material.KQK).longestMate());
+        Assertions.assertEquals(32, tablebases.get(Tablebase.Material.KRK).longestMate());
+        Assertions.assertEquals(56, tablebases.get(Tablebase.Material.KPK).longestMate());
+    }
+
+    @Test
+    void testQueenMatesInOne() {
+        ChessGame game = GameFactory.gameFromString("""
+                K      \s
+                \s
+                 k     \s
+                \s
+                \s
+                \s
+                \s
+                  q    \s""", ChessBoardFactory.Implementation.BITBOARD, ChessGame.TeamColor.WHITE);
+
+        Assertions.assertEquals(new TablebaseResult(TablebaseResult.Outcome.WIN, 1), tablebases.probe(game));
+    }
+
+    @Test
+    void testCheckmatedKingIsLost() {
+        ChessGame game = GameFactory.gameFromString("""
+                K q    \s
+                \s
+                 k     \s
+                \s
+                \s
+                \s
+                \s
+                \s""", ChessBoardFactory.Implementation.BITBOARD, ChessGame.TeamColor.BLACK);
+
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(new TablebaseResult(TablebaseResult.Outcome.LOSS, 0), tablebases.probe(game));
+    }
+
+    @Test
+    void testPawnEndings() {
+        // Opposition with the defender to move wins, for either color
+        ChessGame opposition = GameFactory.gameFromString("""
+                    K  \s
+                \s
+                    k  \s
+                    p  \s
+                \s
+                \s
+                \s
+                \s""", ChessBoardFactory.Implementation.BITBOARD, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(TablebaseResult.Outcome.LOSS, tablebases.probe(opposition).outcome());
+
+        ChessGame flipped = GameFactory.gameFromString("""
+                \s
+                \s
+                \s
+                \s
+                    P  \s
+                    K  \s
+                \s
+                    k  \s""", ChessBoardFactory.Implementation.BITBOARD, ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(tablebases.probe(opposition), tablebases.probe(flipped));
+
+        // A rook pawn can't win against a king in its corner
+        ChessGame cornered = GameFactory.gameFromString("""
+                K      \s
+                \s
+                \s
+                \s
+                p      \s
+                \s
+                \s
+                    k  \s""", ChessBoardFactory.Implementation.BITBOARD, ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(TablebaseResult.DRAW, tablebases.probe(cornered));
+    }
+
+    @Test
+    void testOtherMaterialIsNotCovered() {
+        ChessGame bishop = GameFactory.gameFromString("""
+                K      \s
+                \s
+                \s
+                \s
+                \s
+                \s
+                \s
+                  b k  \s""", ChessBoardFactory.Implementation.BITBOARD, ChessGame.TeamColor.WHITE);
+        Assertions.assertNull(tablebases.probe(bishop));
+
+        ChessGame start = new ChessGameImpl();
+        start.setBoard(ChessBoardFactory.defaultChessBoard().copy());
+        Assertions.assertNull(tablebases.probe(start));
+    }
+
+    @Test
+    void testWriteAndRead(@TempDir Path directory) throws IOException {
+        tablebases.write(directory);
+        Tablebases read = Tablebases.read(directory);
+
+        ChessGame game = GameFactory.gameFromString("""
+                \s
+                \s
+                   K   \s
+                \s
+                \s
+                 r     \s
+                \s
+                    k  \s""", ChessBoardFactory.Implementation.BITBOARD, ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(tablebases.probe(game), read.probe(game));
+        Assertions.assertEquals(TablebaseResult.Outcome.LOSS, read.probe(game).outcome());
+    }
+}
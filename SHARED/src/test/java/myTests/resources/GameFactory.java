@@ -0,0 +1,46 @@
+package myTests.resources;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import edu.blaylock.chess.book.OpeningBookBuilder;
+import edu.blaylock.chess.impl.ChessBoardFactory;
+import edu.blaylock.chess.impl.ChessGameImpl;
+import edu.blaylock.chess.impl.ChessMoveImpl;
+import edu.blaylock.chess.impl.ChessPositionImpl;
+
+public class GameFactory {
+
+    public static ChessGame gameFromString(String board) {
+        ChessGame game = new ChessGameImpl();
+        game.setBoard(ChessBoardFactory.buildFromString(board));
+        return game;
+    }
+
+    public static ChessGame gameFromString(String board, ChessBoardFactory.Implementation implementation) {
+        ChessGame game = new ChessGameImpl();
+        game.setBoard(ChessBoardFactory.buildFromString(board, implementation));
+        return game;
+    }
+
+    public static ChessGame gameFromString(String board, ChessBoardFactory.Implementation implementation,
+                                           ChessGame.TeamColor turn) {
+        ChessGame game = gameFromString(board, implementation);
+        game.setTeamTurn(turn);
+        return game;
+    }
+
+    public static ChessMove move(int startRow, int startColumn, int endRow, int endColumn) {
+        return new ChessMoveImpl(new ChessPositionImpl(startRow, startColumn),
+                new ChessPositionImpl(endRow, endColumn), null);
+    }
+
+    /**
+     * Make moves given in coordinates, like "e2e4" or "a7a8q"
+     */
+    public static void play(ChessGame game, String... moves) throws InvalidMoveException {
+        for (String move : moves) {
+            game.makeMove(OpeningBookBuilder.parseMove(move));
+        }
+    }
+}